@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Time from launch to the first line of output, with and without the AOT cache, for one
+# command (help by default); prints the median of each.
+#
+#   src/aot/startup.sh target/aot [runs] [command...]
+set -euo pipefail
+
+launcher="$1/newsletter"
+runs="${2:-10}"
+shift $(( $# > 1 ? 2 : 1 ))
+command=("${@:-help}")
+
+first_output_ms() {
+  local start
+  start=$(date +%s%N)
+  "$@" | { IFS= read -r _ || true; echo $(( ($(date +%s%N) - start) / 1000000 )); cat > /dev/null; }
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+for mode in without with; do
+  no_aot=$([[ $mode == without ]] && echo 1 || echo "")
+  env NEWSLETTER_NO_AOT="$no_aot" "$launcher" "${command[@]}" > /dev/null || true  # warm the file cache
+  times=()
+  for _ in $(seq "$runs"); do
+    times+=("$(first_output_ms env NEWSLETTER_NO_AOT="$no_aot" "$launcher" "${command[@]}")")
+  done
+  printf '%-18s median %5s ms   runs: %s\n' "$mode AOT cache" "$(printf '%s\n' "${times[@]}" | median)" "${times[*]}"
+done
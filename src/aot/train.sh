@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Builds an AOT cache (JDK 25) for the CLI from a training run of full-update against the local
+# fixtures in src/aot/fixtures, next to an extracted copy of the application and the launcher
+# that uses it:
+#
+#   src/aot/train.sh target/newsletter-0.jar target/aot
+#
+# Run by ./mvnw -Paot-cache package. A cache only fits the JDK and the jars it was trained with,
+# so it is rebuilt with every package.
+set -euo pipefail
+
+jar="$1"
+rm -rf "$2"
+mkdir -p "$2"
+out="$(cd "$2" && pwd)"
+src="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+bin="${JAVA_HOME:+$JAVA_HOME/bin/}"
+port="${AOT_FIXTURE_PORT:-18765}"
+
+# The classes in a Spring Boot fat jar are loaded from nested jars, which the JVM cannot cache.
+"${bin}java" -Djarmode=tools -jar "$jar" extract --destination "$out/app"
+cp "$src/newsletter" "$out/newsletter"
+chmod +x "$out/newsletter"
+
+work="$out/training"
+mkdir -p "$work"
+cp -R "$src/fixtures" "$work/fixtures"
+
+# A calendar around today, so events fall in the window and reach the classifier; the zoned
+# one goes through ical4j.
+day() { date -u -d "$1 days" +%Y%m%d; }
+{
+  printf 'BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//newsletter-cli//training//EN\r\n'
+  printf 'BEGIN:VEVENT\r\nUID:1\r\nDTSTAMP:20260101T000000Z\r\nDTSTART;VALUE=DATE:%s\r\nSUMMARY:Spring Boot 3.5.9 (Enterprise)\r\nEND:VEVENT\r\n' "$(day -2)"
+  printf 'BEGIN:VEVENT\r\nUID:2\r\nDTSTAMP:20260101T000000Z\r\nDTSTART;VALUE=DATE:%s\r\nSUMMARY:Spring Framework 7.0.3\r\nEND:VEVENT\r\n' "$(day 3)"
+  printf 'BEGIN:VEVENT\r\nUID:3\r\nDTSTAMP:20260101T000000Z\r\nDTSTART;TZID=Europe/London:%sT090000\r\nSUMMARY:Spring Security 7.0.2\r\nEND:VEVENT\r\n' "$(day 4)"
+  printf 'BEGIN:VEVENT\r\nUID:4\r\nDTSTAMP:20260101T000000Z\r\nDTSTART;VALUE=DATE:%s\r\nSUMMARY:Release planning meeting\r\nEND:VEVENT\r\n' "$(day 1)"
+  printf 'END:VCALENDAR\r\n'
+} > "$work/fixtures/calendar.ics"
+
+"${bin}jwebserver" -b 127.0.0.1 -p "$port" -d "$work/fixtures" -o none &
+server=$!
+trap 'kill "$server" 2>/dev/null || true' EXIT
+for _ in $(seq 100); do
+  (exec 3<>"/dev/tcp/127.0.0.1/$port") 2>/dev/null && break
+  sleep 0.1
+done
+
+base="http://127.0.0.1:$port"
+NEWSLETTER_AOT_TRAINING=1 \
+JAVA_OPTS="-Dnewsletter.youtube.feed-base-url=$base/youtube.xml -Dnewsletter.github.api-base-url=$base/github -Dnewsletter.http-cache.dir=$work/http-cache" \
+  "$out/newsletter" full-update --filename "$work/update.md" \
+    --rssUrl "$base/blog.atom,$base/news.rdf" --calendarUrl "$base/calendar.ics"
+
+test -s "$out/newsletter.aot"
+echo "AOT cache written to $out/newsletter.aot; start the CLI with $out/newsletter"
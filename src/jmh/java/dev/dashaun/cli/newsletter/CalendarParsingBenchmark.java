@@ -0,0 +1,89 @@
+package dev.dashaun.cli.newsletter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a release calendar into the snapshot one run needs, as the calendar's history grows:
+ * ical4j parsing every event against {@link VEventScanner} reading only the default window.
+ *
+ * <p>The gc profiler's columns show the allocation side: the full parse allocates per event
+ * in the feed, the scan per event in the window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarParsingBenchmark {
+
+    @Param({"1", "5", "10"})
+    int years;
+
+    private String ical;
+    private CalendarService service;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setup() {
+        LocalDate today = LocalDate.now();
+        ical = history(today.minusYears(years), today.plusDays(90));
+        service = new CalendarService();
+        from = today.minusDays(31);
+        to = today.plusDays(62);
+    }
+
+    @Benchmark
+    public CalendarSnapshot ical4j() throws Exception {
+        return service.parseSnapshot(ical);
+    }
+
+    @Benchmark
+    public CalendarSnapshot scan() throws Exception {
+        return service.scanSnapshot(ical, from, to);
+    }
+
+    /**
+     * Eight all-day releases a week from {@code first} to {@code last}, plus one timed meeting a
+     * week, shaped like calendar.spring.io.
+     */
+    static String history(LocalDate first, LocalDate last) {
+        String[] projects = {"Spring Boot", "Spring Framework", "Spring Security", "Spring Data",
+                "Spring Cloud", "Spring Integration", "Spring AI", "Reactor"};
+        DateTimeFormatter format = DateTimeFormatter.BASIC_ISO_DATE;
+        StringBuilder ical = new StringBuilder("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//spring//calendar//EN\r\n");
+        int uid = 0;
+        for (LocalDate week = first; !week.isAfter(last); week = week.plusWeeks(1)) {
+            for (int i = 0; i < projects.length; i++) {
+                String summary = projects[i] + " " + (3 + i % 3) + "." + (week.getDayOfYear() % 10) + ".0"
+                        + (i % 2 == 0 ? " (Enterprise)" : "");
+                ical.append("BEGIN:VEVENT\r\nUID:release-").append(uid++).append("@spring\r\n")
+                        .append("DTSTAMP:20240101T000000Z\r\n")
+                        .append("DTSTART;VALUE=DATE:").append(week.plusDays(i % 5).format(format)).append("\r\n")
+                        .append("SUMMARY:").append(summary).append("\r\n")
+                        .append("END:VEVENT\r\n");
+            }
+            ical.append("BEGIN:VEVENT\r\nUID:meeting-").append(uid++).append("@spring\r\n")
+                    .append("DTSTAMP:20240101T000000Z\r\n")
+                    .append("DTSTART:").append(week.format(format)).append("T160000Z\r\n")
+                    .append("SUMMARY:Release planning meeting\r\n")
+                    .append("END:VEVENT\r\n");
+        }
+        return ical.append("END:VCALENDAR\r\n").toString();
+    }
+}
@@ -0,0 +1,109 @@
+package dev.dashaun.cli.newsletter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The document side of {@code full-update}: every section replaced on the parsed document, the
+ * blank-line cleanup on its own, and a whole {@link DocumentService#edit} of a file whose content
+ * does not change (read, parse, update, compare; no write), which is what most re-runs are.
+ *
+ * <p>{@code items} is the length of each generated list; a normal issue has about 10 to 30.
+ * Enterprise releases are left out: they are prepended, so every call would grow the document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentRewriteBenchmark {
+
+    @Param({"10", "100"})
+    int items;
+
+    private List<RssService.NewsItem> news;
+    private List<CalendarService.ReleaseEvent> releases;
+    private List<YouTubeService.YouTubeVideo> videos;
+    private List<GitHubService.DemoRepository> demos;
+    private String document;
+    private String rendered;
+    private DocumentService documentService;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        LocalDate today = LocalDate.of(2026, 8, 13);
+        news = new ArrayList<>();
+        releases = new ArrayList<>();
+        videos = new ArrayList<>();
+        demos = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            news.add(new RssService.NewsItem("This Week in Spring, part " + i,
+                    "https://spring.io/blog/2026/08/" + i, today.atStartOfDay()));
+            releases.add(new CalendarService.ReleaseEvent("Boot", "3.5." + i, today.plusDays(i % 7),
+                    "Spring Boot 3.5." + i + (i % 2 == 0 ? " (Enterprise)" : "")));
+            videos.add(new YouTubeService.YouTubeVideo("Spring Office Hours: Episode " + i,
+                    "https://www.youtube.com/watch?v=vid" + i, "SpringSourceDev", LocalDateTime.of(2026, 8, 1, 12, 0)));
+            demos.add(new GitHubService.DemoRepository("sample-" + i + "-demo", "Demo number " + i,
+                    "https://github.com/dashaun-tanzu", LocalDateTime.of(2026, 8, 1, 12, 0)));
+        }
+
+        NewsletterDocument previous = NewsletterDocument.parse(NewsletterDocument.template("August 13"));
+        apply(previous);
+        // A hand-written note under a section and some stray blank lines, as a real issue has.
+        document = previous.render().replace("## YouTube:\n", "## YouTube:\n\n\n\nWatch these!\n\n\n");
+        rendered = apply(NewsletterDocument.parse(document)).render();
+
+        documentService = new DocumentService();
+        file = Files.writeString(Files.createTempFile("newsletter-benchmark", ".md"), document);
+        documentService.edit(file.toString(), this::apply);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String replaceSections() {
+        return DocumentService.removeDoubleSpacing(apply(NewsletterDocument.parse(document)).render());
+    }
+
+    @Benchmark
+    public String removeDoubleSpacing() {
+        return DocumentService.removeDoubleSpacing(rendered);
+    }
+
+    @Benchmark
+    public boolean editUnchanged() throws IOException {
+        return documentService.edit(file.toString(), this::apply);
+    }
+
+    private NewsletterDocument apply(NewsletterDocument document) {
+        document.updateNews(news);
+        document.updateReleasesComingSoon(releases);
+        document.updateYouTube(videos);
+        document.updateGitHubDemos(demos);
+        return document;
+    }
+}
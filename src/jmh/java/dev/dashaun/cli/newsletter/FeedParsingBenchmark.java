@@ -0,0 +1,134 @@
+package dev.dashaun.cli.newsletter;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming feed parsing against the previous ROME path (whole-document DOM, then
+ * {@code limit}). The gc profiler's columns show the allocation difference as well.
+ *
+ * <p>{@code limit = 10} is what a single feed or a YouTube channel asks for; the
+ * {@code Integer.MAX_VALUE} case is the multi-feed news merge, which needs every entry and so
+ * measures parsing without the early stop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedParsingBenchmark {
+
+    @Param({"15", "200"})
+    int entries;
+
+    @Param({"10", "2147483647"})
+    int limit;
+
+    private byte[] feed;
+    private RssService rssService;
+    private YouTubeService youTubeService;
+
+    @Setup
+    public void setup() {
+        feed = atomFeed(entries).getBytes(StandardCharsets.UTF_8);
+        rssService = new RssService();
+        youTubeService = new YouTubeService();
+    }
+
+    @Benchmark
+    public List<RssService.NewsItem> newsStreaming() {
+        return rssService.parseNewsItems(feed, limit);
+    }
+
+    @Benchmark
+    public List<RssService.NewsItem> newsRome() throws Exception {
+        return rome(feed).getEntries().stream()
+                .limit(limit)
+                .map(entry -> new RssService.NewsItem(entry.getTitle(), entry.getLink(), localDate(entry)))
+                .toList();
+    }
+
+    @Benchmark
+    public List<YouTubeService.YouTubeVideo> youtubeStreaming() {
+        return youTubeService.parseVideos(feed, limit, "Channel");
+    }
+
+    @Benchmark
+    public List<YouTubeService.YouTubeVideo> youtubeRome() throws Exception {
+        return rome(feed).getEntries().stream()
+                .filter(entry -> !YouTubeService.isShort(entry))
+                .limit(limit)
+                .map(entry -> new YouTubeService.YouTubeVideo(entry.getTitle(), entry.getLink(), "Channel",
+                        localDate(entry)))
+                .toList();
+    }
+
+    private static SyndFeed rome(byte[] xml) throws Exception {
+        return new SyndFeedInput().build(new XmlReader(new ByteArrayInputStream(xml)));
+    }
+
+    private static LocalDateTime localDate(SyndEntry entry) {
+        return entry.getPublishedDate() == null ? null
+                : entry.getPublishedDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    /** A YouTube-shaped Atom feed where every fourth entry is a Short. */
+    static String atomFeed(int entries) {
+        StringBuilder xml = new StringBuilder(entries * 1200 + 512);
+        xml.append("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <feed xmlns:yt="http://www.youtube.com/xml/schemas/2015" xmlns:media="http://search.yahoo.com/mrss/" xmlns="http://www.w3.org/2005/Atom">
+                 <link rel="self" href="http://www.youtube.com/feeds/videos.xml?channel_id=UCxyz"/>
+                 <id>yt:channel:xyz</id>
+                 <title>Channel</title>
+                 <published>2015-01-01T00:00:00+00:00</published>
+                """);
+        Instant published = Instant.parse("2026-08-01T12:00:00Z");
+        for (int i = 0; i < entries; i++) {
+            String path = i % 4 == 3 ? "shorts/" : "watch?v=";
+            String date = published.minusSeconds(i * 3600L).atOffset(ZoneOffset.UTC).toString().replace("Z", "+00:00");
+            xml.append("""
+                     <entry>
+                      <id>yt:video:vid%1$d</id>
+                      <yt:videoId>vid%1$d</yt:videoId>
+                      <title>Spring Office Hours: Episode %1$d</title>
+                      <link rel="alternate" href="https://www.youtube.com/%2$svid%1$d"/>
+                      <author><name>Channel</name><uri>https://www.youtube.com/channel/UCxyz</uri></author>
+                      <published>%3$s</published>
+                      <updated>%3$s</updated>
+                      <media:group>
+                       <media:title>Spring Office Hours: Episode %1$d</media:title>
+                       <media:content url="https://www.youtube.com/v/vid%1$d" type="application/x-shockwave-flash" width="640" height="390"/>
+                       <media:thumbnail url="https://i.ytimg.com/vi/vid%1$d/hqdefault.jpg" width="480" height="360"/>
+                       <media:description>Join us for another episode where we look at what is new across the Spring portfolio, answer questions from the chat and dig into a demo or two.</media:description>
+                       <media:community><media:starRating count="120" average="5.00" min="1" max="5"/><media:statistics views="4200"/></media:community>
+                      </media:group>
+                     </entry>
+                    """.formatted(i, path, date));
+        }
+        return xml.append("</feed>\n").toString();
+    }
+}
@@ -0,0 +1,98 @@
+package dev.dashaun.cli.newsletter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The single streaming pass against the previous regex parsing, which re-split and re-scanned
+ * the whole response for every repository's {@code archived} flag. Expect the regex side to grow
+ * quadratically with {@code repos}. At 10,000 one regex call takes well over a minute, so pass
+ * {@code -p repos=100,1000} for a quick run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class GitHubParsingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int repos;
+
+    private GitHubService service;
+    private String json;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setup() {
+        service = new GitHubService();
+        json = orgRepos(repos);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<GitHubService.DemoRepository> streaming() throws Exception {
+        return service.readRepositories(jsonBytes, true);
+    }
+
+    /** What fetchDemoRepositories did before: split, regex every field, then isArchived per repo. */
+    @Benchmark
+    public List<GitHubService.DemoRepository> regex() {
+        List<GitHubService.DemoRepository> repositories = new ArrayList<>();
+        for (String repoJson : service.extractTopLevelObjects(json)) {
+            String name = service.extractJsonField(repoJson, "name");
+            if (name != null) {
+                repositories.add(new GitHubService.DemoRepository(name,
+                        service.extractJsonField(repoJson, "description"),
+                        service.extractJsonField(repoJson, "html_url"),
+                        null));
+                service.extractJsonField(repoJson, "updated_at");
+            }
+        }
+        return repositories.stream()
+                .filter(repo -> repo.getName().endsWith("-demo"))
+                .filter(repo -> !service.isArchived(json, repo.getName()))
+                .toList();
+    }
+
+    /** An org listing shaped like the GitHub API's, with one repository in three a demo. */
+    static String orgRepos(int count) {
+        StringBuilder json = new StringBuilder(count * 2200).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String name = i % 3 == 0 ? "sample-" + i + "-demo" : "library-" + i;
+            json.append("""
+                    {"id":%1$d,"node_id":"R_kgDO%1$d","name":"%2$s","full_name":"dashaun-tanzu/%2$s","private":false,\
+                    "owner":{"login":"dashaun-tanzu","id":1,"avatar_url":"https://avatars.githubusercontent.com/u/1?v=4",\
+                    "url":"https://api.github.com/users/dashaun-tanzu","html_url":"https://github.com/dashaun-tanzu",\
+                    "type":"Organization","site_admin":false},\
+                    "html_url":"https://github.com/dashaun-tanzu/%2$s","description":"Repository number %1$d, with \\"quotes\\"",\
+                    "fork":false,"url":"https://api.github.com/repos/dashaun-tanzu/%2$s",\
+                    "created_at":"2024-01-01T00:00:00Z","updated_at":"2026-0%3$d-15T10:00:00Z","pushed_at":"2026-01-15T10:00:00Z",\
+                    "homepage":null,"size":%1$d,"stargazers_count":3,"watchers_count":3,"language":"Java",\
+                    "has_issues":true,"has_projects":true,"has_wiki":false,"forks_count":0,"archived":%4$s,"disabled":false,\
+                    "open_issues_count":0,"license":{"key":"apache-2.0","name":"Apache License 2.0","spdx_id":"Apache-2.0"},\
+                    "topics":["spring","spring-boot","demo"],"visibility":"public","default_branch":"main",\
+                    "permissions":{"admin":false,"maintain":false,"push":false,"triage":false,"pull":true}}\
+                    """.formatted(i, name, 1 + i % 9, i % 7 == 0));
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,150 @@
+package dev.dashaun.cli.newsletter;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.model.component.VEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifying every VEVENT summary of a calendar: the previous regex code (three patterns
+ * compiled per summary, two more in {@code replaceAll}) against {@link ReleaseSummaryClassifier}
+ * without and with its memo.
+ *
+ * <p>By default the calendar is generated, shaped like calendar.spring.io. To measure a real
+ * one, record it and pass the path: {@code curl -o /tmp/spring.ics https://calendar.spring.io/ical}
+ * and then {@code -p dump=/tmp/spring.ics}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReleaseClassifierBenchmark {
+
+    @Param({""})
+    String dump;
+
+    private List<String> summaries;
+    private ReleaseSummaryClassifier memoized;
+
+    @Setup
+    public void setup() throws Exception {
+        String ical = dump.isEmpty() ? springCalendar(3000) : Files.readString(Path.of(dump));
+        summaries = new CalendarBuilder().build(new StringReader(ical)).getComponents().stream()
+                .filter(VEvent.class::isInstance)
+                .map(component -> ((VEvent) component).getSummary())
+                .filter(summary -> summary != null)
+                .map(summary -> summary.getValue())
+                .toList();
+        memoized = new ReleaseSummaryClassifier(4096);
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String summary : summaries) {
+            blackhole.consume(Legacy.isReleaseEvent(summary) ? Legacy.extractProjectInfo(summary) : null);
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole) {
+        for (String summary : summaries) {
+            blackhole.consume(ReleaseSummaryClassifier.compute(summary));
+        }
+    }
+
+    @Benchmark
+    public void memoized(Blackhole blackhole) {
+        for (String summary : summaries) {
+            blackhole.consume(memoized.classify(summary));
+        }
+    }
+
+    /** What CalendarService did before, verbatim. */
+    static final class Legacy {
+
+        private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+\\.\\d+(?:\\.\\d+)?(?:-[A-Z0-9]+)?)", Pattern.CASE_INSENSITIVE);
+
+        static boolean isReleaseEvent(String summary) {
+            String lowerSummary = summary.toLowerCase();
+            return (lowerSummary.contains("release") ||
+                    lowerSummary.contains("spring") ||
+                    VERSION_PATTERN.matcher(summary).find()) &&
+                    !lowerSummary.contains("meeting") &&
+                    !lowerSummary.contains("planning");
+        }
+
+        static String[] extractProjectInfo(String summary) {
+            String[] patterns = {
+                    "(?i)([A-Za-z\\s]+?)\\s+(\\d+\\.\\d+(?:\\.\\d+)?(?:-[A-Z0-9]+)?)(?:\\s+release)?",
+                    "(?i)([A-Za-z\\s]+?)\\s+v?(\\d+\\.\\d+(?:\\.\\d+)?(?:-[A-Z0-9]+)?)",
+                    "(?i)release\\s+([A-Za-z\\s]+?)\\s+(\\d+\\.\\d+(?:\\.\\d+)?(?:-[A-Z0-9]+)?)"
+            };
+            for (String patternStr : patterns) {
+                Pattern pattern = Pattern.compile(patternStr);
+                Matcher matcher = pattern.matcher(summary);
+                if (matcher.find()) {
+                    String projectName = matcher.group(1).trim();
+                    String version = matcher.group(2).trim();
+                    projectName = projectName
+                            .replaceAll("(?i)^(release|spring)\\s+", "")
+                            .replaceAll("(?i)\\s+(release|rc|ga|final)$", "")
+                            .trim();
+                    if (!projectName.isEmpty() && !version.isEmpty()) {
+                        return new String[] {projectName, version};
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A release calendar with {@code events} entries: a few dozen projects, each released in
+     * community and enterprise flavours on a fortnightly train, so most summaries recur.
+     */
+    static String springCalendar(int events) {
+        String[] projects = {"Spring Boot", "Spring Framework", "Spring Security", "Spring Data", "Spring Cloud",
+                "Spring Integration", "Spring Batch", "Spring AMQP", "Spring Kafka", "Spring GraphQL",
+                "Spring Session", "Spring Shell", "Spring AI", "Spring Modulith", "Reactor", "Micrometer"};
+        String[] versions = {"3.5.1", "3.4.8", "6.2.9", "6.1.21", "2025.0.1", "2024.0.3", "1.0.0-M8", "4.0.0-RC1"};
+        DateTimeFormatter format = DateTimeFormatter.BASIC_ISO_DATE;
+        StringBuilder ical = new StringBuilder("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//spring//calendar//EN\r\n");
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < events; i++) {
+            String summary = projects[i % projects.length] + " " + versions[(i / projects.length) % versions.length]
+                    + (i % 3 == 0 ? " (Enterprise)" : "");
+            if (i % 50 == 0) {
+                summary = "Release planning meeting";
+            }
+            String date = start.plusDays((i / projects.length) * 14L % 900).format(format);
+            ical.append("BEGIN:VEVENT\r\nUID:event-").append(i).append("@spring\r\n")
+                    .append("DTSTAMP:20240101T000000Z\r\n")
+                    .append("DTSTART;VALUE=DATE:").append(date).append("\r\n")
+                    .append("SUMMARY:").append(summary).append("\r\n")
+                    .append("END:VEVENT\r\n");
+        }
+        return ical.append("END:VCALENDAR\r\n").toString();
+    }
+}
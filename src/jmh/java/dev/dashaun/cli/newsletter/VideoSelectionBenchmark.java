@@ -0,0 +1,68 @@
+package dev.dashaun.cli.newsletter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link YouTubeService#selectVideos} over what the channel feeds return: 15 videos per channel
+ * (a full feed), for the channels the newsletter follows and for a longer list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VideoSelectionBenchmark {
+
+    @Param({"2", "20"})
+    int channels;
+
+    @Param({"10"})
+    int limit;
+
+    private Map<String, List<YouTubeService.YouTubeVideo>> byChannel;
+
+    @Setup
+    public void setup() {
+        byChannel = byChannel(channels, 15);
+    }
+
+    @Benchmark
+    public List<YouTubeService.YouTubeVideo> selectVideos() {
+        return YouTubeService.selectVideos(byChannel, limit);
+    }
+
+    /** {@code perChannel} videos per channel, in feed order (newest first), interleaved in time. */
+    static Map<String, List<YouTubeService.YouTubeVideo>> byChannel(int channels, int perChannel) {
+        LocalDateTime newest = LocalDateTime.of(2026, 8, 1, 12, 0);
+        Map<String, List<YouTubeService.YouTubeVideo>> byChannel = new LinkedHashMap<>();
+        for (int c = 0; c < channels; c++) {
+            String channel = "Channel " + c;
+            List<YouTubeService.YouTubeVideo> videos = new ArrayList<>();
+            for (int v = 0; v < perChannel; v++) {
+                videos.add(new YouTubeService.YouTubeVideo("Episode " + v + " of " + channel,
+                        "https://www.youtube.com/watch?v=c" + c + "v" + v, channel,
+                        newest.minusHours(v * 24L * (c + 1) + c)));
+            }
+            byChannel.put(channel, videos);
+        }
+        return byChannel;
+    }
+}
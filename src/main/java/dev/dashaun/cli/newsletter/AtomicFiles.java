@@ -0,0 +1,82 @@
+package dev.dashaun.cli.newsletter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.UUID;
+
+/**
+ * Replaces a file's content through a temporary file next to it and a rename, so a crash mid-write
+ * leaves either the old file or the new one, never a mix, and a reader never sees half a file.
+ * Used for the document, the archive's index and journal, the run report, and the HTTP cache and
+ * last-known-good entries.
+ */
+final class AtomicFiles {
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Writes {@code content} to {@code path}, or through it to the file a symbolic link points at.
+     * The replaced file's permissions are kept. With {@code fsync}, the content and the rename are
+     * forced to disk before this returns.
+     */
+    static void write(Path path, byte[] content, boolean fsync) throws IOException {
+        Path target = Files.isSymbolicLink(path) ? path.toRealPath() : path.toAbsolutePath();
+        Path directory = target.getParent();
+        Path temp = directory.resolve("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer bytes = ByteBuffer.wrap(content);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                if (fsync) {
+                    channel.force(true);
+                }
+            }
+            copyPermissions(target, temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (fsync) {
+                syncDirectory(directory);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Deletes {@code path} if it exists; with {@code fsync}, the deletion is on disk before this returns. */
+    static void delete(Path path, boolean fsync) throws IOException {
+        if (Files.deleteIfExists(path) && fsync) {
+            syncDirectory(path.toAbsolutePath().getParent());
+        }
+    }
+
+    // A fresh temporary file would otherwise replace the file's mode with the umask default.
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        PosixFileAttributeView source = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (source != null && Files.exists(from)) {
+            Files.setPosixFilePermissions(to, source.readAttributes().permissions());
+        }
+    }
+
+    // Makes the rename itself durable. Not every platform can open a directory for this; the
+    // file's own contents were already forced, so that is as far as those can go.
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Best effort
+        }
+    }
+}
@@ -1,128 +1,210 @@
 package dev.dashaun.cli.newsletter;
 
 import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ParserException;
 import net.fortuna.ical4j.model.Calendar;
 import net.fortuna.ical4j.model.component.VEvent;
 import net.fortuna.ical4j.model.property.DtStart;
 import net.fortuna.ical4j.model.property.Summary;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
+import java.io.IOException;
 import java.io.StringReader;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class CalendarService {
 
-    private final WebClient webClient;
+    private final HttpFetcher httpFetcher;
+    private final Map<String, CompletableFuture<Loaded>> calendars = new ConcurrentHashMap<>();
     private static final String DEFAULT_CALENDAR_URL = "https://calendar.spring.io/ical";
 
+    // Read at least this much around today, so the recent and upcoming sections share one scan.
+    private static final int HORIZON_DAYS_PAST = 31;
+    private static final int HORIZON_DAYS_AHEAD = 62;
+
     private static final int MAX_ATTEMPTS = 3;
     private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(2);
 
-    // Pattern to extract version numbers from event summaries
-    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+\\.\\d+(?:\\.\\d+)?(?:-[A-Z0-9]+)?)", Pattern.CASE_INSENSITIVE);
+    // Summaries seen by this service and what they were classified as. The calendar repeats
+    // the same summaries across events, and a daemon keeps the service across runs.
+    private static final int CLASSIFIER_CAPACITY = 4096;
+    private final ReleaseSummaryClassifier classifier = new ReleaseSummaryClassifier(CLASSIFIER_CAPACITY);
+
+    private static final int MAX_CALENDAR_BYTES = 1024 * 1024 * 5;
 
     public CalendarService() {
-        this.webClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024 * 5))
-                .build();
+        this(HttpFetcher.standalone());
     }
 
-    public List<ReleaseEvent> fetchUpcomingReleases(String calendarUrl, int daysAhead) {
-        try {
-            String icalContent = RetryUtils.executeWithRetry(new Callable<String>() {
-                @Override
-                public String call() {
-                    return webClient.get()
-                            .uri(calendarUrl != null ? calendarUrl : DEFAULT_CALENDAR_URL)
-                            .retrieve()
-                            .bodyToMono(String.class)
-                            .timeout(Duration.ofSeconds(30))
-                            .block();
-                }
-            }, MAX_ATTEMPTS, INITIAL_BACKOFF);
+    @Autowired
+    public CalendarService(HttpFetcher httpFetcher) {
+        this.httpFetcher = httpFetcher;
+    }
 
-            CalendarBuilder builder = new CalendarBuilder();
-            Calendar calendar = builder.build(new StringReader(icalContent));
+    public List<ReleaseEvent> fetchUpcomingReleases(String calendarUrl, int daysAhead) {
+        LocalDate today = LocalDate.now();
+        return snapshot(calendarUrl, today, today.plusDays(daysAhead)).community(today, today.plusDays(daysAhead));
+    }
 
-            LocalDate today = LocalDate.now();
-            LocalDate endDate = today.plusDays(daysAhead);
+    public List<ReleaseEvent> fetchRecentReleases(String calendarUrl, int daysPast) {
+        LocalDate today = LocalDate.now();
+        return snapshot(calendarUrl, today.minusDays(daysPast), today).enterprise(today.minusDays(daysPast), today);
+    }
 
-            List<ReleaseEvent> releases = new ArrayList<>();
+    /**
+     * The parsed calendar at {@code calendarUrl}, downloaded at most once per run. Concurrent
+     * callers for the same URL wait for the one download. A failed download is not remembered, so
+     * the next caller tries again.
+     *
+     * <p>Only events from a month back to two months ahead are read; see
+     * {@link #snapshot(String, LocalDate, LocalDate)} for other windows.
+     */
+    public CalendarSnapshot snapshot(String calendarUrl) {
+        LocalDate today = LocalDate.now();
+        return snapshot(calendarUrl, today, today);
+    }
 
-            for (Object component : calendar.getComponents()) {
-                if (component instanceof VEvent) {
-                    VEvent event = (VEvent) component;
-                    if(!isEnterpriseReleaseEvent(event.getSummary().getValue())) {
-                    ReleaseEvent release = parseReleaseEvent(event, today, endDate);
-                    if (release != null) {
-                        releases.add(release);
-                    }
-                    }
-                }
+    /**
+     * Like {@link #snapshot(String)}, but covering at least {@code from} to {@code to}. A window
+     * the held snapshot does not cover is read again from the downloaded text, not downloaded again.
+     */
+    public CalendarSnapshot snapshot(String calendarUrl, LocalDate from, LocalDate to) {
+        String url = calendarUrl != null ? calendarUrl : DEFAULT_CALENDAR_URL;
+        // Only the future goes into the map; the download and the scans happen outside it, so a
+        // slow calendar holds up the callers that want it and nobody else.
+        CompletableFuture<Loaded> started = new CompletableFuture<>();
+        CompletableFuture<Loaded> loading = calendars.computeIfAbsent(url, key -> started);
+        if (loading == started) {
+            try {
+                // A calendar we cannot reach is read from its last good copy, if there is a recent enough one.
+                started.complete(httpFetcher.lastKnownGood().fetch(RunMetrics.CALENDAR, url, () -> download(url),
+                        response -> scan(response.text(), scanFrom(from, null), scanTo(to, null))));
+            } catch (Exception e) {
+                calendars.remove(url, started);
+                started.completeExceptionally(e);
             }
-
-            return releases.stream()
-                    .sorted((a, b) -> a.getReleaseDate().compareTo(b.getReleaseDate()))
-                    .collect(Collectors.toList());
-
+        }
+        try {
+            Loaded held = loading.join();
+            if (held.snapshot().covers(from, to)) {
+                return held.snapshot();
+            }
+            Loaded wider = scan(held.icalContent(), scanFrom(from, held.snapshot()), scanTo(to, held.snapshot()));
+            calendars.replace(url, loading, CompletableFuture.completedFuture(wider));
+            return wider.snapshot();
         } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch calendar: " + e.getMessage(), e);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Failed to fetch calendar: " + cause.getMessage(), cause);
         }
     }
 
-    public List<ReleaseEvent> fetchRecentReleases(String calendarUrl, int daysPast) {
-        try {
-            String icalContent = RetryUtils.executeWithRetry(new Callable<String>() {
-                @Override
-                public String call() {
-                    return webClient.get()
-                            .uri(calendarUrl != null ? calendarUrl : DEFAULT_CALENDAR_URL)
-                            .retrieve()
-                            .bodyToMono(String.class)
-                            .timeout(Duration.ofSeconds(30))
-                            .block();
-                }
-            }, MAX_ATTEMPTS, INITIAL_BACKOFF);
+    void forgetDownloads() {
+        calendars.clear();
+    }
 
-            CalendarBuilder builder = new CalendarBuilder();
-            Calendar calendar = builder.build(new StringReader(icalContent));
+    // The downloaded text is kept so that a wider window can be scanned without downloading again.
+    private record Loaded(String icalContent, CalendarSnapshot snapshot) {
+    }
 
-            LocalDate today = LocalDate.now();
-            LocalDate startDate = today.minusDays(daysPast);
+    private Loaded scan(String icalContent, LocalDate from, LocalDate to) throws Exception {
+        return new Loaded(icalContent, RunMetrics.parse(RunMetrics.CALENDAR,
+                () -> scanSnapshot(icalContent, from, to)));
+    }
 
-            List<ReleaseEvent> releases = new ArrayList<>();
+    private HttpFetcher.Response download(String url) throws Exception {
+        return RunMetrics.fetch(RunMetrics.CALENDAR, () -> RetryUtils.executeWithRetry(httpFetcher.hostGuards(),
+                httpFetcher.retryTelemetry(), url, new Callable<HttpFetcher.Response>() {
+            @Override
+            public HttpFetcher.Response call() {
+                return httpFetcher.get(url, MAX_CALENDAR_BYTES)
+                        .timeout(RunBudget.timeout(Duration.ofSeconds(30)))
+                        .block();
+            }
+        }, MAX_ATTEMPTS, INITIAL_BACKOFF));
+    }
 
+    /**
+     * The release events dated {@code from} to {@code to}. Plain all-day events are read by
+     * {@link VEventScanner}; the rest of those near the window are parsed by ical4j, as
+     * {@link #parseSnapshot(String)} parses every event.
+     */
+    CalendarSnapshot scanSnapshot(String icalContent, LocalDate from, LocalDate to) throws IOException, ParserException {
+        VEventScanner.Scan scan = VEventScanner.scan(icalContent, from, to);
+
+        List<VEvent> fallback = new ArrayList<>();
+        if (scan.fallbackCalendar() != null) {
+            Calendar calendar = new CalendarBuilder().build(new StringReader(scan.fallbackCalendar()));
             for (Object component : calendar.getComponents()) {
                 if (component instanceof VEvent) {
-                    VEvent event = (VEvent) component;
-                    if(isEnterpriseReleaseEvent(event.getSummary().getValue())) {
-                        ReleaseEvent release = parseReleaseEvent(event, startDate, today);
-                        if (release != null) {
-                            releases.add(release);
-                        }
-                    }
+                    fallback.add((VEvent) component);
                 }
             }
+        }
 
-            return releases.stream()
-                    .sorted((a, b) -> a.getReleaseDate().compareTo(b.getReleaseDate())) // Oldest first
-                    .collect(Collectors.toList());
+        List<ReleaseEvent> enterprise = new ArrayList<>();
+        List<ReleaseEvent> community = new ArrayList<>();
+        int nextFallback = 0;
 
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch calendar: " + e.getMessage(), e);
+        for (VEventScanner.Event event : scan.events()) {
+            ReleaseEvent release;
+            if (event.needsFallback()) {
+                release = nextFallback < fallback.size() ? parseReleaseEvent(fallback.get(nextFallback++)) : null;
+                if (release != null && (release.getReleaseDate().isBefore(from) || release.getReleaseDate().isAfter(to))) {
+                    release = null;
+                }
+            } else {
+                release = releaseEvent(event.date(), event.summary());
+            }
+            if (release != null) {
+                if (isEnterpriseReleaseEvent(release.getOriginalSummary())) {
+                    enterprise.add(release);
+                } else {
+                    community.add(release);
+                }
+            }
+        }
+
+        // Events in the window whose summary is not a release (meetings, talks) are the filtered ones.
+        int kept = enterprise.size() + community.size();
+        RunMetrics.items(RunMetrics.CALENDAR, kept, scan.events().size() - kept);
+        return new CalendarSnapshot(enterprise, community, from, to);
+    }
+
+    CalendarSnapshot parseSnapshot(String icalContent) throws IOException, ParserException {
+        CalendarBuilder builder = new CalendarBuilder();
+        Calendar calendar = builder.build(new StringReader(icalContent));
+
+        List<ReleaseEvent> enterprise = new ArrayList<>();
+        List<ReleaseEvent> community = new ArrayList<>();
+
+        for (Object component : calendar.getComponents()) {
+            if (component instanceof VEvent) {
+                VEvent event = (VEvent) component;
+                ReleaseEvent release = parseReleaseEvent(event);
+                if (release != null) {
+                    if (isEnterpriseReleaseEvent(release.getOriginalSummary())) {
+                        enterprise.add(release);
+                    } else {
+                        community.add(release);
+                    }
+                }
+            }
         }
+
+        return new CalendarSnapshot(enterprise, community);
     }
 
-    private ReleaseEvent parseReleaseEvent(VEvent event, LocalDate startDate, LocalDate endDate) {
+    private ReleaseEvent parseReleaseEvent(VEvent event) {
         try {
             Summary summary = event.getSummary();
             var dtStartOpt = event.getStartDate();
@@ -134,30 +216,7 @@ public class CalendarService {
             DtStart<?> dtStart = dtStartOpt.get();
             LocalDate eventDate = LocalDate.from(dtStart.getDate());
 
-            // Check if event is within our date range
-            if (eventDate.isBefore(startDate) || eventDate.isAfter(endDate)) {
-                return null;
-            }
-
-            String eventSummary = summary.getValue();
-
-            // Skip events that don't look like releases
-            if (!isReleaseEvent(eventSummary)) {
-                return null;
-            }
-
-            // Extract project name and version
-            ProjectInfo projectInfo = extractProjectInfo(eventSummary);
-            if (projectInfo == null) {
-                return null;
-            }
-
-            return new ReleaseEvent(
-                    projectInfo.getProjectName(),
-                    projectInfo.getVersion(),
-                    eventDate,
-                    eventSummary
-            );
+            return releaseEvent(eventDate, summary.getValue());
 
         } catch (Exception e) {
             // Skip events that can't be parsed
@@ -165,52 +224,36 @@ public class CalendarService {
         }
     }
 
-    private boolean isReleaseEvent(String summary) {
-        String lowerSummary = summary.toLowerCase();
-        return (lowerSummary.contains("release") ||
-                lowerSummary.contains("spring") ||
-                VERSION_PATTERN.matcher(summary).find()) &&
-                !lowerSummary.contains("meeting") &&
-                !lowerSummary.contains("planning");
-    }
+    private ReleaseEvent releaseEvent(LocalDate eventDate, String eventSummary) {
+        // Skip events that don't look like releases, or have no project and version
+        ReleaseSummaryClassifier.Release release = classifier.classify(eventSummary);
+        if (release == null) {
+            return null;
+        }
 
-    public boolean isEnterpriseReleaseEvent(String summary){
-        return (summary.contains("(Enterprise)"));
+        return new ReleaseEvent(
+                release.projectName(),
+                release.version(),
+                eventDate,
+                eventSummary
+        );
     }
 
-    private ProjectInfo extractProjectInfo(String summary) {
-        // Common patterns for Spring project releases
-        String[] patterns = {
-                "(?i)([A-Za-z\\s]+?)\\s+(\\d+\\.\\d+(?:\\.\\d+)?(?:-[A-Z0-9]+)?)(?:\\s+release)?",
-                "(?i)([A-Za-z\\s]+?)\\s+v?(\\d+\\.\\d+(?:\\.\\d+)?(?:-[A-Z0-9]+)?)",
-                "(?i)release\\s+([A-Za-z\\s]+?)\\s+(\\d+\\.\\d+(?:\\.\\d+)?(?:-[A-Z0-9]+)?)"
-        };
-
-        for (String patternStr : patterns) {
-            Pattern pattern = Pattern.compile(patternStr);
-            Matcher matcher = pattern.matcher(summary);
-            if (matcher.find()) {
-                String projectName = matcher.group(1).trim();
-                String version = matcher.group(2).trim();
-
-                // Clean up project name
-                projectName = cleanProjectName(projectName);
-
-                if (!projectName.isEmpty() && !version.isEmpty()) {
-                    return new ProjectInfo(projectName, version);
-                }
-            }
-        }
+    // A scan reaches back at least to the horizon and to what the held snapshot already covers.
+    private static LocalDate scanFrom(LocalDate from, CalendarSnapshot held) {
+        LocalDate earliest = LocalDate.now().minusDays(HORIZON_DAYS_PAST);
+        earliest = from.isBefore(earliest) ? from : earliest;
+        return held != null && held.coveredFrom().isBefore(earliest) ? held.coveredFrom() : earliest;
+    }
 
-        return null;
+    private static LocalDate scanTo(LocalDate to, CalendarSnapshot held) {
+        LocalDate latest = LocalDate.now().plusDays(HORIZON_DAYS_AHEAD);
+        latest = to.isAfter(latest) ? to : latest;
+        return held != null && held.coveredTo().isAfter(latest) ? held.coveredTo() : latest;
     }
 
-    private String cleanProjectName(String projectName) {
-        // Remove common prefixes/suffixes and normalize
-        return projectName
-                .replaceAll("(?i)^(release|spring)\\s+", "")
-                .replaceAll("(?i)\\s+(release|rc|ga|final)$", "")
-                .trim();
+    public boolean isEnterpriseReleaseEvent(String summary){
+        return (summary.contains("(Enterprise)"));
     }
 
     public static class ReleaseEvent {
@@ -243,17 +286,4 @@ public class CalendarService {
                     version);
         }
     }
-
-    private static class ProjectInfo {
-        private final String projectName;
-        private final String version;
-
-        public ProjectInfo(String projectName, String version) {
-            this.projectName = projectName;
-            this.version = version;
-        }
-
-        public String getProjectName() { return projectName; }
-        public String getVersion() { return version; }
-    }
 }
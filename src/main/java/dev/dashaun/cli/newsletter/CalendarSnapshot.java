@@ -0,0 +1,97 @@
+package dev.dashaun.cli.newsletter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Every release event of one calendar download, parsed once and kept sorted by date, split by
+ * {@link CalendarService#isEnterpriseReleaseEvent(String) the enterprise classification}.
+ *
+ * <p>Any date window is then two binary searches and a sub-list, so the recent and upcoming
+ * sections (or any other window) share one fetch and one parse instead of doing both each.
+ *
+ * <p>A snapshot may hold only the events of a date range (see {@link #covers(LocalDate, LocalDate)});
+ * windows reaching outside it come back without the events it never read.
+ */
+public final class CalendarSnapshot {
+
+    private static final Comparator<CalendarService.ReleaseEvent> BY_DATE =
+            Comparator.comparing(CalendarService.ReleaseEvent::getReleaseDate);
+
+    private final List<CalendarService.ReleaseEvent> enterprise;
+    private final List<CalendarService.ReleaseEvent> community;
+    private final LocalDate coveredFrom;
+    private final LocalDate coveredTo;
+
+    CalendarSnapshot(List<CalendarService.ReleaseEvent> enterprise, List<CalendarService.ReleaseEvent> community) {
+        this(enterprise, community, null, null);
+    }
+
+    /** A snapshot of the events dated {@code coveredFrom} to {@code coveredTo}; nulls mean every event. */
+    CalendarSnapshot(List<CalendarService.ReleaseEvent> enterprise, List<CalendarService.ReleaseEvent> community,
+                     LocalDate coveredFrom, LocalDate coveredTo) {
+        this.enterprise = sortedByDate(enterprise);
+        this.community = sortedByDate(community);
+        this.coveredFrom = coveredFrom;
+        this.coveredTo = coveredTo;
+    }
+
+    /** Enterprise releases dated {@code from} to {@code to}, both inclusive, oldest first. */
+    public List<CalendarService.ReleaseEvent> enterprise(LocalDate from, LocalDate to) {
+        return between(enterprise, from, to);
+    }
+
+    /** Releases without the enterprise marker dated {@code from} to {@code to}, both inclusive, oldest first. */
+    public List<CalendarService.ReleaseEvent> community(LocalDate from, LocalDate to) {
+        return between(community, from, to);
+    }
+
+    /** Whether every event dated {@code from} to {@code to} was read into this snapshot. */
+    public boolean covers(LocalDate from, LocalDate to) {
+        return coveredFrom == null || (!from.isBefore(coveredFrom) && !to.isAfter(coveredTo));
+    }
+
+    LocalDate coveredFrom() {
+        return coveredFrom;
+    }
+
+    LocalDate coveredTo() {
+        return coveredTo;
+    }
+
+    public int size() {
+        return enterprise.size() + community.size();
+    }
+
+    private static List<CalendarService.ReleaseEvent> sortedByDate(List<CalendarService.ReleaseEvent> events) {
+        // Stable, so same-day events keep calendar order, as the per-window sort used to.
+        List<CalendarService.ReleaseEvent> sorted = new ArrayList<>(events);
+        sorted.sort(BY_DATE);
+        return List.copyOf(sorted);
+    }
+
+    private static List<CalendarService.ReleaseEvent> between(List<CalendarService.ReleaseEvent> sorted,
+                                                             LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return List.of();
+        }
+        return sorted.subList(firstOnOrAfter(sorted, from), firstOnOrAfter(sorted, to.plusDays(1)));
+    }
+
+    // Lower bound: with duplicate dates, Collections.binarySearch may land on any of them.
+    private static int firstOnOrAfter(List<CalendarService.ReleaseEvent> sorted, LocalDate date) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.get(mid).getReleaseDate().isBefore(date)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
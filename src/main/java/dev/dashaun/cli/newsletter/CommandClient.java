@@ -0,0 +1,99 @@
+package dev.dashaun.cli.newsletter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Hands a command line to a running {@link CommandDaemon} and prints what it answers. This runs
+ * before, and instead of, the application context: no Spring, no Netty, just the socket.
+ *
+ * <p>The socket is {@code newsletter.daemon.socket} (as a system property, or
+ * {@code NEWSLETTER_DAEMON_SOCKET} in the environment, which the daemon reads too), by default
+ * {@code ~/.cache/newsletter-cli/daemon.sock}.
+ */
+final class CommandClient {
+
+    static final String SOCKET_PROPERTY = "newsletter.daemon.socket";
+    static final String SOCKET_ENV = "NEWSLETTER_DAEMON_SOCKET";
+
+    private CommandClient() {
+    }
+
+    /** The socket this process would use, from its system properties and environment. */
+    static Path socket() {
+        return socket(System.getProperty(SOCKET_PROPERTY, System.getenv(SOCKET_ENV)));
+    }
+
+    static Path socket(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".cache", "newsletter-cli", "daemon.sock");
+    }
+
+    /**
+     * Runs {@code args} in the daemon listening on {@code socket}, printing its output to
+     * {@code out} and what it logged meanwhile to {@code err}. Returns the command's exit code, or
+     * null when no daemon is listening, so the caller can run the command itself.
+     */
+    static Integer forward(Path socket, List<String> args, PrintStream out, PrintStream err) throws IOException {
+        SocketChannel channel = connect(socket);
+        if (channel == null) {
+            return null;
+        }
+        try (channel) {
+            DataOutputStream request = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            request.writeInt(CommandDaemon.PROTOCOL_VERSION);
+            request.writeUTF(Path.of("").toAbsolutePath().toString());
+            request.writeInt(args.size());
+            for (String arg : args) {
+                request.writeUTF(arg);
+            }
+            request.flush();
+
+            DataInputStream response = new DataInputStream(Channels.newInputStream(channel));
+            int exitCode = response.readInt();
+            byte[] output = new byte[response.readInt()];
+            response.readFully(output);
+            byte[] errors = new byte[response.readInt()];
+            response.readFully(errors);
+            err.print(new String(errors, StandardCharsets.UTF_8));
+            err.flush();
+            out.println(new String(output, StandardCharsets.UTF_8));
+            out.flush();
+            return exitCode;
+        }
+    }
+
+    static boolean listening(Path socket) throws IOException {
+        SocketChannel channel = connect(socket);
+        if (channel == null) {
+            return false;
+        }
+        channel.close();
+        return true;
+    }
+
+    // Null when there is no socket file, or only a stale one nobody is listening on.
+    private static SocketChannel connect(Path socket) throws IOException {
+        if (!Files.exists(socket)) {
+            return null;
+        }
+        try {
+            return SocketChannel.open(UnixDomainSocketAddress.of(socket));
+        } catch (ConnectException e) {
+            return null;
+        }
+    }
+}
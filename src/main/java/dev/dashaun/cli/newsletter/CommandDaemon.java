@@ -0,0 +1,400 @@
+package dev.dashaun.cli.newsletter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.shell.core.command.annotation.Command;
+import org.springframework.shell.core.command.annotation.Option;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs {@link DocumentCommands} for {@link CommandClient}s over a Unix domain socket, so one warm
+ * application context answers command after command instead of a new JVM starting for each. What
+ * stays warm: the connection pool and its TLS sessions, the host guards' limits and breakers, the
+ * hedger's latencies and the calendar's summary classifier, plus the JIT's work on all of it.
+ *
+ * <p>Every command is still a run of its own. Before each, what describes a run is reset: the exit
+ * code, the run report and its meters, the retry telemetry, the last-known-good fallbacks and the
+ * downloaded calendars. Commands therefore run one at a time; a client that connects meanwhile
+ * waits its turn. Each client is read on a thread of its own, so one that connects and says
+ * nothing holds up no one, and is dropped after {@link #REQUEST_TIMEOUT}. The run report, if configured, is written after every command.
+ *
+ * <p>The command line is read the way the shell reads it, from the {@code @Command} and
+ * {@code @Option} annotations: {@code name --option value ...}, or the values alone in the order
+ * the options are declared. A relative {@code --filename} is resolved against the client's working
+ * directory, not the daemon's.
+ */
+@Component
+public class CommandDaemon {
+
+    /** The argument that starts the daemon instead of running a command. */
+    static final String COMMAND = "daemon";
+
+    static final int PROTOCOL_VERSION = 2;
+
+    /** Exit code for a command line the daemon could not run: unknown command or bad option. */
+    static final int USAGE = 2;
+
+    /** How long a client has, once connected, to send its command line. */
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    // By command name, as the shell knows them.
+    private static final Map<String, Method> METHODS = commandMethods();
+
+    private final DocumentCommands commands;
+    private final ExitCodeTracker exitCodeTracker;
+    private final RunReport runReport;
+    private final RetryTelemetry retryTelemetry;
+    private final LastKnownGood lastKnownGood;
+    private final CalendarService calendarService;
+    private final Path socket;
+    // Fair, so commands run in the order their command lines arrived.
+    private final ReentrantLock running = new ReentrantLock(true);
+
+    private volatile ServerSocketChannel server;
+
+    @Autowired
+    public CommandDaemon(DocumentCommands commands, ExitCodeTracker exitCodeTracker, RunReport runReport,
+                         RetryTelemetry retryTelemetry, LastKnownGood lastKnownGood, CalendarService calendarService,
+                         @Value("${newsletter.daemon.socket:}") String socket) {
+        this.commands = commands;
+        this.exitCodeTracker = exitCodeTracker;
+        this.runReport = runReport;
+        this.retryTelemetry = retryTelemetry;
+        this.lastKnownGood = lastKnownGood;
+        this.calendarService = calendarService;
+        this.socket = CommandClient.socket(socket);
+    }
+
+    private static Map<String, Method> commandMethods() {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method method : DocumentCommands.class.getMethods()) {
+            Command command = method.getAnnotation(Command.class);
+            if (command != null) {
+                methods.put(String.join(" ", command.name()), method);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Whether a daemon runs {@code args} the way this process would: the first names one of the
+     * {@link DocumentCommands}, and every other {@code --name} is one of that command's options.
+     * The shell's own commands, such as {@code help} and {@code version}, are not the daemon's,
+     * and neither is a Spring property such as {@code --newsletter.unchanged-exit-code=0}, which
+     * only a context started with it would apply.
+     */
+    static boolean runs(List<String> args) {
+        Method method = args.isEmpty() ? null : METHODS.get(args.get(0));
+        if (method == null) {
+            return false;
+        }
+        List<String> options = new ArrayList<>();
+        for (Parameter parameter : method.getParameters()) {
+            options.add(parameter.getAnnotation(Option.class).longName());
+        }
+        for (String arg : args.subList(1, args.size())) {
+            if (arg.startsWith("--")) {
+                int equals = arg.indexOf('=');
+                if (!options.contains(equals >= 0 ? arg.substring(2, equals) : arg.substring(2))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    Path socket() {
+        return socket;
+    }
+
+    /** Accepts commands until {@link #stop()}; blocks the calling thread. */
+    public void serve() throws IOException {
+        if (CommandClient.listening(socket)) {
+            throw new IllegalStateException("A daemon is already listening on " + socket);
+        }
+        Path directory = socket.toAbsolutePath().getParent();
+        Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory);
+        if (permissions.contains(PosixFilePermission.GROUP_WRITE) || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+            throw new IllegalStateException("Other users can write to " + directory + " and could replace the socket;"
+                    + " set " + CommandClient.SOCKET_PROPERTY + " to a socket in a private directory");
+        }
+
+        // Whoever can connect can rewrite the newsletter. Bound where it already is, the socket
+        // would take the umask's permissions until they were narrowed, so it is bound in a
+        // directory only this user can enter, made private there, and only then moved into place.
+        Path staging = Files.createTempDirectory(directory, ".daemon-",
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        Path bound = staging.resolve(socket.getFileName());
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.bind(UnixDomainSocketAddress.of(bound));
+            Files.setPosixFilePermissions(bound, PosixFilePermissions.fromString("rw-------"));
+            // Replaces a socket left behind by a daemon that did not shut down cleanly.
+            Files.move(bound, socket, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        } finally {
+            Files.deleteIfExists(bound);
+            Files.deleteIfExists(staging);
+        }
+        server = channel;
+        System.err.println("Serving commands on " + socket);
+
+        while (channel.isOpen()) {
+            SocketChannel client;
+            try {
+                client = channel.accept();
+            } catch (ClosedChannelException e) {
+                break;
+            }
+            Thread.ofVirtual().name("daemon-client").start(() -> {
+                try (client) {
+                    handle(client);
+                } catch (IOException e) {
+                    System.err.println("Lost a client mid-command: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        ServerSocketChannel channel = server;
+        if (channel == null) {
+            return;
+        }
+        server = null;
+        try {
+            channel.close();
+            Files.deleteIfExists(socket);
+        } catch (IOException e) {
+            System.err.println("Failed to remove " + socket + ": " + e.getMessage());
+        }
+    }
+
+    private void handle(SocketChannel client) throws IOException {
+        DataInputStream in = new DataInputStream(Channels.newInputStream(client));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)));
+
+        // Closing the channel is what ends a blocked read; whichever of the two settles first wins.
+        AtomicBoolean settled = new AtomicBoolean();
+        CompletableFuture.delayedExecutor(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (settled.compareAndSet(false, true)) {
+                System.err.println("Dropping a client that sent no command line within " + REQUEST_TIMEOUT.toSeconds() + "s");
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    // Already gone
+                }
+            }
+        });
+
+        boolean sameVersion = in.readInt() == PROTOCOL_VERSION;
+        Path workingDirectory = null;
+        List<String> args = new ArrayList<>();
+        if (sameVersion) {
+            workingDirectory = Path.of(in.readUTF());
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                args.add(in.readUTF());
+            }
+        }
+        if (!settled.compareAndSet(false, true)) {
+            return;
+        }
+
+        Reply reply = sameVersion ? run(workingDirectory, args)
+                : new Reply(USAGE, "The client and the daemon are different versions; restart the daemon", "");
+
+        byte[] output = reply.output().getBytes(StandardCharsets.UTF_8);
+        byte[] errors = reply.errors().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(reply.exitCode());
+        out.writeInt(output.length);
+        out.write(output);
+        out.writeInt(errors.length);
+        out.write(errors);
+        out.flush();
+    }
+
+    /**
+     * Runs one command line as its own run. What describes a run is reset first, so the command
+     * sees it as a freshly started process would; the beans' reset methods exist for this call
+     * alone. State that outlives a run, such as the host guards and the HTTP cache, is left
+     * alone. A bean that gains per-run state is reset here too.
+     */
+    Reply run(Path workingDirectory, List<String> args) {
+        // What the command logs goes to the client as well as to the daemon's own stderr.
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream log = new PrintStream(errors, true, StandardCharsets.UTF_8);
+        running.lock();
+        try {
+            Reply reply = RunLog.call(log, () -> runAlone(workingDirectory, args));
+            return new Reply(reply.exitCode(), reply.output(), errors.toString(StandardCharsets.UTF_8));
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private Reply runAlone(Path workingDirectory, List<String> args) {
+        Method method = args.isEmpty() ? null : METHODS.get(args.get(0));
+        if (method == null) {
+            return new Reply(USAGE, "Unknown command: " + (args.isEmpty() ? "(none)" : args.get(0))
+                    + ". Try help-doc.", "");
+        }
+        Object[] values;
+        try {
+            values = arguments(method, args.subList(1, args.size()), workingDirectory);
+        } catch (IllegalArgumentException e) {
+            return new Reply(USAGE, e.getMessage(), "");
+        }
+
+        long start = System.nanoTime();
+        exitCodeTracker.reset();
+        runReport.reset();
+        retryTelemetry.reset();
+        lastKnownGood.reset();
+        calendarService.forgetDownloads();
+
+        String output;
+        try {
+            output = String.valueOf(method.invoke(commands, values));
+        } catch (InvocationTargetException e) {
+            exitCodeTracker.markFailure();
+            output = "Error running " + args.get(0) + ": " + e.getCause().getMessage();
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Command methods are public", e);
+        }
+        int exitCode = exitCodeTracker.getExitCode();
+        runReport.write();
+        System.err.println(args.get(0) + " exited " + exitCode + " after "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+        return new Reply(exitCode, output, "");
+    }
+
+    // "--name value", "--name=value", or a bare "--name" for a boolean that is true. Values
+    // without a name fill the options not named, in the order the method declares them, as the
+    // shell's positional arguments do. Anything left takes the option's default.
+    private static Object[] arguments(Method method, List<String> args, Path workingDirectory) {
+        Parameter[] parameters = method.getParameters();
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        for (Parameter parameter : parameters) {
+            types.put(parameter.getAnnotation(Option.class).longName(), parameter.getType());
+        }
+
+        Map<String, String> given = new LinkedHashMap<>();
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+                continue;
+            }
+            String name = arg.substring(2);
+            String value;
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            } else if (i + 1 < args.size() && !args.get(i + 1).startsWith("--")
+                    && (types.get(name) != boolean.class || isBoolean(args.get(i + 1)))) {
+                value = args.get(++i);
+            } else {
+                value = "true";
+            }
+            given.put(name, value);
+        }
+
+        Object[] values = new Object[parameters.length];
+        int next = 0;
+        for (int p = 0; p < parameters.length; p++) {
+            Option option = parameters[p].getAnnotation(Option.class);
+            String name = option.longName();
+            String value;
+            if (given.containsKey(name)) {
+                value = given.remove(name);
+            } else if (next < positional.size()) {
+                value = positional.get(next++);
+            } else {
+                value = option.defaultValue().isEmpty() ? null : option.defaultValue();
+            }
+            if (name.equals("filename") && value != null) {
+                value = workingDirectory.resolve(value).toString();
+            }
+            values[p] = convert(parameters[p].getType(), name, value);
+        }
+        if (!given.isEmpty()) {
+            throw new IllegalArgumentException("Unknown option: --" + String.join(", --", given.keySet()));
+        }
+        if (next < positional.size()) {
+            throw new IllegalArgumentException("Unexpected argument: '" + positional.get(next) + "'");
+        }
+        return values;
+    }
+
+    private static boolean isBoolean(String value) {
+        return value.equals("true") || value.equals("false");
+    }
+
+    private static Object convert(Class<?> type, String name, String value) {
+        if (type == String.class) {
+            return value;
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name);
+        }
+        if (type == int.class) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("--" + name + " takes a number, got '" + value + "'");
+            }
+        }
+        if (type == boolean.class) {
+            if (!isBoolean(value)) {
+                throw new IllegalArgumentException("--" + name + " takes true or false, got '" + value + "'");
+            }
+            return Boolean.parseBoolean(value);
+        }
+        throw new IllegalStateException("No conversion to " + type + " for --" + name);
+    }
+
+    /** What the client prints to stdout and stderr, and the code it exits with. */
+    record Reply(int exitCode, String output, String errors) {
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.shell.core.command.annotation.Option;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -31,22 +33,36 @@ public class DocumentCommands {
     private final YouTubeService youTubeService;
     private final GitHubService gitHubService;
     private final ExitCodeTracker exitCodeTracker;
+    private final RunReport runReport;
+    private final LastKnownGood lastKnownGood;
+
+    DocumentCommands(RssService rssService, DocumentService documentService, CalendarService calendarService, YouTubeService youTubeService, GitHubService gitHubService, ExitCodeTracker exitCodeTracker) {
+        this(rssService, documentService, calendarService, youTubeService, gitHubService, exitCodeTracker, new RunReport(), LastKnownGood.disabled());
+    }
 
     @Autowired
-    public DocumentCommands(RssService rssService, DocumentService documentService, CalendarService calendarService, YouTubeService youTubeService, GitHubService gitHubService, ExitCodeTracker exitCodeTracker) {
+    public DocumentCommands(RssService rssService, DocumentService documentService, CalendarService calendarService, YouTubeService youTubeService, GitHubService gitHubService, ExitCodeTracker exitCodeTracker, RunReport runReport, LastKnownGood lastKnownGood) {
         this.rssService = rssService;
         this.documentService = documentService;
         this.calendarService = calendarService;
         this.youTubeService = youTubeService;
         this.gitHubService = gitHubService;
         this.exitCodeTracker = exitCodeTracker;
+        this.runReport = runReport;
+        this.lastKnownGood = lastKnownGood;
     }
 
     @Command(name = "create", description = "Create a new document with template")
     public String createDocument(
-            @Option(longName = "filename", defaultValue = "spring-update.md") String filename) {
+            @Option(longName = "filename", defaultValue = "spring-update.md") String filename,
+            @Option(longName = "archive", defaultValue = "false") boolean archive) {
         try {
-            documentService.createNewDocument(filename);
+            boolean changed = documentService.createNewDocument(filename, archive);
+            exitCodeTracker.recordWrite(changed);
+            if (archive || IssueArchive.isArchive(Path.of(filename))) {
+                return changed ? "Started a new issue in archive: " + filename
+                        : "Today's issue is already in archive: " + filename;
+            }
             return "Created new document: " + filename;
         } catch (IOException e) {
             return "Error creating document: " + e.getMessage();
@@ -57,13 +73,16 @@ public class DocumentCommands {
     public String updateNews(
             @Option(longName = "filename", defaultValue = "spring-update.md") String filename,
             @Option(longName = "rssUrl", defaultValue = DEFAULT_NEWS_FEEDS) String rssUrl,
-            @Option(longName = "limit", defaultValue = "8") int limit) {
+            @Option(longName = "limit", defaultValue = "8") int limit,
+            @Option(longName = "feedConcurrency", defaultValue = "4") int feedConcurrency) {
 
         try {
             List<String> feeds = splitFeeds(rssUrl);
-            List<RssService.NewsItem> newsItems = rssService.fetchLatestNews(feeds, limit);
-            documentService.updateNewsSection(filename, newsItems);
-            return String.format("Updated news section with %d items from %d feed(s)", newsItems.size(), feeds.size());
+            RunReport.Section section = runReport.section("news");
+            List<RssService.NewsItem> newsItems = section.run(() -> rssService.fetchLatestNews(feeds, limit, feedConcurrency));
+            exitCodeTracker.recordWrite(documentService.updateNewsSection(filename, newsItems));
+            String stale = complete(section, RunMetrics.NEWS, newsItems.size());
+            return String.format("Updated news section with %d items from %d feed(s)", newsItems.size(), feeds.size()) + stale;
         } catch (Exception e) {
             return "Error updating news: " + e.getMessage();
         }
@@ -71,9 +90,11 @@ public class DocumentCommands {
 
     @Command(name = "show", description = "Show the current document content")
     public String showDocument(
-            @Option(longName = "filename", defaultValue = "spring-update.md") String filename) {
+            @Option(longName = "filename", defaultValue = "spring-update.md") String filename,
+            @Option(longName = "page", defaultValue = "1") int page,
+            @Option(longName = "pageSize", defaultValue = "1") int pageSize) {
         try {
-            return documentService.readDocument(filename);
+            return documentService.readDocument(filename, page, Math.max(1, pageSize));
         } catch (IOException e) {
             return "Error reading document: " + e.getMessage();
         }
@@ -85,7 +106,7 @@ public class DocumentCommands {
             @Option(longName = "demo") String demo) {
 
         try {
-            documentService.updateDemo(filename, demo);
+            exitCodeTracker.recordWrite(documentService.updateDemo(filename, demo));
             return "Updated demo section";
         } catch (IOException e) {
             return "Error updating demo: " + e.getMessage();
@@ -96,9 +117,11 @@ public class DocumentCommands {
     public String updateGitHubDemos(
             @Option(longName = "filename", defaultValue = "spring-update.md") String filename) {
         try {
-            List<GitHubService.DemoRepository> demoRepos = gitHubService.fetchDemoRepositories();
-            documentService.updateGitHubDemos(filename, demoRepos);
-            return String.format("Updated demos section with %d GitHub repositories", demoRepos.size());
+            RunReport.Section section = runReport.section("demos");
+            List<GitHubService.DemoRepository> demoRepos = section.run(gitHubService::fetchDemoRepositories);
+            exitCodeTracker.recordWrite(documentService.updateGitHubDemos(filename, demoRepos));
+            String stale = complete(section, RunMetrics.GITHUB, demoRepos.size());
+            return String.format("Updated demos section with %d GitHub repositories", demoRepos.size()) + stale;
         } catch (Exception e) {
             return "Error updating GitHub demos: " + e.getMessage();
         }
@@ -124,14 +147,18 @@ public class DocumentCommands {
             @Option(longName = "limit", defaultValue = "10") int limit) {
 
         try {
-            YouTubeService.FetchResult result = youTubeService.fetchLatest(limit);
-            documentService.updateYouTubeSection(filename, result.videos());
+            RunReport.Section section = runReport.section("youtube");
+            YouTubeService.FetchResult result = section.run(() -> youTubeService.fetchLatest(limit));
+            exitCodeTracker.recordWrite(documentService.updateYouTubeSection(filename, result.videos()));
             String message = String.format("Updated YouTube section with %d videos", result.videos().size());
             if (!result.isComplete()) {
                 // Some content beats none, but a channel missing from the newsletter is a
                 // failed run — the caller has to be able to see that.
                 exitCodeTracker.markFailure();
+                section.degraded(result.videos().size(), "no video from: " + String.join(", ", result.missingChannels()));
                 message += ", but no video from: " + String.join(", ", result.missingChannels());
+            } else {
+                message += complete(section, RunMetrics.YOUTUBE, result.videos().size());
             }
             return message;
         } catch (YouTubeService.YouTubeUnavailableException e) {
@@ -166,10 +193,11 @@ public class DocumentCommands {
     @Command(name = "preview-news", description = "Fetch latest news from RSS (preview only)")
     public String previewNews(
             @Option(longName = "rssUrl", defaultValue = DEFAULT_NEWS_FEEDS) String rssUrl,
-            @Option(longName = "limit", defaultValue = "5") int limit) {
+            @Option(longName = "limit", defaultValue = "5") int limit,
+            @Option(longName = "feedConcurrency", defaultValue = "4") int feedConcurrency) {
 
         try {
-            List<RssService.NewsItem> newsItems = rssService.fetchLatestNews(splitFeeds(rssUrl), limit);
+            List<RssService.NewsItem> newsItems = rssService.fetchLatestNews(splitFeeds(rssUrl), limit, feedConcurrency);
             StringBuilder preview = new StringBuilder("Latest news from RSS:\n\n");
             for (RssService.NewsItem item : newsItems) {
                 preview.append(item.toString()).append("\n");
@@ -187,14 +215,17 @@ public class DocumentCommands {
             @Option(longName = "daysPast", defaultValue = "7") int daysPast) {
 
         try {
-            List<CalendarService.ReleaseEvent> recentReleases = calendarService.fetchRecentReleases(calendarUrl, daysPast);
+            RunReport.Section section = runReport.section("recent-releases");
+            List<CalendarService.ReleaseEvent> recentReleases =
+                    section.run(() -> calendarService.fetchRecentReleases(calendarUrl, daysPast));
 
+            String stale = complete(section, RunMetrics.CALENDAR, recentReleases.size());
             if (recentReleases.isEmpty()) {
-                return "No recent releases found in calendar for the past " + daysPast + " days";
+                return "No recent releases found in calendar for the past " + daysPast + " days" + stale;
             }
 
-            documentService.addMultipleEnterpriseReleases(filename, recentReleases);
-            return String.format("Added %d releases from calendar (past %d days)", recentReleases.size(), daysPast);
+            exitCodeTracker.recordWrite(documentService.addMultipleEnterpriseReleases(filename, recentReleases));
+            return String.format("Added %d releases from calendar (past %d days)", recentReleases.size(), daysPast) + stale;
         } catch (Exception e) {
             return "Error updating releases from calendar: " + e.getMessage();
         }
@@ -207,13 +238,16 @@ public class DocumentCommands {
             @Option(longName = "daysAhead", defaultValue = "30") int daysAhead) {
 
         try {
-            List<CalendarService.ReleaseEvent> upcomingReleases = calendarService.fetchUpcomingReleases(calendarUrl, daysAhead);
-            documentService.updateReleasesComingSoon(filename, upcomingReleases);
+            RunReport.Section section = runReport.section("upcoming-releases");
+            List<CalendarService.ReleaseEvent> upcomingReleases =
+                    section.run(() -> calendarService.fetchUpcomingReleases(calendarUrl, daysAhead));
+            exitCodeTracker.recordWrite(documentService.updateReleasesComingSoon(filename, upcomingReleases));
+            String stale = complete(section, RunMetrics.CALENDAR, upcomingReleases.size());
 
             if (upcomingReleases.isEmpty()) {
-                return "Updated 'Releases coming soon' section with default projects (no calendar events found)";
+                return "Updated 'Releases coming soon' section with default projects (no calendar events found)" + stale;
             } else {
-                return String.format("Updated 'Releases coming soon' section with %d upcoming releases", upcomingReleases.size());
+                return String.format("Updated 'Releases coming soon' section with %d upcoming releases", upcomingReleases.size()) + stale;
             }
         } catch (Exception e) {
             return "Error updating upcoming releases: " + e.getMessage();
@@ -262,60 +296,115 @@ public class DocumentCommands {
             @Option(longName = "newsLimit", defaultValue = "8") int newsLimit,
             @Option(longName = "daysPast", defaultValue = "7") int daysPast,
             @Option(longName = "daysAhead", defaultValue = "10") int daysAhead,
-            @Option(longName = "youtubeLimit", defaultValue = "10") int youtubeLimit) {
+            @Option(longName = "youtubeLimit", defaultValue = "10") int youtubeLimit,
+            @Option(longName = "parallel", defaultValue = "false") boolean parallel,
+            @Option(longName = "feedConcurrency", defaultValue = "4") int feedConcurrency,
+            @Option(longName = "budgetSeconds", defaultValue = "600") int budgetSeconds) {
 
         StringBuilder result = new StringBuilder();
 
-        try {
-            // Update news
-            List<RssService.NewsItem> newsItems = rssService.fetchLatestNews(splitFeeds(rssUrl), newsLimit);
-            documentService.updateNewsSection(filename, newsItems);
-            result.append("✓ Updated news section with ").append(newsItems.size()).append(" items\n");
+        // In parallel mode every source is already in flight before the first section is
+        // applied. The sections are applied in document order to one in-memory copy, which is
+        // written once at the end; a failed source leaves the file untouched.
+        // Each section is timed over its own fetch, wherever that runs; sections never reached
+        // because an earlier one aborted the update are reported as skipped.
+        // A section whose fetch runs out of run budget is left as it was and reported as
+        // degraded; the rest of the document is still written. One built from a last-known-good
+        // copy is written, but reported as degraded and flagged as stale.
+        RunBudget budget = RunBudget.start(Duration.ofSeconds(budgetSeconds), parallel,
+                "news", "recent-releases", "upcoming-releases", "youtube", "demos");
+        RunReport.Section newsSection = runReport.section("news");
+        RunReport.Section recentSection = runReport.section("recent-releases");
+        RunReport.Section upcomingSection = runReport.section("upcoming-releases");
+        RunReport.Section youtubeSection = runReport.section("youtube");
+        RunReport.Section demosSection = runReport.section("demos");
+
+        try (SourceFetches fetches = SourceFetches.of(parallel, budget)) {
+            SourceFetches.Fetch<List<RssService.NewsItem>> news = fetches.start(newsSection.timed(budget.bind("news",
+                    () -> rssService.fetchLatestNews(splitFeeds(rssUrl), newsLimit, feedConcurrency))));
+            SourceFetches.Fetch<List<CalendarService.ReleaseEvent>> recent = fetches.start(recentSection.timed(budget.bind("recent-releases",
+                    () -> calendarService.fetchRecentReleases(calendarUrl, daysPast))));
+            SourceFetches.Fetch<List<CalendarService.ReleaseEvent>> upcoming = fetches.start(upcomingSection.timed(budget.bind("upcoming-releases",
+                    () -> calendarService.fetchUpcomingReleases(calendarUrl, daysAhead))));
+            SourceFetches.Fetch<YouTubeService.FetchResult> videos = fetches.start(youtubeSection.timed(budget.bind("youtube",
+                    () -> youTubeService.fetchLatest(youtubeLimit))));
+            SourceFetches.Fetch<List<GitHubService.DemoRepository>> demos = fetches.start(demosSection.timed(budget.bind("demos",
+                    () -> gitHubService.fetchDemoRepositories())));
+
+            boolean changed = documentService.edit(filename, document -> {
+                // Update news
+                List<RssService.NewsItem> newsItems = withinBudget(news, newsSection, result);
+                if (newsItems != null) {
+                    document.updateNews(newsItems);
+                    String stale = complete(newsSection, RunMetrics.NEWS, newsItems.size());
+                    result.append("✓ Updated news section with ").append(newsItems.size()).append(" items")
+                            .append(stale).append('\n');
+                }
 
-            // Update recent releases
-            List<CalendarService.ReleaseEvent> recentReleases = calendarService.fetchRecentReleases(calendarUrl, daysPast);
-            if (!recentReleases.isEmpty()) {
-                documentService.addMultipleEnterpriseReleases(filename, recentReleases);
-                result.append("✓ Added ").append(recentReleases.size()).append(" recent releases\n");
-            } else {
-                result.append("- No recent releases found\n");
-            }
+                // Update recent releases
+                List<CalendarService.ReleaseEvent> recentReleases = withinBudget(recent, recentSection, result);
+                if (recentReleases != null) {
+                    String stale = complete(recentSection, RunMetrics.CALENDAR, recentReleases.size());
+                    if (!recentReleases.isEmpty()) {
+                        document.addEnterpriseReleases(recentReleases);
+                        result.append("✓ Added ").append(recentReleases.size()).append(" recent releases");
+                    } else {
+                        result.append("- No recent releases found");
+                    }
+                    result.append(stale).append('\n');
+                }
 
-            // Update upcoming releases
-            List<CalendarService.ReleaseEvent> upcomingReleases = calendarService.fetchUpcomingReleases(calendarUrl, daysAhead);
-            documentService.updateReleasesComingSoon(filename, upcomingReleases);
-            if (!upcomingReleases.isEmpty()) {
-                result.append("✓ Updated upcoming releases with ").append(upcomingReleases.size()).append(" items\n");
-            } else {
-                result.append("✓ Updated upcoming releases with default projects\n");
-            }
+                // Update upcoming releases
+                List<CalendarService.ReleaseEvent> upcomingReleases = withinBudget(upcoming, upcomingSection, result);
+                if (upcomingReleases != null) {
+                    document.updateReleasesComingSoon(upcomingReleases);
+                    String stale = complete(upcomingSection, RunMetrics.CALENDAR, upcomingReleases.size());
+                    if (!upcomingReleases.isEmpty()) {
+                        result.append("✓ Updated upcoming releases with ").append(upcomingReleases.size()).append(" items");
+                    } else {
+                        result.append("✓ Updated upcoming releases with default projects");
+                    }
+                    result.append(stale).append('\n');
+                }
 
-            // Update YouTube section. Handled inline so an outage still leaves the remaining
-            // sections (demos) to be written, and leaves any existing YouTube content in place
-            // rather than replacing it with an empty list.
-            try {
-                YouTubeService.FetchResult youtube = youTubeService.fetchLatest(youtubeLimit);
-                documentService.updateYouTubeSection(filename, youtube.videos());
-                if (youtube.isComplete()) {
-                    result.append("✓ Updated YouTube section with ").append(youtube.videos().size())
-                            .append(" videos\n");
-                } else {
+                // Update YouTube section. Handled inline so an outage still leaves the remaining
+                // sections (demos) to be written, and leaves any existing YouTube content in place
+                // rather than replacing it with an empty list.
+                try {
+                    YouTubeService.FetchResult youtube = withinBudget(videos, youtubeSection, result);
+                    if (youtube != null) {
+                        document.updateYouTube(youtube.videos());
+                        if (youtube.isComplete()) {
+                            String stale = complete(youtubeSection, RunMetrics.YOUTUBE, youtube.videos().size());
+                            result.append("✓ Updated YouTube section with ").append(youtube.videos().size())
+                                    .append(" videos").append(stale).append('\n');
+                        } else {
+                            exitCodeTracker.markFailure();
+                            youtubeSection.degraded(youtube.videos().size(),
+                                    "no video from: " + String.join(", ", youtube.missingChannels()));
+                            result.append("✗ Updated YouTube section with ").append(youtube.videos().size())
+                                    .append(" videos, but no video from: ")
+                                    .append(String.join(", ", youtube.missingChannels())).append('\n');
+                        }
+                    }
+                } catch (YouTubeService.YouTubeUnavailableException e) {
                     exitCodeTracker.markFailure();
-                    result.append("✗ Updated YouTube section with ").append(youtube.videos().size())
-                            .append(" videos, but no video from: ")
-                            .append(String.join(", ", youtube.missingChannels())).append('\n');
+                    result.append("✗ YouTube section left unchanged: ").append(e.getMessage()).append('\n');
                 }
-            } catch (YouTubeService.YouTubeUnavailableException e) {
-                exitCodeTracker.markFailure();
-                result.append("✗ YouTube section left unchanged: ").append(e.getMessage()).append('\n');
-            }
 
-            // Update GitHub demos
-            List<GitHubService.DemoRepository> demoRepos = gitHubService.fetchDemoRepositories();
-            documentService.updateGitHubDemos(filename, demoRepos);
-            result.append("✓ Updated demos section with ").append(demoRepos.size()).append(" GitHub repositories\n");
+                // Update GitHub demos
+                List<GitHubService.DemoRepository> demoRepos = withinBudget(demos, demosSection, result);
+                if (demoRepos != null) {
+                    document.updateGitHubDemos(demoRepos);
+                    String stale = complete(demosSection, RunMetrics.GITHUB, demoRepos.size());
+                    result.append("✓ Updated demos section with ").append(demoRepos.size()).append(" GitHub repositories")
+                            .append(stale).append('\n');
+                }
+            });
 
-            result.append("\nDocument fully updated: ").append(filename);
+            exitCodeTracker.recordWrite(changed);
+
+            result.append(changed ? "\nDocument fully updated: " : "\nDocument unchanged: ").append(filename);
             return result.toString();
 
         } catch (Exception e) {
@@ -324,18 +413,58 @@ public class DocumentCommands {
         }
     }
 
+    /**
+     * The fetch's result, or null when it ran out of run budget: the section is then left as it
+     * was, reported as degraded, and the run exits non-zero. Any other failure aborts the update.
+     */
+    private <T> T withinBudget(SourceFetches.Fetch<T> fetch, RunReport.Section section, StringBuilder result)
+            throws Exception {
+        try {
+            return fetch.get();
+        } catch (Exception e) {
+            if (!RunBudget.exhausted(e)) {
+                throw e;
+            }
+            exitCodeTracker.markFailure();
+            section.degraded(0, "out of time: " + e.getMessage());
+            result.append("✗ ").append(section.name()).append(" section left unchanged: run budget exhausted\n");
+            return null;
+        }
+    }
+
+    /**
+     * Reports the section as ok, or as degraded when some of it was served from the last-known-good
+     * store because {@code source} could not be reached. Returns the note that flags the latter
+     * to the user, or an empty string. Stale content does not fail the run: it is what the store
+     * is for.
+     */
+    private String complete(RunReport.Section section, String source, int items) {
+        List<LastKnownGood.Served> served = lastKnownGood.served(source);
+        if (served.isEmpty()) {
+            section.ok(items);
+            return "";
+        }
+        String copies = LastKnownGood.describe(served);
+        section.degraded(items, "served from last known good copy: " + copies);
+        return " (stale: served from last known good copy of " + copies + ")";
+    }
+
     @Command(name = "help-doc", description = "Show help for document management")
     public String showHelp() {
         return """
                 Document Updater Commands:
 
                 Document Management:
-                  create [filename]                         - Create a new document with template
-                  show [filename]                           - Show current document content
+                  create [filename] [archive]               - Create a new document with template
+                                                              (archive: add a new issue at the end)
+                  show [filename] [page] [pageSize]         - Show current document content
+                                                              (archives: a page of issues, newest first)
 
                 News Management:
-                  update-news [filename] [rssUrl] [limit]   - Update news section from RSS feed
-                  preview-news [rssUrl] [limit]             - Preview latest news from RSS
+                  update-news [filename] [rssUrl] [limit] [feedConcurrency]
+                                                            - Update news section from RSS feed(s)
+                  preview-news [rssUrl] [limit] [feedConcurrency]
+                                                            - Preview latest news from RSS
 
                 Release Management:
                   update-releases [filename] [calendarUrl] [daysPast] - Update releases from Spring calendar
@@ -353,8 +482,11 @@ public class DocumentCommands {
                   preview-github-demos                      - Preview GitHub demo repositories
 
                 Full Update:
-                  full-update [filename] [rssUrl] [calendarUrl] [newsLimit] [daysPast] [daysAhead] [youtubeLimit]
-                                                            - Update everything at once (includes GitHub demos)
+                  full-update [filename] [rssUrl] [calendarUrl] [newsLimit] [daysPast] [daysAhead] [youtubeLimit] [parallel] [feedConcurrency] [budgetSeconds]
+                                                            - Update everything at once (includes GitHub demos);
+                                                              --parallel true fetches every source concurrently;
+                                                              sections still fetching after budgetSeconds
+                                                              (default 600, 0 for none) are left unchanged
 
                 Examples:
                   create my-doc.md
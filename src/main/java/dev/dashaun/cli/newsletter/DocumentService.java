@@ -1,277 +1,178 @@
 package dev.dashaun.cli.newsletter;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
 public class DocumentService {
 
     private static final String DEFAULT_FILENAME = "spring-update.md";
-    private static final Pattern NEWS_SECTION_PATTERN = Pattern.compile(
-            "(## News:\\s*\\n)(.*?)(\\n\\n|\\n(?=##)|$)",
-            Pattern.DOTALL
-    );
-    private static final Pattern YOUTUBE_SECTION_PATTERN = Pattern.compile(
-            "(## YouTube:\\s*\\n)(.*?)(\\n\\n|\\n(?=##)|$)",
-            Pattern.DOTALL
-    );
-    private static final Pattern ENTERPRISE_RELEASES_SECTION_PATTERN = Pattern.compile(
-            "(## Recent Enterprise Releases:\\s*\\n)(.*?)(\\n\\n|\\n(?=##)|$)",
-            Pattern.DOTALL);
-    private static final Pattern RELEASES_COMING_SOON_SECTION_PATTERN = Pattern.compile(
-            "(## Releases coming soon:\\s*\\n)(.*?)(\\n\\n|\\n(?=##)|$)",
-            Pattern.DOTALL);
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
 
+    private final boolean fsync;
 
-    public void createNewDocument(String filename) throws IOException {
-        Path path = Path.of(filename != null ? filename : DEFAULT_FILENAME);
-        String date = LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM d"));
+    public DocumentService() {
+        this(false);
+    }
 
-        String template = String.format("""
-                # %s
-                
-                ## News:
-                
-                ## Recent Enterprise Releases:
-                
-                ## Releases coming soon:
-                
-                ## YouTube:
-                
-                ## Demos:
-                
-                
-                """, date);
+    // With fsync on, the new content (and the rename) is on disk before a command returns,
+    // which only matters if the machine itself can go down between the run and the publish.
+    @Autowired
+    public DocumentService(@Value("${newsletter.document.fsync:false}") boolean fsync) {
+        this.fsync = fsync;
+    }
 
-        Files.writeString(path, template, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    /** Writes the template; returns false if the file already held exactly that. */
+    public boolean createNewDocument(String filename) throws IOException {
+        return createNewDocument(filename, false);
     }
 
-    public void updateNewsSection(String filename, List<RssService.NewsItem> newsItems) throws IOException {
+    /**
+     * Writes the template, or with {@code archive} (and for any file that already is an archive)
+     * adds it as a new issue at the end instead. A plain document turns into an archive whose
+     * first issue is its current content. Returns false if nothing had to be written, which for
+     * an archive means today's issue has already been started.
+     */
+    public boolean createNewDocument(String filename, boolean archive) throws IOException {
         Path path = Path.of(filename != null ? filename : DEFAULT_FILENAME);
-
-        if (!Files.exists(path)) {
-            createNewDocument(filename);
-        }
-
-        String content = Files.readString(path);
-        String newsSection = buildNewsSection(newsItems);
-
-        Matcher matcher = NEWS_SECTION_PATTERN.matcher(content);
-        if (matcher.find()) {
-            String updatedContent = content.substring(0, matcher.start(2)) +
-                    newsSection +
-                    content.substring(matcher.end(2));
-            writeDocumentWithCleanup(path, updatedContent);
-        } else {
-            // If no news section found, add it after the date
-            String datePattern = "^# (.+)$";
-            Pattern pattern = Pattern.compile(datePattern, Pattern.MULTILINE);
-            Matcher dateMatcher = pattern.matcher(content);
-
-            if (dateMatcher.find()) {
-                String updatedContent = content.substring(0, dateMatcher.end()) +
-                        "\n\n## News:\n\n" + newsSection +
-                        content.substring(dateMatcher.end());
-                writeDocumentWithCleanup(path, updatedContent);
+        if (archive || IssueArchive.isArchive(path)) {
+            IssueArchive issues = IssueArchive.open(path, fsync);
+            List<IssueArchive.Issue> existing = issues.issues();
+            if (!existing.isEmpty() && existing.getLast().heading().equals(dateHeading())) {
+                return false;
             }
+            issues.appendIssue(template());
+            return true;
         }
+        return writeIfChanged(path, readIfExists(path), template());
     }
 
-    private String buildNewsSection(List<RssService.NewsItem> newsItems) {
-        StringBuilder sb = new StringBuilder();
-        for (RssService.NewsItem item : newsItems) {
-            sb.append(item.toString()).append("\n");
-        }
-        return sb.toString();
-    }
-
-    public void updateYouTubeSection(String filename, List<YouTubeService.YouTubeVideo> videos) throws IOException {
+    /**
+     * Reads the document once (starting from the template if it does not exist yet), applies
+     * every change in {@code edit} to the parsed sections, and writes the result once. If the
+     * edit throws, nothing is written. In an archive, only the current (last) issue is read,
+     * edited and written back.
+     *
+     * @return whether the file was written; false when the result is exactly what was already
+     *         there, in which case the file is not touched at all
+     */
+    public <E extends Exception> boolean edit(String filename, DocumentEdit<E> edit) throws IOException, E {
         Path path = Path.of(filename != null ? filename : DEFAULT_FILENAME);
-
-        if (!Files.exists(path)) {
-            createNewDocument(filename);
-        }
-
-        String content = Files.readString(path);
-        String youtubeSection = buildYouTubeSection(videos);
-
-        Matcher matcher = YOUTUBE_SECTION_PATTERN.matcher(content);
-        if (matcher.find()) {
-            String updatedContent = content.substring(0, matcher.start(2)) +
-                    youtubeSection +
-                    content.substring(matcher.end(2));
-            writeDocumentWithCleanup(path, updatedContent);
+        IssueArchive archive = IssueArchive.isArchive(path) ? IssueArchive.open(path, fsync) : null;
+        String previous = archive != null ? archive.readCurrentIssue() : readIfExists(path);
+
+        NewsletterDocument document = NewsletterDocument.parse(previous != null ? previous : template());
+        edit.apply(document);
+        // Timed from here: the edit itself may be waiting on the fetches.
+        long start = System.nanoTime();
+        String content = removeDoubleSpacing(document.render());
+
+        // Compared against the text the edit started from, which is already in memory; an
+        // unchanged run leaves the file, and its modification time, exactly as they were.
+        if (content.equals(previous)) {
+            RunMetrics.write(start, false);
+            return false;
+        }
+        if (archive != null) {
+            archive.replaceCurrentIssue(content);
         } else {
-            // If no YouTube section found, add it before the Demos section
-            Pattern demosPattern = Pattern.compile("(## Demos:\\s*\\n)", Pattern.DOTALL);
-            Matcher demosMatcher = demosPattern.matcher(content);
-            
-            if (demosMatcher.find()) {
-                String updatedContent = content.substring(0, demosMatcher.start()) +
-                        "## YouTube:\n\n" + youtubeSection + "\n" +
-                        content.substring(demosMatcher.start());
-                writeDocumentWithCleanup(path, updatedContent);
-            } else {
-                // If no demos section, add at the end
-                String updatedContent = content.trim() + "\n\n## YouTube:\n\n" + youtubeSection + "\n";
-                writeDocumentWithCleanup(path, updatedContent);
-            }
+            AtomicFiles.write(path, content.getBytes(StandardCharsets.UTF_8), fsync);
         }
+        RunMetrics.write(start, true);
+        return true;
     }
 
-    private String buildYouTubeSection(List<YouTubeService.YouTubeVideo> videos) {
-        StringBuilder sb = new StringBuilder();
-        for (YouTubeService.YouTubeVideo video : videos) {
-            sb.append(video.toString()).append("\n");
-        }
-        return sb.toString();
+    public boolean updateNewsSection(String filename, List<RssService.NewsItem> newsItems) throws IOException {
+        return edit(filename, document -> document.updateNews(newsItems));
+    }
+
+    public boolean updateYouTubeSection(String filename, List<YouTubeService.YouTubeVideo> videos) throws IOException {
+        return edit(filename, document -> document.updateYouTube(videos));
     }
 
     public String readDocument(String filename) throws IOException {
-        Path path = Path.of(filename != null ? filename : DEFAULT_FILENAME);
-        if (!Files.exists(path)) {
-            return "Document does not exist: " + path.toAbsolutePath();
-        }
-        return Files.readString(path);
+        return readDocument(filename, 1, 1);
     }
 
-    public void addMultipleEnterpriseReleases(String filename, List<CalendarService.ReleaseEvent> releases) throws IOException {
+    /**
+     * The whole document, or for an archive one page of issues, newest first. Only the issues on
+     * the requested page are read from disk.
+     */
+    public String readDocument(String filename, int page, int pageSize) throws IOException {
         Path path = Path.of(filename != null ? filename : DEFAULT_FILENAME);
-
         if (!Files.exists(path)) {
-            createNewDocument(filename);
+            return "Document does not exist: " + path.toAbsolutePath();
         }
-
-        String content = Files.readString(path);
-        Matcher matcher = ENTERPRISE_RELEASES_SECTION_PATTERN.matcher(content);
-
-        StringBuilder newReleases = new StringBuilder();
-        // Group releases by date, maintaining chronological order
-        releases.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        r -> r.getReleaseDate().format(java.time.format.DateTimeFormatter.ofPattern("MMMM d")),
-                        java.util.LinkedHashMap::new,
-                        java.util.stream.Collectors.toList()))
-                .forEach((date, releaseList) -> {
-                    newReleases.append("- ").append(date).append("\n");
-                    releaseList.forEach(release ->
-                            newReleases.append("  - ").append(release.getFormattedRelease()).append("\n"));
-                });
-
-        if (matcher.find()) {
-            // Section exists, update it
-            String existingReleases = matcher.group(2);
-            String updatedReleases = newReleases.toString() + existingReleases;
-
-            String updatedContent = content.substring(0, matcher.start(2)) +
-                    updatedReleases +
-                    content.substring(matcher.end(2));
-            writeDocumentWithCleanup(path, updatedContent);
-        } else {
-            // Section doesn't exist, create it after the News section
-            Matcher newsMatcher = NEWS_SECTION_PATTERN.matcher(content);
-            
-            if (newsMatcher.find()) {
-                String updatedContent = content.substring(0, newsMatcher.end()) +
-                        "\n## Recent Enterprise Releases:\n\n" + newReleases +
-                        content.substring(newsMatcher.end());
-                writeDocumentWithCleanup(path, updatedContent);
-            }
+        if (!IssueArchive.isArchive(path)) {
+            return Files.readString(path);
         }
-    }
-
-    public void updateReleasesComingSoon(String filename, List<CalendarService.ReleaseEvent> upcomingReleases) throws IOException {
-        Path path = Path.of(filename != null ? filename : DEFAULT_FILENAME);
-
-        if (!Files.exists(path)) {
-            createNewDocument(filename);
+        IssueArchive archive = IssueArchive.open(path, fsync);
+        int total = archive.issues().size();
+        int pages = Math.max(1, (total + pageSize - 1) / pageSize);
+        if (page < 1 || page > pages) {
+            return String.format("No page %d: the archive has %d issue(s), %d page(s) of %d", page, total, pages, pageSize);
         }
-
-        String content = Files.readString(path);
-        Matcher matcher = RELEASES_COMING_SOON_SECTION_PATTERN.matcher(content);
-
-        if (matcher.find()) {
-            StringBuilder upcomingSection = new StringBuilder();
-
-            // Add releases from calendar
-            upcomingReleases.forEach(release ->
-                    upcomingSection.append("- ")
-                            .append(release.getFormattedRelease())
-                            .append(" (")
-                            .append(release.getReleaseDate().format(java.time.format.DateTimeFormatter.ofPattern("MMM d")))
-                            .append(")\n"));
-
-            String updatedContent = content.substring(0, matcher.start(2)) +
-                    upcomingSection +
-                    content.substring(matcher.end(2));
-            writeDocumentWithCleanup(path, updatedContent);
+        StringBuilder out = new StringBuilder();
+        for (String issue : archive.page(page, pageSize)) {
+            out.append(issue);
         }
+        return out.append(String.format("%n(page %d of %d, %d issue(s), newest first)", page, pages, total)).toString();
     }
 
-    public void updateDemo(String filename, String demoDescription) throws IOException {
-        Path path = Path.of(filename != null ? filename : DEFAULT_FILENAME);
-
-        if (!Files.exists(path)) {
-            createNewDocument(filename);
-        }
+    public boolean addMultipleEnterpriseReleases(String filename, List<CalendarService.ReleaseEvent> releases) throws IOException {
+        return edit(filename, document -> document.addEnterpriseReleases(releases));
+    }
 
-        String content = Files.readString(path);
-        Pattern pattern = Pattern.compile("(## Demos:\\s*\\n)(.*?)$", Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(content);
+    public boolean updateReleasesComingSoon(String filename, List<CalendarService.ReleaseEvent> upcomingReleases) throws IOException {
+        return edit(filename, document -> document.updateReleasesComingSoon(upcomingReleases));
+    }
 
-        if (matcher.find()) {
-            String updatedContent = content.substring(0, matcher.start(2)) +
-                    "\n" + demoDescription + "\n\n";
-            writeDocumentWithCleanup(path, updatedContent);
-        }
+    public boolean updateDemo(String filename, String demoDescription) throws IOException {
+        return edit(filename, document -> document.updateDemo(demoDescription));
     }
 
-    public void updateGitHubDemos(String filename, List<GitHubService.DemoRepository> demoRepos) throws IOException {
-        Path path = Path.of(filename != null ? filename : DEFAULT_FILENAME);
+    public boolean updateGitHubDemos(String filename, List<GitHubService.DemoRepository> demoRepos) throws IOException {
+        return edit(filename, document -> document.updateGitHubDemos(demoRepos));
+    }
 
-        if (!Files.exists(path)) {
-            createNewDocument(filename);
-        }
+    private String template() {
+        return NewsletterDocument.template(dateHeading());
+    }
 
-        String content = Files.readString(path);
-        Pattern pattern = Pattern.compile("(## Demos:\\s*\\n)(.*?)$", Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(content);
+    private static String dateHeading() {
+        return LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM d"));
+    }
 
-        StringBuilder demosSection = new StringBuilder();
-        if (!demoRepos.isEmpty()) {
-            demosSection.append("\n");
-            for (GitHubService.DemoRepository repo : demoRepos) {
-                demosSection.append(repo.toString()).append("\n");
-            }
-            demosSection.append("\n");
-        } else {
-            demosSection.append("\nNo demo repositories found.\n\n");
-        }
+    static String removeDoubleSpacing(String content) {
+        // Replace multiple consecutive blank lines with single blank lines
+        return BLANK_LINES.matcher(content).replaceAll("\n\n");
+    }
 
-        if (matcher.find()) {
-            String updatedContent = content.substring(0, matcher.start(2)) +
-                    demosSection +
-                    content.substring(matcher.end());
-            writeDocumentWithCleanup(path, updatedContent);
-        }
+    private static String readIfExists(Path path) throws IOException {
+        return Files.exists(path) ? Files.readString(path) : null;
     }
 
-    private String removeDoubleSpacing(String content) {
-        // Replace multiple consecutive blank lines with single blank lines
-        return content.replaceAll("\\n{3,}", "\n\n");
+    private boolean writeIfChanged(Path path, String previous, String content) throws IOException {
+        if (content.equals(previous)) {
+            return false;
+        }
+        AtomicFiles.write(path, content.getBytes(StandardCharsets.UTF_8), fsync);
+        return true;
     }
 
-    private void writeDocumentWithCleanup(Path path, String content) throws IOException {
-        String cleanedContent = removeDoubleSpacing(content);
-        Files.writeString(path, cleanedContent, StandardOpenOption.TRUNCATE_EXISTING);
+    /** A batch of section changes, applied to the document in memory. */
+    @FunctionalInterface
+    public interface DocumentEdit<E extends Exception> {
+        void apply(NewsletterDocument document) throws E;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package dev.dashaun.cli.newsletter;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ExitCodeGenerator;
 import org.springframework.stereotype.Component;
 
@@ -9,18 +11,55 @@ import org.springframework.stereotype.Component;
  * <p>Shell commands return their output as a String, so a failed section would otherwise exit 0
  * and look successful to the GitHub Action driving this CLI. Marking a failure here makes
  * {@code SpringApplication.exit} return a non-zero code once all sections have been attempted.
+ *
+ * <p>A run that succeeded but left the document exactly as it was exits with
+ * {@code newsletter.unchanged-exit-code} (3 by default), so the workflow can skip committing and
+ * publishing. A failure always wins over "unchanged"; set the property to 0 to turn it off.
  */
 @Component
 public class ExitCodeTracker implements ExitCodeGenerator {
 
-    private volatile int exitCode = 0;
+    static final int FAILURE = 1;
+
+    private final int unchangedExitCode;
+
+    private volatile boolean failed = false;
+    private volatile boolean documentWritten = false;
+    private volatile boolean documentUnchanged = false;
+
+    public ExitCodeTracker() {
+        this(3);
+    }
+
+    @Autowired
+    public ExitCodeTracker(@Value("${newsletter.unchanged-exit-code:3}") int unchangedExitCode) {
+        this.unchangedExitCode = unchangedExitCode;
+    }
 
     public void markFailure() {
-        this.exitCode = 1;
+        this.failed = true;
+    }
+
+    /** Records the outcome of a document write: {@code true} if the file was actually changed. */
+    public void recordWrite(boolean changed) {
+        if (changed) {
+            this.documentWritten = true;
+        } else {
+            this.documentUnchanged = true;
+        }
+    }
+
+    void reset() {
+        failed = false;
+        documentWritten = false;
+        documentUnchanged = false;
     }
 
     @Override
     public int getExitCode() {
-        return exitCode;
+        if (failed) {
+            return FAILURE;
+        }
+        return documentUnchanged && !documentWritten ? unchangedExitCode : 0;
     }
 }
@@ -0,0 +1,79 @@
+package dev.dashaun.cli.newsletter;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Runs one blocking task per input on virtual threads, at most {@code maxConcurrency} at a time,
+ * and returns the results in input order.
+ *
+ * <p>Input order matters more than it looks: callers merge the results with first-wins rules, and
+ * the winner must not depend on which response happened to arrive first.
+ *
+ * <p>Each task runs with the caller's {@link RunBudget} share, so the section's deadline applies
+ * on the new threads too, and with the caller's {@link RunLog}.
+ */
+final class FanOut {
+
+    private FanOut() {
+    }
+
+    static <T, R> List<R> map(List<T> inputs, int maxConcurrency, Function<? super T, ? extends R> task) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1, was " + maxConcurrency);
+        }
+        Semaphore permits = new Semaphore(maxConcurrency);
+        RunBudget.Share share = RunBudget.current();
+        PrintStream log = RunLog.current();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<R>> futures = new ArrayList<>(inputs.size());
+            for (T input : inputs) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return share.call(() -> RunLog.call(log, () -> task.apply(input)));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<R> results = new ArrayList<>(inputs.size());
+            try {
+                for (Future<R> future : futures) {
+                    results.add(await(future));
+                }
+            } catch (RuntimeException | Error e) {
+                // The first failure in input order decides the outcome; the rest is wasted work.
+                futures.forEach(future -> future.cancel(true));
+                throw e;
+            }
+            return results;
+        }
+    }
+
+    private static <R> R await(Future<R> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for concurrent fetches", e);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package dev.dashaun.cli.newsletter;
 
-import org.springframework.http.client.BufferingClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -18,40 +23,65 @@ import java.util.stream.Collectors;
 @Service
 public class GitHubService {
 
-    private final RestTemplate restTemplate;
+    private final HttpFetcher httpFetcher;
+    private final String apiBaseUrl;
     private static final String GITHUB_API_BASE = "https://api.github.com";
     private static final String ORG_NAME = "dashaun-tanzu";
 
     private static final int MAX_ATTEMPTS = 3;
     private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(2);
 
+    private static final int MAX_RESPONSE_BYTES = 1024 * 1024 * 5;
+
+    // Pages beyond the first, fetched at the same time. Low enough to stay clear of GitHub's
+    // secondary rate limits on concurrent requests.
+    private static final int PAGE_CONCURRENCY = 4;
+
+    // <https://api.github.com/organizations/1/repos?type=public&per_page=100&page=3>; rel="last"
+    private static final Pattern LAST_PAGE_PATTERN =
+            Pattern.compile("<[^>]*[?&]page=(\\d+)[^>]*>\\s*;\\s*rel=\"last\"");
+
+    private static final HttpHeaders API_HEADERS = new HttpHeaders();
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    static {
+        API_HEADERS.set(HttpHeaders.ACCEPT, "application/vnd.github+json");
+    }
+
     public GitHubService() {
-        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
-        requestFactory.setConnectTimeout(30000);
-        requestFactory.setReadTimeout(30000);
-        this.restTemplate = new RestTemplate(new BufferingClientHttpRequestFactory(requestFactory));
+        this(HttpFetcher.standalone());
+    }
+
+    public GitHubService(HttpFetcher httpFetcher) {
+        this(httpFetcher, GITHUB_API_BASE);
+    }
+
+    // The org listing revalidates through the HTTP cache; a 304 from the GitHub API does not
+    // count against the rate limit. The base URL only changes for local fixtures.
+    @Autowired
+    public GitHubService(HttpFetcher httpFetcher,
+                         @Value("${newsletter.github.api-base-url:" + GITHUB_API_BASE + "}") String apiBaseUrl) {
+        this.httpFetcher = httpFetcher;
+        this.apiBaseUrl = apiBaseUrl;
     }
 
     public List<DemoRepository> fetchDemoRepositories() {
         try {
-            String apiUrl = String.format("%s/orgs/%s/repos?type=public&per_page=100", GITHUB_API_BASE, ORG_NAME);
+            String apiUrl = String.format("%s/orgs/%s/repos?type=public&per_page=100", apiBaseUrl, ORG_NAME);
 
-            String jsonResponse = RetryUtils.executeWithRetry(new Callable<String>() {
-                @Override
-                public String call() {
-                    return restTemplate.getForObject(apiUrl, String.class);
-                }
-            }, MAX_ATTEMPTS, INITIAL_BACKOFF);
-
-            if (jsonResponse == null || jsonResponse.trim().isEmpty()) {
-                return List.of();
+            // The first page says how many there are; the rest can then be fetched side by side.
+            Page firstPage = fetchPage(apiUrl);
+            List<String> remainingPages = new ArrayList<>();
+            for (int page = 2; page <= lastPage(firstPage.headers()); page++) {
+                remainingPages.add(apiUrl + "&page=" + page);
+            }
+            List<DemoRepository> repositories = new ArrayList<>(firstPage.repositories());
+            for (Page page : FanOut.map(remainingPages, PAGE_CONCURRENCY, this::fetchPage)) {
+                repositories.addAll(page.repositories());
             }
-
-            List<DemoRepository> repositories = parseRepositories(jsonResponse);
 
             return repositories.stream()
-                    .filter(repo -> repo.getName() != null && repo.getName().endsWith("-demo"))
-                    .filter(repo -> !isArchived(jsonResponse, repo.getName()))
                     .sorted((a, b) -> {
                         if (a.getUpdatedAt() == null && b.getUpdatedAt() == null) return 0;
                         if (a.getUpdatedAt() == null) return 1;
@@ -65,45 +95,174 @@ public class GitHubService {
         }
     }
 
+    private Page fetchPage(String pageUrl) {
+        try {
+            Callable<HttpFetcher.Response> download = () -> RunMetrics.fetch(RunMetrics.GITHUB,
+                    () -> RetryUtils.executeWithRetry(httpFetcher.hostGuards(), httpFetcher.retryTelemetry(),
+                            pageUrl, new Callable<HttpFetcher.Response>() {
+                        @Override
+                        public HttpFetcher.Response call() {
+                            return httpFetcher.get(pageUrl, MAX_RESPONSE_BYTES, API_HEADERS)
+                                    .timeout(RunBudget.timeout(Duration.ofSeconds(30)))
+                                    .block();
+                        }
+                    }, MAX_ATTEMPTS, INITIAL_BACKOFF));
+
+            // Each page falls back to its own last good copy; the stored Link header still says
+            // how many pages there were then.
+            return httpFetcher.lastKnownGood().fetch(RunMetrics.GITHUB, pageUrl, download,
+                    response -> new Page(response.headers(), RunMetrics.parse(RunMetrics.GITHUB,
+                            () -> readRepositories(response.body(), true))));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    // One page of the org listing: its headers (for the Link to the last page) and its demos.
+    private record Page(HttpHeaders headers, List<DemoRepository> repositories) {
+    }
+
+    /**
+     * The page number of the {@code rel="last"} link, or 1 when there is no {@code Link} header
+     * (everything fit on the first page).
+     */
+    static int lastPage(HttpHeaders headers) {
+        for (String link : headers.getOrEmpty(HttpHeaders.LINK)) {
+            Matcher matcher = LAST_PAGE_PATTERN.matcher(link);
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(1));
+            }
+        }
+        return 1;
+    }
+
     public List<DemoRepository> parseRepositories(String jsonResponse) {
         if (jsonResponse == null || jsonResponse.trim().isEmpty()) {
             return List.of();
         }
-        
-        List<DemoRepository> repositories = new ArrayList<>();
+        try {
+            return readRepositories(jsonResponse.getBytes(StandardCharsets.UTF_8), false);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse GitHub repositories: " + e.getMessage(), e);
+        }
+    }
 
-        // Split the array into top-level repository objects, accounting for nested
-        // objects (owner, license, ...) and braces inside strings. A naive
-        // "\\{[^}]*\\}" stops at the first nested '}' and drops fields such as
-        // "description" that follow the nested "owner" object.
-        for (String repoJson : extractTopLevelObjects(jsonResponse)) {
-            String name = extractJsonField(repoJson, "name");
-            String description = extractJsonField(repoJson, "description");
-            String htmlUrl = extractJsonField(repoJson, "html_url");
-            String updatedAtStr = extractJsonField(repoJson, "updated_at");
-
-            LocalDateTime updatedAt = null;
-            if (updatedAtStr != null && !updatedAtStr.equals("null")) {
-                try {
-                    updatedAt = LocalDateTime.parse(updatedAtStr, DateTimeFormatter.ISO_DATE_TIME);
-                } catch (Exception e) {
-                    // Ignore parsing errors
+    /**
+     * One streaming pass over the API response. With {@code demosOnly}, repositories that are
+     * not {@code -demo} or are archived are dropped as soon as that is known, and the rest of
+     * their object is skipped without being read into fields.
+     */
+    List<DemoRepository> readRepositories(byte[] json, boolean demosOnly) throws IOException {
+        List<DemoRepository> repositories = new ArrayList<>();
+        int seen = 0;
+        try (JsonParser parser = JSON.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                seen++;
+                addRepository(parser, demosOnly, repositories);
+            } else if (token == JsonToken.START_ARRAY) {
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    if (token == JsonToken.START_OBJECT) {
+                        seen++;
+                        addRepository(parser, demosOnly, repositories);
+                    } else {
+                        parser.skipChildren();
+                    }
                 }
             }
+        }
+        if (demosOnly) {
+            RunMetrics.items(RunMetrics.GITHUB, repositories.size(), seen - repositories.size());
+        }
+        return repositories;
+    }
 
-            if (name != null) {
-                repositories.add(new DemoRepository(
-                        name,
-                        description != null && !description.equals("null") ? description : "Demo repository",
-                        htmlUrl,
-                        updatedAt
-                ));
+    // Positioned on the repository's START_OBJECT; returns positioned on its END_OBJECT.
+    private static void addRepository(JsonParser parser, boolean demosOnly, List<DemoRepository> repositories)
+            throws IOException {
+        String name = null;
+        String description = null;
+        String htmlUrl = null;
+        String ownerUrl = null;
+        String updatedAtStr = null;
+        boolean archived = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "name" -> name = text(parser, value);
+                case "description" -> description = text(parser, value);
+                case "html_url" -> htmlUrl = text(parser, value);
+                case "updated_at" -> updatedAtStr = text(parser, value);
+                case "archived" -> archived = value == JsonToken.VALUE_TRUE;
+                case "owner" -> ownerUrl = value == JsonToken.START_OBJECT ? ownerUrl(parser) : null;
+                default -> parser.skipChildren();
+            }
+            if (demosOnly && (archived || (field.equals("name") && (name == null || !name.endsWith("-demo"))))) {
+                skipRestOfObject(parser);
+                return;
             }
         }
 
-        return repositories;
+        if (name == null) {
+            return;
+        }
+
+        LocalDateTime updatedAt = null;
+        if (updatedAtStr != null) {
+            try {
+                updatedAt = LocalDateTime.parse(updatedAtStr, DateTimeFormatter.ISO_DATE_TIME);
+            } catch (Exception e) {
+                // Ignore parsing errors
+            }
+        }
+
+        // DemoRepository appends the name to the URL, so it wants the owner's profile URL. The
+        // API lists "owner" before the repository's own "html_url"; fall back to that one only
+        // for responses without an owner object.
+        repositories.add(new DemoRepository(
+                name,
+                description != null ? description : "Demo repository",
+                ownerUrl != null ? ownerUrl : htmlUrl,
+                updatedAt
+        ));
+    }
+
+    private static String ownerUrl(JsonParser parser) throws IOException {
+        String url = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("html_url")) {
+                url = text(parser, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return url;
     }
 
+    private static void skipRestOfObject(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_OBJECT && token != null) {
+            parser.skipChildren();
+        }
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    // The helpers below are the old regex-based parsing, no longer used for fetching: they
+    // re-scan the whole response for every repository. Kept for existing callers.
+
     // Returns each top-level JSON object ("{...}") from a JSON array, matching braces
     // while ignoring any that appear inside string literals.
     List<String> extractTopLevelObjects(String json) {
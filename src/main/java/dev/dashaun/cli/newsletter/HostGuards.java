@@ -0,0 +1,280 @@
+package dev.dashaun.cli.newsletter;
+
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * One guard per host, shared by every {@link RetryUtils} loop that names its URL, so the services
+ * stop hammering a host independently of each other. The context has one, which the services get
+ * from their {@link HttpFetcher}.
+ *
+ * <p>Each guard runs an AIMD concurrency limit: every success raises the limit by
+ * {@code 1/limit} (about one more request per round of successes), a failure halves it, down to
+ * one request at a time. The requests in flight when a host starts failing tend to fail together,
+ * so only a failure of a request admitted since the last decrease halves the limit again; the
+ * rest were already answered for. Callers above the limit wait for a slot, within their run budget.
+ *
+ * <p>Each guard is also a circuit breaker. After {@value #FAILURE_THRESHOLD} failures in a row
+ * it opens and every attempt fails fast with {@link OpenException} for {@link #OPEN_FOR}. Then one
+ * attempt is let through as a probe: if it succeeds the breaker closes, if it fails the breaker
+ * opens again. What counts as a failure is the caller's retry predicate — a YouTube 404 does,
+ * a malformed feed does not — since only those say anything about the host.
+ *
+ * <p>Hosts are told apart by port too, so two local servers do not share a guard.
+ */
+@Component
+final class HostGuards {
+
+    static final int INITIAL_LIMIT = 4;
+    static final int MAX_LIMIT = 16;
+    static final int FAILURE_THRESHOLD = 8;
+    // Shorter than YouTube's 20s sweep pause, so every sweep after the first gets a probe.
+    static final Duration OPEN_FOR = Duration.ofSeconds(15);
+
+    /** What the guard for a URL-less call does: nothing. */
+    static final Guard UNGUARDED = new Guard(null, null);
+
+    enum State {
+        CLOSED("closed"), OPEN("open"), HALF_OPEN("half-open");
+
+        final String label;
+
+        State(String label) {
+            this.label = label;
+        }
+    }
+
+    /** One host's guard, as the run report shows it. */
+    record Snapshot(State state, double limit, int inFlight, long opened, long rejected) {
+    }
+
+    private final int initialLimit;
+    private final int maxLimit;
+    private final int failureThreshold;
+    private final long openForNanos;
+    private final LongSupplier clock;
+    private final Map<String, Guard> guards = new TreeMap<>();
+
+    HostGuards() {
+        this(INITIAL_LIMIT, MAX_LIMIT, FAILURE_THRESHOLD, OPEN_FOR, System::nanoTime);
+    }
+
+    HostGuards(int initialLimit, int maxLimit, int failureThreshold, Duration openFor, LongSupplier clock) {
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.failureThreshold = failureThreshold;
+        this.openForNanos = openFor.toNanos();
+        this.clock = clock;
+    }
+
+    /** The guard for {@code url}'s host; one that lets everything through when there is no URL. */
+    synchronized Guard forUrl(String url) {
+        String key = key(url);
+        return key != null ? guards.computeIfAbsent(key, k -> new Guard(this, k)) : UNGUARDED;
+    }
+
+    synchronized Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshots = new TreeMap<>();
+        guards.forEach((host, guard) -> snapshots.put(host, guard.snapshot()));
+        return snapshots;
+    }
+
+    private static String key(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) {
+                return null;
+            }
+            return uri.getPort() != -1 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static final class Guard {
+
+        private final HostGuards owner;
+        private final String host;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition slotFreed = lock.newCondition();
+
+        private double limit;
+        private int inFlight;
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean probing;
+        // Counts the decreases, so a failure can tell whether it was admitted before the last one.
+        private long decreases;
+        private long opened;
+        private long rejected;
+
+        private Guard(HostGuards owner, String host) {
+            this.owner = owner;
+            this.host = host;
+            this.limit = owner != null ? owner.initialLimit : Double.MAX_VALUE;
+        }
+
+        /**
+         * Runs {@code operation} in one of the host's slots and learns from how it went.
+         *
+         * @throws OpenException if the breaker is open, without running {@code operation}
+         * @throws RunBudget.ExhaustedException if the budget ran out waiting for a slot
+         */
+        <T> T call(Callable<T> operation, Predicate<Exception> isFailure, RunBudget.Share budget) throws Exception {
+            if (owner == null) {
+                return operation.call();
+            }
+            Slot slot = acquire(budget);
+            try {
+                T result = operation.call();
+                succeeded();
+                return result;
+            } catch (Exception e) {
+                if (isFailure.test(e) && !RunBudget.exhausted(e)) {
+                    failed(slot);
+                } else if (slot.probe()) {
+                    // Says nothing about the host either way; let the next attempt probe instead.
+                    lock.lock();
+                    try {
+                        probing = false;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                throw e;
+            } finally {
+                release();
+            }
+        }
+
+        private Slot acquire(RunBudget.Share budget) throws InterruptedException {
+            lock.lock();
+            try {
+                long waitNanos = budget.remaining().toNanos();
+                while (true) {
+                    boolean probe = admit();
+                    if (inFlight < Math.max(1, (int) limit)) {
+                        inFlight++;
+                        return new Slot(probe, decreases);
+                    }
+                    if (probe) {
+                        probing = false;
+                    }
+                    if (waitNanos <= 0) {
+                        throw new RunBudget.ExhaustedException(budget.section()
+                                + " ran out of its run budget waiting for a connection slot on " + host);
+                    }
+                    waitNanos = slotFreed.awaitNanos(waitNanos);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Called with the lock held: fails fast while open, and lets exactly one probe through.
+        private boolean admit() {
+            if (state == State.OPEN) {
+                if (owner.clock.getAsLong() - openUntil < 0) {
+                    rejected++;
+                    throw new OpenException(host);
+                }
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probing) {
+                    rejected++;
+                    throw new OpenException(host);
+                }
+                probing = true;
+                return true;
+            }
+            return false;
+        }
+
+        private void succeeded() {
+            lock.lock();
+            try {
+                consecutiveFailures = 0;
+                limit = Math.min(owner.maxLimit, limit + 1 / limit);
+                if (state == State.HALF_OPEN) {
+                    probing = false;
+                    transition(State.CLOSED);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void failed(Slot slot) {
+            lock.lock();
+            try {
+                if (slot.admittedAfter() == decreases) {
+                    limit = Math.max(1, limit / 2);
+                    decreases++;
+                }
+                consecutiveFailures++;
+                if (state == State.HALF_OPEN
+                        || state == State.CLOSED && consecutiveFailures >= owner.failureThreshold) {
+                    probing = false;
+                    openUntil = owner.clock.getAsLong() + owner.openForNanos;
+                    opened++;
+                    transition(State.OPEN);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release() {
+            lock.lock();
+            try {
+                inFlight--;
+                slotFreed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void transition(State to) {
+            if (state != to) {
+                state = to;
+                RunLog.println("Circuit for " + host + " is now " + to.label);
+                Metrics.counter(RunMetrics.CIRCUIT, "host", host, "state", to.label).increment();
+            }
+        }
+
+        Snapshot snapshot() {
+            lock.lock();
+            try {
+                return new Snapshot(state, limit, inFlight, opened, rejected);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** One admitted attempt: whether it is the half-open probe, and how many decreases preceded it. */
+    private record Slot(boolean probe, long admittedAfter) {
+    }
+
+    /** The host's breaker is open: the attempt was not made. */
+    static class OpenException extends RuntimeException {
+        OpenException(String host) {
+            super("Circuit open for " + host + " after repeated failures; not trying again yet");
+        }
+    }
+}
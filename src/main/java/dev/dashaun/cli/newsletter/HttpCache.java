@@ -0,0 +1,161 @@
+package dev.dashaun.cli.newsletter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * On-disk store of response bodies and their validators ({@code ETag} / {@code Last-Modified}),
+ * so repeated runs can revalidate with a conditional GET and get a body-less {@code 304} back
+ * instead of downloading the same feed again.
+ *
+ * <p>One file per URL, named by the URL's hash. A hit bumps the file's modification time, which is
+ * what eviction orders by: once the directory grows past the size cap the least recently used
+ * entries go first. The directory is meant to be kept between runs (e.g. by a CI cache step).
+ *
+ * <p>The cache is strictly best effort. Any I/O problem is logged and treated as a miss; it must
+ * never be the reason a fetch fails.
+ */
+@Component
+public class HttpCache {
+
+    private static final String SUFFIX = ".entry";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    @Autowired
+    public HttpCache(@Value("${newsletter.http-cache.enabled:true}") boolean enabled,
+                     @Value("${newsletter.http-cache.dir:${user.home}/.cache/newsletter-cli/http}") Path directory,
+                     @Value("${newsletter.http-cache.max-size:100MB}") DataSize maxSize) {
+        this(enabled ? directory : null, maxSize.toBytes());
+    }
+
+    HttpCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /** A cache that never stores anything; every lookup misses. */
+    static HttpCache disabled() {
+        return new HttpCache(null, 0);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /** The stored response for {@code url}, or {@code null} on a miss. */
+    StoredResponse get(String url) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Path file = StoredResponse.fileFor(directory, url, SUFFIX);
+        try {
+            // Entries in an older format are dropped as misses.
+            StoredResponse entry = StoredResponse.decode(Files.readAllBytes(file));
+            if (entry == null) {
+                deleteQuietly(file);
+                return null;
+            }
+            if (!url.equals(entry.url())) {
+                return null;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            RunLog.println("Ignoring unreadable HTTP cache entry for " + url + ": " + e.getMessage());
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a fresh response. Responses without a validator are skipped: there would be no way
+     * to revalidate them, so keeping the body would only cost disk.
+     */
+    void put(String url, HttpHeaders headers, byte[] body) {
+        if (!isEnabled() || body.length > maxBytes
+                || (headers.getETag() == null && headers.getFirst(HttpHeaders.LAST_MODIFIED) == null)) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            AtomicFiles.write(StoredResponse.fileFor(directory, url, SUFFIX),
+                    StoredResponse.of(url, Instant.now(), headers, body).encode(), false);
+            evictIfNeeded();
+        } catch (IOException e) {
+            RunLog.println("Could not cache response for " + url + ": " + e.getMessage());
+        }
+    }
+
+    /** Adds {@code If-None-Match} / {@code If-Modified-Since} for a stored entry, if there is one. */
+    static void addValidators(StoredResponse entry, HttpHeaders requestHeaders) {
+        if (entry == null) {
+            return;
+        }
+        String etag = entry.headers().get(HttpHeaders.ETAG);
+        if (etag != null) {
+            requestHeaders.set(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        String lastModified = entry.headers().get(HttpHeaders.LAST_MODIFIED);
+        if (lastModified != null) {
+            requestHeaders.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    synchronized void evictIfNeeded() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).toList();
+        }
+        record Stored(Path file, long size, FileTime lastUsed) {
+        }
+        List<Stored> entries = new ArrayList<>(files.size());
+        long total = 0;
+        for (Path file : files) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                entries.add(new Stored(file, attributes.size(), attributes.lastModifiedTime()));
+                total += attributes.size();
+            } catch (NoSuchFileException e) {
+                // Replaced or evicted concurrently.
+            }
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparing(Stored::lastUsed));
+        for (Stored entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            deleteQuietly(entry.file());
+            total -= entry.size();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Best effort; a leftover file is at worst re-evicted later.
+        }
+    }
+}
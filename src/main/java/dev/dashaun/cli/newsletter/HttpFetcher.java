@@ -0,0 +1,143 @@
+package dev.dashaun.cli.newsletter;
+
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+
+/**
+ * A GET that revalidates against {@link HttpCache}: it sends the stored validators, turns a
+ * {@code 304} into the stored body, and stores fresh responses that carry a validator.
+ *
+ * <p>Error statuses surface as the same {@code WebClientResponseException}s that
+ * {@code retrieve()} produced, so {@link RetryUtils} classifies failures exactly as before.
+ */
+class HttpFetcher {
+
+    private final WebClient webClient;
+    private final HttpCache cache;
+    private final LastKnownGood lastKnownGood;
+    private final HostGuards hostGuards;
+    private final RetryTelemetry retryTelemetry;
+
+    HttpFetcher(WebClient webClient, HttpCache cache) {
+        this(webClient, cache, LastKnownGood.disabled(), new HostGuards(), new RetryTelemetry());
+    }
+
+    HttpFetcher(WebClient webClient, HttpCache cache, LastKnownGood lastKnownGood, HostGuards hostGuards,
+                RetryTelemetry retryTelemetry) {
+        this.webClient = webClient;
+        this.cache = cache;
+        this.lastKnownGood = lastKnownGood;
+        this.hostGuards = hostGuards;
+        this.retryTelemetry = retryTelemetry;
+    }
+
+    /**
+     * A fetcher outside the Spring context (tests, ad-hoc instances): same client settings,
+     * Reactor Netty's global connection pool, no cache or last-known-good store, and host guards
+     * and retry telemetry of its own.
+     */
+    static HttpFetcher standalone() {
+        return new HttpFetcher(HttpClientConfiguration.webClient(
+                HttpClientConfiguration.configure(HttpClient.create())), HttpCache.disabled());
+    }
+
+    /** Where services keep their last good responses, to fall back on when a fetch fails. */
+    LastKnownGood lastKnownGood() {
+        return lastKnownGood;
+    }
+
+    /** The per-host concurrency limits and circuit breakers that retry loops share. */
+    HostGuards hostGuards() {
+        return hostGuards;
+    }
+
+    /** Where retry loops record their attempts, for the run report. */
+    RetryTelemetry retryTelemetry() {
+        return retryTelemetry;
+    }
+
+    /**
+     * Fetches {@code url}, failing with {@code DataBufferLimitException} if the body is larger than
+     * {@code maxBytes} — the same guard the per-service {@code maxInMemorySize} used to provide.
+     */
+    Mono<Response> get(String url, int maxBytes) {
+        return get(url, maxBytes, HttpHeaders.EMPTY);
+    }
+
+    Mono<Response> get(String url, int maxBytes, HttpHeaders requestHeaders) {
+        // The cache's complaints belong to the command that asked, whichever thread they come from.
+        PrintStream log = RunLog.current();
+        return Mono.defer(() -> {
+            StoredResponse cached = RunLog.call(log, () -> cache.get(url));
+            return webClient.get()
+                    .uri(url)
+                    .headers(headers -> {
+                        requestHeaders.forEach(headers::addAll);
+                        HttpCache.addValidators(cached, headers);
+                    })
+                    .exchangeToMono(response -> handle(response, cached, maxBytes));
+        }).publishOn(Schedulers.boundedElastic()).doOnNext(response -> {
+            RunMetrics.bytes(url, response.body().length, response.notModified());
+            // Off the event loop: storing is a disk write.
+            if (response.storable()) {
+                RunLog.run(log, () -> cache.put(url, response.headers(), response.body()));
+            }
+        });
+    }
+
+    private static Mono<Response> handle(ClientResponse response, StoredResponse cached, int maxBytes) {
+        if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            return response.releaseBody()
+                    .thenReturn(new Response(cached.body(), cached.httpHeaders(), true, false));
+        }
+        if (response.statusCode().isError()) {
+            return response.createError();
+        }
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        boolean storable = response.statusCode().is2xxSuccessful();
+        return DataBufferUtils.join(response.body(BodyExtractors.toDataBuffers()), maxBytes)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .map(bytes -> new Response(bytes, headers, false, storable));
+    }
+
+    /**
+     * A response body and its headers. {@code notModified} is true when the body came from the
+     * cache after a {@code 304}.
+     */
+    record Response(byte[] body, HttpHeaders headers, boolean notModified, boolean storable) {
+
+        /** The body decoded with the charset from {@code Content-Type}, UTF-8 if there is none. */
+        String text() {
+            Charset charset = StandardCharsets.UTF_8;
+            try {
+                MediaType contentType = headers.getContentType();
+                if (contentType != null && contentType.getCharset() != null) {
+                    charset = contentType.getCharset();
+                }
+            } catch (InvalidMediaTypeException | UnsupportedCharsetException e) {
+                // A garbled Content-Type is no reason to drop the body; assume UTF-8.
+            }
+            return new String(body, charset);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package dev.dashaun.cli.newsletter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Many issues in one markdown file, each starting at its {@code # } heading, with the byte range
+ * of every issue kept in a small index file next to it ({@code <archive>.idx}).
+ *
+ * <p>Only the last issue is ever edited. Reading it, or any page of older ones, is a positional
+ * read of just that range, and an update rewrites the file from the current issue's offset
+ * onwards; the years of issues before it are neither read nor written.
+ *
+ * <p>Before the archive is written in place, the bytes about to be overwritten are saved to a
+ * journal next to it ({@code <archive>.journal}), which goes once the index is written too. A run
+ * that dies in between leaves the journal behind, and the next {@link #open} puts those bytes
+ * back: the archive ends up with the old newest issue or the new one, never part of each.
+ *
+ * <p>The index records the archive's size and modification time. If those no longer match (the
+ * archive was edited by hand, or a journal was replayed), the index is rebuilt with one streaming
+ * scan of the archive.
+ */
+final class IssueArchive {
+
+    private static final String INDEX_HEADER = "newsletter-archive-index 1";
+    private static final String JOURNAL_HEADER = "newsletter-archive-journal 1";
+    private static final int SCAN_BUFFER_BYTES = 64 * 1024;
+
+    /** One issue: where it starts in the archive, how many bytes it has, and its heading text. */
+    record Issue(long offset, long length, String heading) {
+    }
+
+    private final Path file;
+    private final Path indexFile;
+    private final Path journalFile;
+    private final boolean fsync;
+    private final List<Issue> issues;
+
+    private IssueArchive(Path file, boolean fsync, List<Issue> issues) {
+        this.file = file;
+        this.indexFile = indexFor(file);
+        this.journalFile = journalFor(file);
+        this.fsync = fsync;
+        this.issues = issues;
+    }
+
+    static Path indexFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    static Path journalFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".journal");
+    }
+
+    /** A file is an archive once it has an index; a plain document becomes one with its first {@link #appendIssue}. */
+    static boolean isArchive(Path file) {
+        return Files.exists(indexFor(file));
+    }
+
+    static IssueArchive open(Path file, boolean fsync) throws IOException {
+        if (!Files.exists(file)) {
+            return new IssueArchive(file, fsync, new ArrayList<>());
+        }
+        recover(file, fsync);
+        List<Issue> issues = readIndex(file);
+        if (issues == null) {
+            IssueArchive archive = new IssueArchive(file, fsync, scan(file));
+            archive.writeIndex();
+            return archive;
+        }
+        return new IssueArchive(file, fsync, issues);
+    }
+
+    List<Issue> issues() {
+        return List.copyOf(issues);
+    }
+
+    /** The text of the last issue, or null if the archive has none yet. */
+    String readCurrentIssue() throws IOException {
+        return issues.isEmpty() ? null : read(issues.getLast());
+    }
+
+    String read(Issue issue) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new String(readAt(channel, issue.offset(), issue.length()), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Issues newest first, {@code pageSize} at a time; {@code page} starts at 1. Only the issues
+     * on the page are read.
+     */
+    List<String> page(int page, int pageSize) throws IOException {
+        List<String> texts = new ArrayList<>();
+        int newest = issues.size() - 1 - (page - 1) * pageSize;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = newest; i > newest - pageSize && i >= 0; i--) {
+                Issue issue = issues.get(i);
+                texts.add(new String(readAt(channel, issue.offset(), issue.length()), StandardCharsets.UTF_8));
+            }
+        }
+        return texts;
+    }
+
+    /** Replaces the last issue with {@code content}, or adds it as the first one to an empty archive. */
+    void replaceCurrentIssue(String content) throws IOException {
+        if (issues.isEmpty()) {
+            appendIssue(content);
+            return;
+        }
+        Issue current = issues.getLast();
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            journal(current.offset(), readAt(channel, current.offset(), channel.size() - current.offset()));
+            writeAt(channel, current.offset(), bytes);
+            channel.truncate(current.offset() + bytes.length);
+            if (fsync) {
+                channel.force(true);
+            }
+        }
+        issues.set(issues.size() - 1, new Issue(current.offset(), bytes.length, headingOf(content, current.heading())));
+        writeIndex();
+        AtomicFiles.delete(journalFile, fsync);
+    }
+
+    /** Adds {@code content} as a new issue at the end of the archive, creating both files if needed. */
+    void appendIssue(String content) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ)) {
+            long end = channel.size();
+            journal(end, new byte[0]);
+            // The previous issue has to end its last line, or the new heading would run into it.
+            if (end > 0 && readAt(channel, end - 1, 1)[0] != '\n') {
+                writeAt(channel, end, new byte[] {'\n'});
+                end++;
+                if (!issues.isEmpty()) {
+                    Issue last = issues.getLast();
+                    issues.set(issues.size() - 1, new Issue(last.offset(), last.length() + 1, last.heading()));
+                }
+            }
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            writeAt(channel, end, bytes);
+            if (fsync) {
+                channel.force(true);
+            }
+            issues.add(new Issue(end, bytes.length, headingOf(content, "")));
+        }
+        writeIndex();
+        AtomicFiles.delete(journalFile, fsync);
+    }
+
+    // Everything from offset to the end of the archive, as it is before a write there. It is on
+    // disk (with fsync, durably) before the archive is touched.
+    private void journal(long offset, byte[] tail) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(tail.length + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(JOURNAL_HEADER);
+            out.writeLong(offset);
+            out.writeInt(tail.length);
+            out.write(tail);
+        }
+        AtomicFiles.write(journalFile, bytes.toByteArray(), fsync);
+    }
+
+    // Undoes a write that did not finish: the journal is only ever complete, since it is
+    // replaced atomically, so its bytes go back as they are and the archive ends where it did.
+    private static void recover(Path file, boolean fsync) throws IOException {
+        Path journal = journalFor(file);
+        if (!Files.exists(journal)) {
+            return;
+        }
+        long offset;
+        byte[] tail;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(journal)))) {
+            if (!in.readUTF().equals(JOURNAL_HEADER)) {
+                throw new IOException("Unrecognized archive journal " + journal + "; restore the archive by hand");
+            }
+            offset = in.readLong();
+            tail = new byte[in.readInt()];
+            in.readFully(tail);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            writeAt(channel, offset, tail);
+            channel.truncate(offset + tail.length);
+            if (fsync) {
+                channel.force(true);
+            }
+        }
+        // The index may describe the half-written archive; the scan that replaces it sees the
+        // restored one.
+        AtomicFiles.delete(indexFor(file), fsync);
+        AtomicFiles.delete(journal, fsync);
+        RunLog.println("Restored " + file + " after an update that did not finish");
+    }
+
+    private static String headingOf(String content, String fallback) {
+        for (String line : content.split("\n", -1)) {
+            if (line.startsWith("# ")) {
+                return line.substring(2).strip();
+            }
+        }
+        return fallback;
+    }
+
+    // The issue boundaries, found by streaming through the archive once: every line that
+    // starts with "# " begins an issue, which runs to the next one or to the end of the file.
+    // Anything before the first heading belongs to no issue, and a "# " line inside a ``` fence
+    // (a shell comment in a code sample, say) is part of the issue around it.
+    static List<Issue> scan(Path file) throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        List<String> headings = new ArrayList<>();
+        long total = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[SCAN_BUFFER_BYTES];
+            long position = 0;
+            int column = 0;
+            boolean hash = false;
+            int backticks = 0;
+            boolean fenced = false;
+            ByteArrayOutputStream heading = null;
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++, position++) {
+                    byte b = buffer[i];
+                    if (b == '\n') {
+                        if (heading != null) {
+                            headings.add(heading.toString(StandardCharsets.UTF_8).strip());
+                            heading = null;
+                        }
+                        column = 0;
+                        backticks = 0;
+                        continue;
+                    }
+                    if (b == '`' && backticks == column) {
+                        backticks++;
+                        if (backticks == 3) {
+                            fenced = !fenced;
+                        }
+                    }
+                    if (heading != null) {
+                        heading.write(b);
+                    } else if (column == 0) {
+                        hash = b == '#' && !fenced;
+                    } else if (column == 1 && hash && b == ' ') {
+                        offsets.add(position - 1);
+                        heading = new ByteArrayOutputStream();
+                    }
+                    column++;
+                }
+            }
+            if (heading != null) {
+                headings.add(heading.toString(StandardCharsets.UTF_8).strip());
+            }
+            total = position;
+        }
+        List<Issue> issues = new ArrayList<>(offsets.size());
+        for (int i = 0; i < offsets.size(); i++) {
+            long end = i + 1 < offsets.size() ? offsets.get(i + 1) : total;
+            issues.add(new Issue(offsets.get(i), end - offsets.get(i), headings.get(i)));
+        }
+        return issues;
+    }
+
+    // Null when there is no index, it is in another format, or it describes a different version
+    // of the archive than the one on disk.
+    private static List<Issue> readIndex(Path file) throws IOException {
+        Path index = indexFor(file);
+        if (!Files.exists(index)) {
+            return null;
+        }
+        List<String> lines = Files.readAllLines(index, StandardCharsets.UTF_8);
+        if (lines.size() < 2 || !lines.get(0).equals(INDEX_HEADER)
+                || !lines.get(1).equals(fingerprint(file))) {
+            return null;
+        }
+        List<Issue> issues = new ArrayList<>(lines.size() - 2);
+        try {
+            for (String line : lines.subList(2, lines.size())) {
+                String[] parts = line.split(" ", 3);
+                issues.add(new Issue(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                        parts.length > 2 ? parts[2] : ""));
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return issues;
+    }
+
+    private void writeIndex() throws IOException {
+        StringBuilder index = new StringBuilder(INDEX_HEADER).append('\n')
+                .append(fingerprint(file)).append('\n');
+        for (Issue issue : issues) {
+            index.append(issue.offset()).append(' ').append(issue.length()).append(' ')
+                    .append(issue.heading()).append('\n');
+        }
+        AtomicFiles.write(indexFile, index.toString().getBytes(StandardCharsets.UTF_8), fsync);
+    }
+
+    private static String fingerprint(Path file) throws IOException {
+        return Files.size(file) + " " + Files.getLastModifiedTime(file).toMillis();
+    }
+
+    private static byte[] readAt(FileChannel channel, long offset, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(length));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Archive ends before the indexed issue does");
+            }
+        }
+        return buffer.array();
+    }
+
+    private static void writeAt(FileChannel channel, long offset, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+    }
+}
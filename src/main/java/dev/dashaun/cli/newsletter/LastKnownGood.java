@@ -0,0 +1,208 @@
+package dev.dashaun.cli.newsletter;
+
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * On-disk store of the last response from each URL that was fetched and parsed successfully,
+ * with when that was. When a fetch fails for good because the server could not be reached (its
+ * retries are spent, the host's circuit is open, or the run is out of time) the stored response is
+ * parsed instead, provided it is no older
+ * than the maximum staleness, and the fallback is recorded so the section can be flagged.
+ *
+ * <p>This is not {@link HttpCache}: that one only saves downloads, evicts, and is never used
+ * without the server's say-so. Entries here are replaced only by a newer good response, and are
+ * used exactly when the server cannot be reached.
+ *
+ * <p>Like the HTTP cache the store is best effort: an entry that cannot be written or read is
+ * logged and treated as missing, and never the reason a fetch fails.
+ */
+@Component
+public class LastKnownGood {
+
+    private static final String SUFFIX = ".lkg";
+
+    private final Path directory;
+    private final Duration maxStaleness;
+    private final Clock clock;
+    private final List<Served> served = new ArrayList<>();
+
+    @Autowired
+    public LastKnownGood(@Value("${newsletter.last-known-good.enabled:true}") boolean enabled,
+                         @Value("${newsletter.last-known-good.dir:${user.home}/.cache/newsletter-cli/last-known-good}") Path directory,
+                         @Value("${newsletter.last-known-good.max-staleness:3d}") Duration maxStaleness) {
+        this(enabled ? directory : null, maxStaleness, Clock.systemUTC());
+    }
+
+    LastKnownGood(Path directory, Duration maxStaleness, Clock clock) {
+        this.directory = directory;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    /** A store that keeps nothing; every failed fetch fails. */
+    static LastKnownGood disabled() {
+        return new LastKnownGood(null, Duration.ZERO, Clock.systemUTC());
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Downloads and parses {@code url}, storing the response once it has parsed; if the download
+     * fails with a retryable error, parses the stored response instead when there is a fresh enough
+     * one. The stored copy is for a server that cannot be reached, not one that answers: a parse
+     * failure of a fresh download, or an error not worth retrying such as a 404, fails as before.
+     *
+     * @param source the section family, as in {@link RunMetrics}, that fallbacks are recorded under
+     */
+    <T> T fetch(String source, String url, Callable<HttpFetcher.Response> download, Parser<T> parser)
+            throws Exception {
+        return fetch(source, url, download, RetryUtils::isRetryableException, parser);
+    }
+
+    /** Like {@link #fetch(String, String, Callable, Parser)}, for a caller whose retry loop retries more. */
+    <T> T fetch(String source, String url, Callable<HttpFetcher.Response> download,
+                Predicate<Exception> retryable, Parser<T> parser) throws Exception {
+        HttpFetcher.Response response;
+        try {
+            response = download.call();
+        } catch (Exception e) {
+            if (!unreachable(e, retryable)) {
+                throw e;
+            }
+            return parser.parse(recall(source, url, e));
+        }
+        T result = parser.parse(response);
+        remember(url, response);
+        return result;
+    }
+
+    /**
+     * The stored response for {@code url}, if it is no older than the maximum staleness.
+     *
+     * @throws Exception {@code failure} when there is none
+     */
+    HttpFetcher.Response recall(String source, String url, Exception failure) throws Exception {
+        StoredResponse copy = read(url);
+        if (copy == null) {
+            Metrics.counter(RunMetrics.LAST_KNOWN_GOOD, "source", source, "outcome", "none").increment();
+            throw failure;
+        }
+        Duration age = Duration.between(copy.storedAt(), clock.instant());
+        if (age.compareTo(maxStaleness) > 0) {
+            Metrics.counter(RunMetrics.LAST_KNOWN_GOOD, "source", source, "outcome", "too-old").increment();
+            RunLog.println("Last known good copy of " + url + " is " + describe(age)
+                    + " old, past the " + describe(maxStaleness) + " limit; not using it");
+            throw failure;
+        }
+        Metrics.counter(RunMetrics.LAST_KNOWN_GOOD, "source", source, "outcome", "served").increment();
+        RunLog.println("Serving " + url + " from its last known good copy (" + describe(age) + " old): "
+                + failure.getMessage());
+        synchronized (served) {
+            served.add(new Served(source, url, age));
+        }
+        return new HttpFetcher.Response(copy.body(), copy.httpHeaders(), true, false);
+    }
+
+    /** Keeps {@code response} as the last good one for {@code url}. */
+    void remember(String url, HttpFetcher.Response response) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            AtomicFiles.write(StoredResponse.fileFor(directory, url, SUFFIX),
+                    StoredResponse.of(url, clock.instant(), response.headers(), response.body()).encode(), false);
+        } catch (IOException e) {
+            RunLog.println("Could not keep last known good copy of " + url + ": " + e.getMessage());
+        }
+    }
+
+    // The retry loop gave up on a failure it would have retried, or never got to try.
+    private static boolean unreachable(Exception failure, Predicate<Exception> retryable) {
+        if (retryable.test(failure) || RunBudget.exhausted(failure)) {
+            return true;
+        }
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof HostGuards.OpenException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /** What was served from the store for {@code source} so far. */
+    List<Served> served(String source) {
+        synchronized (served) {
+            return served.stream().filter(s -> s.source().equals(source)).toList();
+        }
+    }
+
+    void reset() {
+        synchronized (served) {
+            served.clear();
+        }
+    }
+
+    /** "https://spring.io/blog.atom (5h old), ..." */
+    static String describe(List<Served> served) {
+        return served.stream()
+                .map(s -> s.url() + " (" + describe(s.age()) + " old)")
+                .collect(Collectors.joining(", "));
+    }
+
+    static String describe(Duration age) {
+        if (age.toDays() > 0) {
+            return age.toDays() + "d " + age.toHoursPart() + "h";
+        }
+        if (age.toHours() > 0) {
+            return age.toHours() + "h " + age.toMinutesPart() + "m";
+        }
+        return age.toMinutes() + "m";
+    }
+
+    // Null when there is none, including one written in another format.
+    private StoredResponse read(String url) {
+        if (!isEnabled()) {
+            return null;
+        }
+        try {
+            Path file = StoredResponse.fileFor(directory, url, SUFFIX);
+            StoredResponse copy = StoredResponse.decode(Files.readAllBytes(file));
+            return copy != null && url.equals(copy.url()) ? copy : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            RunLog.println("Ignoring unreadable last known good copy of " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** One fetch answered from the store, and how old the answer was. */
+    record Served(String source, String url, Duration age) {
+    }
+
+    @FunctionalInterface
+    interface Parser<T> {
+        T parse(HttpFetcher.Response response) throws Exception;
+    }
+}
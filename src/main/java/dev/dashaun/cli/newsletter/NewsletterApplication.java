@@ -2,11 +2,32 @@ package dev.dashaun.cli.newsletter;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.io.IOException;
+import java.util.List;
 
 @SpringBootApplication
+@ImportRuntimeHints(NewsletterRuntimeHints.class)
 public class NewsletterApplication {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
+		if (args.length > 0 && args[0].equals(CommandDaemon.COMMAND)) {
+			// Started without a command line for the shell to run: commands arrive on the socket.
+			SpringApplication.run(NewsletterApplication.class).getBean(CommandDaemon.class).serve();
+			return;
+		}
+
+		// With a daemon listening, its warm context runs the command and this process never
+		// starts one. Everything else, the shell's built-in commands and command lines that set
+		// Spring properties included, runs here.
+		if (CommandDaemon.runs(List.of(args))) {
+			Integer exitCode = CommandClient.forward(CommandClient.socket(), List.of(args), System.out, System.err);
+			if (exitCode != null) {
+				System.exit(exitCode);
+			}
+		}
+
 		// SpringApplication.exit consults the ExitCodeTracker bean, so a section that failed
 		// every retry surfaces as a non-zero exit instead of a silently incomplete document.
 		System.exit(SpringApplication.exit(SpringApplication.run(NewsletterApplication.class, args)));
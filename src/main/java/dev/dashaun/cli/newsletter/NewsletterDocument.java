@@ -0,0 +1,253 @@
+package dev.dashaun.cli.newsletter;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The newsletter markdown split into its {@code ## } sections, so any number of section updates
+ * can be applied in memory and written back once.
+ *
+ * <p>A section runs from its heading line to the next {@code ## } heading; a heading is never part
+ * of another section's body, however empty that section is. Within a section, the generated list
+ * is the first block of lines after the heading, up to the first blank line. Updates replace (or,
+ * for enterprise releases, prepend to) that block and leave anything below it alone, except in
+ * the demos section, which is generated in full.
+ */
+public class NewsletterDocument {
+
+    static final String NEWS = "## News:";
+    static final String ENTERPRISE_RELEASES = "## Recent Enterprise Releases:";
+    static final String RELEASES_COMING_SOON = "## Releases coming soon:";
+    static final String YOUTUBE = "## YouTube:";
+    static final String DEMOS = "## Demos:";
+
+    // Where a missing section is put back: before the first later one that is present.
+    private static final List<String> TEMPLATE_ORDER =
+            List.of(NEWS, ENTERPRISE_RELEASES, RELEASES_COMING_SOON, YOUTUBE, DEMOS);
+
+    private String preamble;
+    private final List<Section> sections;
+
+    private NewsletterDocument(String preamble, List<Section> sections) {
+        this.preamble = preamble;
+        this.sections = sections;
+    }
+
+    static String template(String dateHeading) {
+        return String.format("""
+                # %s
+
+                ## News:
+
+                ## Recent Enterprise Releases:
+
+                ## Releases coming soon:
+
+                ## YouTube:
+
+                ## Demos:
+
+
+                """, dateHeading);
+    }
+
+    /** Splits {@code content} at every line that starts with {@code ## }, in a single pass. */
+    static NewsletterDocument parse(String content) {
+        List<Section> sections = new ArrayList<>();
+        String preamble = null;
+        int sectionStart = -1;
+        int lineStart = 0;
+        while (lineStart < content.length()) {
+            int lineEnd = content.indexOf('\n', lineStart);
+            int next = lineEnd < 0 ? content.length() : lineEnd + 1;
+            if (content.startsWith("## ", lineStart)) {
+                if (sectionStart < 0) {
+                    preamble = content.substring(0, lineStart);
+                } else {
+                    sections.add(Section.parse(content.substring(sectionStart, lineStart)));
+                }
+                sectionStart = lineStart;
+            }
+            lineStart = next;
+        }
+        if (sectionStart < 0) {
+            preamble = content;
+        } else {
+            sections.add(Section.parse(content.substring(sectionStart)));
+        }
+        return new NewsletterDocument(preamble, sections);
+    }
+
+    String render() {
+        StringBuilder out = new StringBuilder(preamble);
+        for (Section section : sections) {
+            out.append(section.heading).append('\n').append(section.body);
+        }
+        return out.toString();
+    }
+
+    public void updateNews(List<RssService.NewsItem> newsItems) {
+        StringBuilder block = new StringBuilder();
+        for (RssService.NewsItem item : newsItems) {
+            block.append(item.toString()).append("\n");
+        }
+        orInsert(NEWS).replaceFirstBlock(block.toString());
+    }
+
+    /** Adds releases, grouped under their date, above the ones already listed. */
+    public void addEnterpriseReleases(List<CalendarService.ReleaseEvent> releases) {
+        StringBuilder block = new StringBuilder();
+        // Group releases by date, maintaining chronological order
+        releases.stream()
+                .collect(Collectors.groupingBy(
+                        r -> r.getReleaseDate().format(DateTimeFormatter.ofPattern("MMMM d")),
+                        LinkedHashMap::new,
+                        Collectors.toList()))
+                .forEach((date, releaseList) -> {
+                    block.append("- ").append(date).append("\n");
+                    releaseList.forEach(release ->
+                            block.append("  - ").append(release.getFormattedRelease()).append("\n"));
+                });
+        orInsert(ENTERPRISE_RELEASES).prependToFirstBlock(block.toString());
+    }
+
+    /** Replaces the upcoming releases; a document without that section is left as it is. */
+    public void updateReleasesComingSoon(List<CalendarService.ReleaseEvent> upcomingReleases) {
+        Section section = find(RELEASES_COMING_SOON);
+        if (section == null) {
+            return;
+        }
+        StringBuilder block = new StringBuilder();
+        upcomingReleases.forEach(release ->
+                block.append("- ")
+                        .append(release.getFormattedRelease())
+                        .append(" (")
+                        .append(release.getReleaseDate().format(DateTimeFormatter.ofPattern("MMM d")))
+                        .append(")\n"));
+        section.replaceFirstBlock(block.toString());
+    }
+
+    public void updateYouTube(List<YouTubeService.YouTubeVideo> videos) {
+        StringBuilder block = new StringBuilder();
+        for (YouTubeService.YouTubeVideo video : videos) {
+            block.append(video.toString()).append("\n");
+        }
+        orInsert(YOUTUBE).replaceFirstBlock(block.toString());
+    }
+
+    /** Replaces the whole demos section; a document without one is left as it is. */
+    public void updateDemo(String demoDescription) {
+        Section section = find(DEMOS);
+        if (section != null) {
+            section.body = "\n" + demoDescription + "\n\n";
+        }
+    }
+
+    /** Replaces the whole demos section; a document without one is left as it is. */
+    public void updateGitHubDemos(List<GitHubService.DemoRepository> demoRepos) {
+        Section section = find(DEMOS);
+        if (section == null) {
+            return;
+        }
+        StringBuilder body = new StringBuilder();
+        if (!demoRepos.isEmpty()) {
+            body.append("\n");
+            for (GitHubService.DemoRepository repo : demoRepos) {
+                body.append(repo.toString()).append("\n");
+            }
+            body.append("\n");
+        } else {
+            body.append("\nNo demo repositories found.\n\n");
+        }
+        section.body = body.toString();
+    }
+
+    private Section find(String heading) {
+        for (Section section : sections) {
+            if (section.heading.stripTrailing().equals(heading)) {
+                return section;
+            }
+        }
+        return null;
+    }
+
+    private Section orInsert(String heading) {
+        Section existing = find(heading);
+        if (existing != null) {
+            return existing;
+        }
+        int index = sections.size();
+        List<String> later = TEMPLATE_ORDER.subList(TEMPLATE_ORDER.indexOf(heading) + 1, TEMPLATE_ORDER.size());
+        for (int i = 0; i < sections.size(); i++) {
+            if (later.contains(sections.get(i).heading.stripTrailing())) {
+                index = i;
+                break;
+            }
+        }
+        // Whatever comes before the new heading has to end in a blank line.
+        if (index == 0) {
+            preamble = withBlankLine(preamble);
+        } else {
+            Section previous = sections.get(index - 1);
+            previous.body = withBlankLine(previous.body);
+        }
+        Section section = new Section(heading, "\n");
+        sections.add(index, section);
+        return section;
+    }
+
+    private static String withBlankLine(String text) {
+        if (text.isEmpty() || text.endsWith("\n\n")) {
+            return text;
+        }
+        return text.endsWith("\n") ? text + "\n" : text + "\n\n";
+    }
+
+    private static final class Section {
+
+        // The heading line without its line break, and everything after it up to the next heading.
+        private final String heading;
+        private String body;
+
+        private Section(String heading, String body) {
+            this.heading = heading;
+            this.body = body;
+        }
+
+        static Section parse(String text) {
+            int lineEnd = text.indexOf('\n');
+            return lineEnd < 0 ? new Section(text, "") : new Section(text.substring(0, lineEnd), text.substring(lineEnd + 1));
+        }
+
+        void replaceFirstBlock(String block) {
+            splice(block, false);
+        }
+
+        void prependToFirstBlock(String block) {
+            splice(block, true);
+        }
+
+        private void splice(String block, boolean keepExisting) {
+            // Blank lines right after the heading stay where they are.
+            int start = 0;
+            for (int i = 0; i < body.length() && Character.isWhitespace(body.charAt(i)); i++) {
+                if (body.charAt(i) == '\n') {
+                    start = i + 1;
+                }
+            }
+            // The block ends at the first blank line, or at the section's last line break.
+            int end = body.indexOf("\n\n", start);
+            if (end < 0) {
+                end = body.endsWith("\n") && body.length() > start ? body.length() - 1 : body.length();
+            }
+            String after = body.substring(end);
+            if (after.isEmpty()) {
+                after = "\n";
+            }
+            body = body.substring(0, start) + block + (keepExisting ? body.substring(start, end) : "") + after;
+        }
+    }
+}
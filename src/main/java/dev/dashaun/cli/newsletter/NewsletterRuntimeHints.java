@@ -0,0 +1,74 @@
+package dev.dashaun.cli.newsletter;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * What the native image needs beyond what Spring's AOT processing finds by itself.
+ *
+ * <p>ROME creates its parsers, generators and converters by class name from
+ * {@code rome.properties}, so every class listed there is registered (read from the jar at build
+ * time, so a ROME upgrade needs no change here). ical4j reads its configuration and timezone
+ * definitions as resources, and the StAX lookup in {@link FeedParser} finds Woodstox through a
+ * service file. Jackson is only used as a streaming parser and Reactor Netty ships its own
+ * metadata, so neither needs anything here.
+ */
+class NewsletterRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final String ROME_PROPERTIES = "com/rometools/rome/rome.properties";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+                .registerPattern(ROME_PROPERTIES)
+                .registerPattern("rome.properties")
+                .registerPattern("ical4j.properties")
+                .registerPattern("net/fortuna/ical4j/**")
+                .registerPattern("zoneinfo/**")
+                .registerPattern("zoneinfo-outlook/**")
+                .registerPattern("zoneinfo-global/**")
+                .registerPattern("META-INF/services/javax.xml.stream.XMLInputFactory");
+
+        for (String className : romeClasses(classLoader)) {
+            hints.reflection().registerTypeIfPresent(classLoader, className, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.reflection().registerTypeIfPresent(classLoader, "com.ctc.wstx.stax.WstxInputFactory",
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Spring Shell and CommandDaemon call the command methods reflectively.
+        hints.reflection().registerType(DocumentCommands.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+
+    // Every class named under a "*.classes" key; the values are whitespace-separated class names.
+    static List<String> romeClasses(ClassLoader classLoader) {
+        ClassLoader loader = classLoader != null ? classLoader : NewsletterRuntimeHints.class.getClassLoader();
+        Properties properties = new Properties();
+        try (InputStream in = loader.getResourceAsStream(ROME_PROPERTIES)) {
+            if (in == null) {
+                return List.of();
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + ROME_PROPERTIES, e);
+        }
+        List<String> classes = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(".classes")) {
+                for (String className : properties.getProperty(key).trim().split("\\s+")) {
+                    if (!className.isEmpty()) {
+                        classes.add(className);
+                    }
+                }
+            }
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,233 @@
+package dev.dashaun.cli.newsletter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decides whether a calendar summary is a release and pulls out its project and version, with
+ * the same results as the regular expressions it replaces.
+ *
+ * <p>The summary is scanned once for the keywords and for a version; the project name is the run
+ * of letters and spaces in front of the first version, found by walking the summary rather than
+ * by retrying a lazy regex at every offset. Results are remembered per summary, up to
+ * {@code capacity} of them, since a calendar lists the same summaries over and over.
+ */
+final class ReleaseSummaryClassifier {
+
+    /** Project and version of a summary that is a release. */
+    record Release(String projectName, String version) {
+    }
+
+    // Only reached when neither "Name 1.2" nor "Name v1.2" yields a non-empty name.
+    private static final Pattern RELEASE_PREFIXED = Pattern.compile(
+            "(?i)release\\s+([A-Za-z\\s]+?)\\s+(\\d+\\.\\d+(?:\\.\\d+)?(?:-[A-Z0-9]+)?)");
+
+    private final int capacity;
+    private final Map<String, Optional<Release>> memo;
+
+    ReleaseSummaryClassifier(int capacity) {
+        this.capacity = capacity;
+        this.memo = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<Release>> eldest) {
+                return size() > ReleaseSummaryClassifier.this.capacity;
+            }
+        };
+    }
+
+    /** The release in {@code summary}, or null if it is not one (or has no project and version). */
+    Release classify(String summary) {
+        if (capacity <= 0) {
+            return compute(summary);
+        }
+        synchronized (memo) {
+            Optional<Release> known = memo.get(summary);
+            if (known != null) {
+                return known.orElse(null);
+            }
+        }
+        Release release = compute(summary);
+        synchronized (memo) {
+            memo.put(summary, Optional.ofNullable(release));
+        }
+        return release;
+    }
+
+    static Release compute(String summary) {
+        return isRelease(summary) ? extract(summary) : null;
+    }
+
+    // Mentions "release" or "spring", or carries a version; and is not a meeting or planning.
+    static boolean isRelease(String summary) {
+        boolean candidate = false;
+        for (int i = 0; i < summary.length(); i++) {
+            char c = summary.charAt(i);
+            switch (c | 0x20) {
+                case 'r' -> candidate |= startsWithIgnoreCase(summary, i, "release");
+                case 's' -> candidate |= startsWithIgnoreCase(summary, i, "spring");
+                case 'm' -> {
+                    if (startsWithIgnoreCase(summary, i, "meeting")) {
+                        return false;
+                    }
+                }
+                case 'p' -> {
+                    if (startsWithIgnoreCase(summary, i, "planning")) {
+                        return false;
+                    }
+                }
+                default -> candidate |= c == '.' && i > 0 && isDigit(summary.charAt(i - 1))
+                        && i + 1 < summary.length() && isDigit(summary.charAt(i + 1));
+            }
+        }
+        return candidate;
+    }
+
+    static Release extract(String summary) {
+        Release release = nameBeforeVersion(summary, false);
+        if (release == null) {
+            release = nameBeforeVersion(summary, true);
+        }
+        if (release == null) {
+            Matcher matcher = RELEASE_PREFIXED.matcher(summary);
+            if (matcher.find()) {
+                release = release(matcher.group(1), matcher.group(2));
+            }
+        }
+        return release;
+    }
+
+    // The first run of letters and whitespace that ends in whitespace followed by a version
+    // (with allowV, optionally written "v1.2"). Later runs only count if the first such run
+    // gives no usable name, exactly as a single Matcher.find() would have it.
+    private static Release nameBeforeVersion(String summary, boolean allowV) {
+        int length = summary.length();
+        int i = 0;
+        while (i < length) {
+            if (!isNameChar(summary.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isNameChar(summary.charAt(i))) {
+                i++;
+            }
+            // [start, i) is a maximal run; a version can only start right after it.
+            int nameEnd = i;
+            if (allowV && nameEnd - start >= 3 && (summary.charAt(nameEnd - 1) | 0x20) == 'v'
+                    && isWhitespace(summary.charAt(nameEnd - 2))) {
+                nameEnd--;
+            }
+            if (nameEnd - start >= 2 && isWhitespace(summary.charAt(nameEnd - 1))) {
+                int versionEnd = versionEnd(summary, i);
+                if (versionEnd > 0) {
+                    return release(summary.substring(start, nameEnd), summary.substring(i, versionEnd));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Release release(String rawName, String rawVersion) {
+        String name = cleanProjectName(rawName.trim());
+        String version = rawVersion.trim();
+        return name.isEmpty() || version.isEmpty() ? null : new Release(name, version);
+    }
+
+    // \d+\.\d+(\.\d+)?(-[A-Za-z0-9]+)? at from; the end offset, or -1 if there is none.
+    private static int versionEnd(String s, int from) {
+        int i = digits(s, from);
+        if (i == from || i >= s.length() || s.charAt(i) != '.') {
+            return -1;
+        }
+        int end = digits(s, i + 1);
+        if (end == i + 1) {
+            return -1;
+        }
+        if (end < s.length() && s.charAt(end) == '.') {
+            int patch = digits(s, end + 1);
+            if (patch > end + 1) {
+                end = patch;
+            }
+        }
+        if (end < s.length() && s.charAt(end) == '-') {
+            int qualifier = end + 1;
+            while (qualifier < s.length() && (isDigit(s.charAt(qualifier)) || isLetter(s.charAt(qualifier)))) {
+                qualifier++;
+            }
+            if (qualifier > end + 1) {
+                end = qualifier;
+            }
+        }
+        return end;
+    }
+
+    // Drops one leading "release"/"spring" and one trailing "release"/"rc"/"ga"/"final".
+    static String cleanProjectName(String name) {
+        for (String prefix : new String[] {"release", "spring"}) {
+            if (startsWithIgnoreCase(name, 0, prefix) && name.length() > prefix.length()
+                    && isWhitespace(name.charAt(prefix.length()))) {
+                int rest = prefix.length();
+                while (rest < name.length() && isWhitespace(name.charAt(rest))) {
+                    rest++;
+                }
+                name = name.substring(rest);
+                break;
+            }
+        }
+        for (String suffix : new String[] {"release", "rc", "ga", "final"}) {
+            int wordStart = name.length() - suffix.length();
+            if (wordStart > 0 && startsWithIgnoreCase(name, wordStart, suffix)
+                    && isWhitespace(name.charAt(wordStart - 1))) {
+                int cut = wordStart - 1;
+                while (cut > 0 && isWhitespace(name.charAt(cut - 1))) {
+                    cut--;
+                }
+                name = name.substring(0, cut);
+                break;
+            }
+        }
+        return name.trim();
+    }
+
+    private static int digits(String s, int from) {
+        int i = from;
+        while (i < s.length() && isDigit(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // ASCII-only, like the (?i) flag without UNICODE_CASE.
+    private static boolean startsWithIgnoreCase(String s, int offset, String lowerWord) {
+        if (offset + lowerWord.length() > s.length()) {
+            return false;
+        }
+        for (int j = 0; j < lowerWord.length(); j++) {
+            char c = s.charAt(offset + j);
+            if (!isLetter(c) || (c | 0x20) != lowerWord.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameChar(char c) {
+        return isLetter(c) || isWhitespace(c);
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // What \s matches without UNICODE_CHARACTER_CLASS.
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,189 @@
+package dev.dashaun.cli.newsletter;
+
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second, identical request when the first has been out for longer than most requests
+ * take, and uses whichever response arrives first; the other request is cancelled.
+ *
+ * <p>"Longer than most" is the {@code percentile} of how long the last {@value #WINDOW} successful
+ * calls took, from the first request to the response that was used, hedge or not; until
+ * {@value #MIN_SAMPLES} have been seen, {@code initialDelay} stands in for it.
+ * Hedges are capped at {@code maxRate} of the requests made, plus one, so a slow host cannot make
+ * us double our traffic to it.
+ *
+ * <p>Hedging is for the slow tail only. A first request that fails before the hedge is due fails
+ * the call as it would have without hedging, and the caller's retry loop decides what happens
+ * next; once both are out, the call fails only if both do.
+ */
+final class RequestHedger {
+
+    static final int WINDOW = 100;
+    static final int MIN_SAMPLES = 5;
+
+    private static final RequestHedger DISABLED = new RequestHedger(false, 0.9, 0, Duration.ZERO);
+
+    private final boolean enabled;
+    private final double percentile;
+    private final double maxRate;
+    private final Duration initialDelay;
+
+    private final long[] latencies = new long[WINDOW];
+    private int samples;
+    private long requests;
+    private long hedges;
+
+    RequestHedger(boolean enabled, double percentile, double maxRate, Duration initialDelay) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1, was " + percentile);
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.maxRate = maxRate;
+        this.initialDelay = initialDelay;
+    }
+
+    static RequestHedger disabled() {
+        return DISABLED;
+    }
+
+    /** {@code request}, hedged once it has been out longer than {@link #delay()}. */
+    <T> Mono<T> hedge(Supplier<Mono<T>> request) {
+        if (!enabled) {
+            return request.get();
+        }
+        // The hedge goes out from a timer thread, still on behalf of the caller's command.
+        PrintStream log = RunLog.current();
+        return Mono.create(sink -> new Race<>(sink, () -> RunLog.call(log, request)).start(delay()));
+    }
+
+    /** How long a request may be out before it is hedged. */
+    synchronized Duration delay() {
+        if (samples < MIN_SAMPLES) {
+            return initialDelay;
+        }
+        int count = Math.min(samples, WINDOW);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, index)]);
+    }
+
+    private synchronized void record(long nanos) {
+        latencies[samples % WINDOW] = nanos;
+        samples++;
+    }
+
+    private synchronized void requested() {
+        requests++;
+    }
+
+    // One more request may be a hedge while hedges stay within maxRate of all requests.
+    private synchronized boolean tryHedge() {
+        if (hedges + 1 > maxRate * requests + 1) {
+            return false;
+        }
+        hedges++;
+        return true;
+    }
+
+    synchronized long hedges() {
+        return hedges;
+    }
+
+    /** The first request, the hedge if it is sent, and which of them settles the call. */
+    private final class Race<T> {
+
+        private final MonoSink<T> sink;
+        private final Supplier<Mono<T>> request;
+        private final Disposable.Composite inFlight = Disposables.composite();
+        private long started;
+        private int pending;
+        private boolean settled;
+
+        private Race(MonoSink<T> sink, Supplier<Mono<T>> request) {
+            this.sink = sink;
+            this.request = request;
+            sink.onDispose(inFlight);
+        }
+
+        void start(Duration delay) {
+            synchronized (this) {
+                started = System.nanoTime();
+                pending++;
+            }
+            send(false);
+            inFlight.add(Schedulers.parallel().schedule(this::sendHedge, delay.toNanos(), TimeUnit.NANOSECONDS));
+        }
+
+        private void sendHedge() {
+            boolean allowed;
+            // Checked and counted together, so a race that fails meanwhile is not hedged, nor
+            // charged against the hedge budget.
+            synchronized (this) {
+                if (settled) {
+                    return;
+                }
+                allowed = tryHedge();
+                if (allowed) {
+                    pending++;
+                }
+            }
+            if (!allowed) {
+                Metrics.counter(RunMetrics.HEDGES, "outcome", "capped").increment();
+                return;
+            }
+            Metrics.counter(RunMetrics.HEDGES, "outcome", "sent").increment();
+            send(true);
+        }
+
+        // The caller has counted the request as pending.
+        private void send(boolean hedge) {
+            requested();
+            inFlight.add(request.get().subscribe(
+                    value -> won(value, hedge),
+                    this::failed,
+                    () -> failed(new IllegalStateException("Request completed without a response"))));
+        }
+
+        private void won(T value, boolean hedge) {
+            long nanos;
+            synchronized (this) {
+                if (settled) {
+                    return;
+                }
+                settled = true;
+                nanos = System.nanoTime() - started;
+            }
+            record(nanos);
+            if (hedge) {
+                Metrics.counter(RunMetrics.HEDGES, "outcome", "won").increment();
+            }
+            sink.success(value);
+            // Cancels the other request, and the hedge timer if it has not fired.
+            inFlight.dispose();
+        }
+
+        private void failed(Throwable error) {
+            synchronized (this) {
+                if (settled || --pending > 0) {
+                    return;
+                }
+                settled = true;
+            }
+            sink.error(error);
+            inFlight.dispose();
+        }
+    }
+}
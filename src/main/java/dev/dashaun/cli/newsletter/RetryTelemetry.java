@@ -0,0 +1,271 @@
+package dev.dashaun.cli.newsletter;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * What every {@link RetryUtils} loop did: one event per failed attempt (retried or not) and per
+ * success that needed a retry, and the same events summed up per host. This is the evidence for
+ * tuning attempt budgets and backoffs — how often a host's 404s clear up on the second attempt,
+ * how much of a run went into waiting, and how often the server's {@code Retry-After} set the wait
+ * rather than our own jittered backoff.
+ *
+ * <p>The context has one, which the services hand to {@link RetryUtils} from their
+ * {@link HttpFetcher} and {@link RunReport} reads. The newest {@value #MAX_EVENTS} events are kept; the per-host totals count all of them. Each
+ * event is also recorded on the {@link RunMetrics#RETRIES} and {@link RunMetrics#RETRY_WAIT}
+ * meters.
+ */
+@Component
+final class RetryTelemetry {
+
+    static final int MAX_EVENTS = 1000;
+
+    enum Outcome {
+        /** The attempt failed and another one follows after {@link Event#delay()}. */
+        RETRIED("retried"),
+        /** The attempt succeeded after earlier ones failed. */
+        RECOVERED("recovered"),
+        /** The attempt failed and it was the last one allowed. */
+        EXHAUSTED("exhausted"),
+        /** The attempt failed with an error not worth retrying. */
+        NOT_RETRYABLE("not-retryable"),
+        /** The attempt failed and the run budget had no time left for another one. */
+        OUT_OF_BUDGET("out-of-budget"),
+        /** The host's circuit breaker was open, so the attempt was not made. */
+        CIRCUIT_OPEN("circuit-open");
+
+        final String label;
+
+        Outcome(String label) {
+            this.label = label;
+        }
+    }
+
+    enum WaitReason {
+        /** The server said how long to wait. */
+        RETRY_AFTER("retry-after"),
+        /** Our own exponential backoff, jittered. */
+        BACKOFF("backoff"),
+        /** No wait: the loop ended. */
+        NONE("none");
+
+        final String label;
+
+        WaitReason(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * One attempt. {@code status} is the HTTP status of the failure, 0 when there was none (a
+     * timeout, a refused connection, or a success); {@code exception} is null for a success.
+     */
+    record Event(Instant at, String host, int attempt, Outcome outcome, String exception, int status,
+                 Duration delay, WaitReason reason) {
+    }
+
+    /** The events for one host, summed. */
+    record HostSummary(long retried, long recovered, long exhausted, long notRetryable, long outOfBudget, long circuitOpen,
+                       long retryAfterWaits, long backoffWaits, Duration totalWait,
+                       Map<Integer, Long> statuses, Map<String, Long> exceptions,
+                       Map<Integer, Long> recoveredOnAttempt) {
+    }
+
+    private final Deque<Event> events = new ArrayDeque<>();
+    private final Map<String, HostTotals> hosts = new TreeMap<>();
+    private long droppedEvents;
+    private final boolean enabled;
+
+    RetryTelemetry() {
+        this(true);
+    }
+
+    private RetryTelemetry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** Telemetry that records nothing, for retry loops nobody reports on. */
+    static RetryTelemetry disabled() {
+        return new RetryTelemetry(false);
+    }
+
+    void retrying(String url, int attempt, Exception failure, Duration wait, boolean retryAfter) {
+        record(url, attempt, Outcome.RETRIED, failure, wait, retryAfter ? WaitReason.RETRY_AFTER : WaitReason.BACKOFF);
+    }
+
+    void recovered(String url, int attempt) {
+        record(url, attempt, Outcome.RECOVERED, null, Duration.ZERO, WaitReason.NONE);
+    }
+
+    void gaveUp(String url, int attempt, Throwable failure, Outcome outcome) {
+        record(url, attempt, outcome, failure, Duration.ZERO, WaitReason.NONE);
+    }
+
+    private void record(String url, int attempt, Outcome outcome, Throwable failure, Duration delay, WaitReason reason) {
+        if (!enabled) {
+            return;
+        }
+        String host = url != null ? RunMetrics.host(url) : host(failure);
+        String exception = failure != null ? exceptionName(failure) : null;
+        int status = failure != null ? status(failure) : 0;
+        Event event = new Event(Instant.now(), host, attempt, outcome, exception, status, delay, reason);
+
+        synchronized (this) {
+            if (events.size() == MAX_EVENTS) {
+                events.removeFirst();
+                droppedEvents++;
+            }
+            events.addLast(event);
+            hosts.computeIfAbsent(host, k -> new HostTotals()).add(event);
+        }
+
+        if (outcome == Outcome.RETRIED) {
+            Metrics.counter(RunMetrics.RETRIES, "host", host, "exception", exception,
+                    "status", status == 0 ? "none" : Integer.toString(status)).increment();
+            Timer.builder(RunMetrics.RETRY_WAIT).tag("host", host).tag("reason", reason.label)
+                    .register(Metrics.globalRegistry)
+                    .record(delay);
+        } else if (outcome != Outcome.RECOVERED) {
+            Metrics.counter(RunMetrics.RETRY_GIVE_UP, "host", host, "outcome", outcome.label).increment();
+        }
+    }
+
+    /** The kept events, oldest first. */
+    synchronized List<Event> events() {
+        return List.copyOf(events);
+    }
+
+    /** How many events were dropped to keep the newest {@value #MAX_EVENTS}. */
+    synchronized long droppedEvents() {
+        return droppedEvents;
+    }
+
+    synchronized Map<String, HostSummary> byHost() {
+        Map<String, HostSummary> summaries = new TreeMap<>();
+        hosts.forEach((host, totals) -> summaries.put(host, totals.summary()));
+        return summaries;
+    }
+
+    synchronized void reset() {
+        events.clear();
+        hosts.clear();
+        droppedEvents = 0;
+    }
+
+    private static final class HostTotals {
+        long retried;
+        long recovered;
+        long exhausted;
+        long notRetryable;
+        long outOfBudget;
+        long circuitOpen;
+        long retryAfterWaits;
+        long backoffWaits;
+        Duration totalWait = Duration.ZERO;
+        final Map<Integer, Long> statuses = new TreeMap<>();
+        final Map<String, Long> exceptions = new TreeMap<>();
+        final Map<Integer, Long> recoveredOnAttempt = new TreeMap<>();
+
+        void add(Event event) {
+            switch (event.outcome()) {
+                case RETRIED -> {
+                    retried++;
+                    totalWait = totalWait.plus(event.delay());
+                    if (event.reason() == WaitReason.RETRY_AFTER) {
+                        retryAfterWaits++;
+                    } else {
+                        backoffWaits++;
+                    }
+                }
+                case RECOVERED -> {
+                    recovered++;
+                    recoveredOnAttempt.merge(event.attempt(), 1L, Long::sum);
+                }
+                case EXHAUSTED -> exhausted++;
+                case NOT_RETRYABLE -> notRetryable++;
+                case OUT_OF_BUDGET -> outOfBudget++;
+                case CIRCUIT_OPEN -> circuitOpen++;
+            }
+            if (event.status() != 0) {
+                statuses.merge(event.status(), 1L, Long::sum);
+            }
+            if (event.exception() != null) {
+                exceptions.merge(event.exception(), 1L, Long::sum);
+            }
+        }
+
+        HostSummary summary() {
+            return new HostSummary(retried, recovered, exhausted, notRetryable, outOfBudget, circuitOpen,
+                    retryAfterWaits, backoffWaits,
+                    totalWait, sorted(statuses), sorted(exceptions), sorted(recoveredOnAttempt));
+        }
+
+        private static <K> Map<K, Long> sorted(Map<K, Long> counts) {
+            return Collections.unmodifiableMap(new TreeMap<>(counts));
+        }
+    }
+
+    // The exception that decided the retry, as RetryUtils.isRetryableException walks the chain:
+    // what block() or a service wrapped around it says nothing about the failure.
+    static String exceptionName(Throwable failure) {
+        Throwable decisive = failure;
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof WebClientResponseException || t instanceof WebClientRequestException
+                    || t instanceof TimeoutException || t instanceof IOException) {
+                decisive = t;
+                break;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        String name = decisive.getClass().getName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    static int status(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof WebClientResponseException wcre) {
+                return wcre.getStatusCode().value();
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return 0;
+    }
+
+    // For callers that did not say which URL they were fetching: the failure usually knows.
+    static String host(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            URI uri = null;
+            if (t instanceof WebClientResponseException wcre && wcre.getRequest() != null) {
+                uri = wcre.getRequest().getURI();
+            } else if (t instanceof WebClientRequestException wcre) {
+                uri = wcre.getUri();
+            }
+            if (uri != null && uri.getHost() != null) {
+                return uri.getHost();
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return "unknown";
+    }
+}
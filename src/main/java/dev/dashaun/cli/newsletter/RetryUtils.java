@@ -2,6 +2,8 @@ package dev.dashaun.cli.newsletter;
 
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.io.IOException;
 import java.time.Duration;
@@ -26,28 +28,73 @@ public class RetryUtils {
 
     public static <T> T executeWithRetry(Callable<T> operation, int maxAttempts, Duration initialBackoff,
                                          Predicate<Exception> retryPredicate) {
+        return executeWithRetry(null, RetryTelemetry.disabled(), null, operation, maxAttempts, initialBackoff,
+                retryPredicate);
+    }
+
+    /**
+     * Like {@link #executeWithRetry(Callable, int, Duration)}, with {@code url} naming the host
+     * the attempts are reported under in {@code telemetry}. Without it the host is taken from the
+     * failure, which a timeout does not carry.
+     *
+     * <p>With a URL, every attempt also goes through the host's guard in {@code guards}: it waits
+     * for a slot under the host's concurrency limit, and the loop gives up at once when the
+     * host's circuit breaker is open.
+     */
+    public static <T> T executeWithRetry(HostGuards guards, RetryTelemetry telemetry, String url,
+                                         Callable<T> operation, int maxAttempts, Duration initialBackoff) {
+        return executeWithRetry(guards, telemetry, url, operation, maxAttempts, initialBackoff,
+                RetryUtils::isRetryableException);
+    }
+
+    public static <T> T executeWithRetry(HostGuards guards, RetryTelemetry telemetry, String url,
+                                         Callable<T> operation, int maxAttempts, Duration initialBackoff,
+                                         Predicate<Exception> retryPredicate) {
         Exception lastException = null;
         Duration backoff = cap(initialBackoff);
+        RunBudget.Share budget = RunBudget.current();
+        HostGuards.Guard guard = guards != null ? guards.forUrl(url) : HostGuards.UNGUARDED;
 
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
             try {
-                return operation.call();
+                T result = guard.call(operation, retryPredicate, budget);
+                if (attempt > 1) {
+                    telemetry.recovered(url, attempt);
+                }
+                return result;
             } catch (Exception e) {
                 lastException = e;
 
-                if (attempt >= maxAttempts || !retryPredicate.test(e)) {
+                if (e instanceof HostGuards.OpenException) {
+                    // The host has been failing for everyone; this loop's remaining attempts would too.
+                    telemetry.gaveUp(url, attempt, e, RetryTelemetry.Outcome.CIRCUIT_OPEN);
+                    throw new RuntimeException("Operation failed fast after " + (attempt - 1) + " attempts: "
+                            + describe(e), e);
+                }
+                boolean retryable = retryPredicate.test(e);
+                if (RunBudget.exhausted(e)) {
+                    telemetry.gaveUp(url, attempt, e, RetryTelemetry.Outcome.OUT_OF_BUDGET);
+                    throw new RunBudget.ExhaustedException("Out of run budget after " + attempt + " attempts: "
+                            + describe(e), e);
+                }
+                if (attempt >= maxAttempts || !retryable) {
+                    telemetry.gaveUp(url, attempt, e, retryable
+                            ? RetryTelemetry.Outcome.EXHAUSTED : RetryTelemetry.Outcome.NOT_RETRYABLE);
                     throw new RuntimeException("Operation failed after " + attempt + " attempts: "
                             + describe(e), e);
                 }
 
-                // An explicit Retry-After from the server beats our guess.
-                Duration wait = retryAfter(e);
-                if (wait == null) {
-                    wait = applyJitter(backoff);
+                Duration wait = nextWait(e, backoff);
+                // Waiting past the deadline only to have no time for the attempt helps nobody.
+                if (!budget.allows(wait)) {
+                    telemetry.gaveUp(url, attempt, e, RetryTelemetry.Outcome.OUT_OF_BUDGET);
+                    throw new RunBudget.ExhaustedException("Out of run budget after " + attempt + " attempts: "
+                            + describe(e), e);
                 }
+                telemetry.retrying(url, attempt, e, wait, retryAfter(e) != null);
 
                 try {
-                    Thread.sleep(cap(wait).toMillis());
+                    Thread.sleep(wait.toMillis());
                     backoff = cap(backoff.multipliedBy(2));
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
@@ -59,6 +106,70 @@ public class RetryUtils {
         throw new RuntimeException("Operation failed: " + describe(lastException), lastException);
     }
 
+    public static Retry retrySpec(int maxAttempts, Duration initialBackoff) {
+        return retrySpec(maxAttempts, initialBackoff, RetryUtils::isRetryableException);
+    }
+
+    public static Retry retrySpec(int maxAttempts, Duration initialBackoff, Predicate<Exception> retryPredicate) {
+        return retrySpec(RetryTelemetry.disabled(), maxAttempts, initialBackoff, retryPredicate);
+    }
+
+    /**
+     * The non-blocking counterpart of {@link #executeWithRetry}: same attempt budget, retry
+     * classification, {@code Retry-After} handling, jitter and cap, and the same exception once
+     * the attempts run out. Waiting happens on a Reactor timer rather than a sleeping thread.
+     *
+     * <p>Use it as {@code mono.retryWhen(RetryUtils.retrySpec(...))}. Each retry resubscribes
+     * the source, so per-attempt work belongs inside the {@code Mono} (a {@code WebClient}
+     * request already is; anything else can be wrapped in {@code Mono.defer}).
+     *
+     * <p>The run budget is the one current where the spec is created, since the retries
+     * themselves happen on Reactor's threads.
+     */
+    public static Retry retrySpec(RetryTelemetry telemetry, int maxAttempts, Duration initialBackoff,
+                                  Predicate<Exception> retryPredicate) {
+        Duration firstBackoff = cap(initialBackoff);
+        RunBudget.Share budget = RunBudget.current();
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable failure = signal.failure();
+            long attempt = signal.totalRetries() + 1;
+            boolean retryable = failure instanceof Exception exception && retryPredicate.test(exception);
+            if (attempt >= maxAttempts || !retryable) {
+                telemetry.gaveUp(null, (int) attempt, failure, retryable
+                        ? RetryTelemetry.Outcome.EXHAUSTED : RetryTelemetry.Outcome.NOT_RETRYABLE);
+                return Mono.error(new RuntimeException("Operation failed after " + attempt + " attempts: "
+                        + describe(failure), failure));
+            }
+            Exception e = (Exception) failure;
+            Duration wait = nextWait(e, backoffAfter(firstBackoff, signal.totalRetries()));
+            if (!budget.allows(wait)) {
+                telemetry.gaveUp(null, (int) attempt, e, RetryTelemetry.Outcome.OUT_OF_BUDGET);
+                return Mono.error(new RunBudget.ExhaustedException("Out of run budget after " + attempt
+                        + " attempts: " + describe(e), e));
+            }
+            telemetry.retrying(null, (int) attempt, e, wait, retryAfter(e) != null);
+            return Mono.delay(wait);
+        }));
+    }
+
+    /** How long to wait before the next attempt. An explicit Retry-After from the server beats our guess. */
+    static Duration nextWait(Exception e, Duration backoff) {
+        Duration wait = retryAfter(e);
+        if (wait == null) {
+            wait = applyJitter(backoff);
+        }
+        return cap(wait);
+    }
+
+    /** The backoff the blocking loop would have reached after {@code retries} doublings. */
+    static Duration backoffAfter(Duration initialBackoff, long retries) {
+        Duration backoff = cap(initialBackoff);
+        for (long i = 0; i < retries && backoff.compareTo(MAX_BACKOFF) < 0; i++) {
+            backoff = cap(backoff.multipliedBy(2));
+        }
+        return backoff;
+    }
+
     static Duration cap(Duration backoff) {
         return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
     }
@@ -4,11 +4,11 @@ import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.SyndFeedInput;
 import com.rometools.rome.io.XmlReader;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
+import javax.xml.stream.XMLStreamException;
 import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -21,22 +21,30 @@ import java.util.concurrent.Callable;
 @Service
 public class RssService {
 
-    private final WebClient webClient;
+    private final HttpFetcher httpFetcher;
 
     private static final int MAX_ATTEMPTS = 3;
     private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(2);
 
+    // Each feed blocks for up to 3 attempts plus backoff; fetching them one after another lets a
+    // single slow feed hold up the rest. A small cap keeps us polite to a host serving several.
+    static final int DEFAULT_FEED_CONCURRENCY = 4;
+
+    private static final int MAX_FEED_BYTES = 1024 * 1024;
+
     public RssService() {
-        this.webClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-                .build();
+        this(HttpFetcher.standalone());
+    }
+
+    @Autowired
+    public RssService(HttpFetcher httpFetcher) {
+        this.httpFetcher = httpFetcher;
     }
 
-    private SyndFeed parseRssContent(String xmlContent) {
+    private SyndFeed parseRssContent(byte[] xmlContent) {
         try {
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(
-                    xmlContent.getBytes(StandardCharsets.UTF_8));
-            XmlReader xmlReader = new XmlReader(inputStream);
+            // XmlReader works out the encoding from the bytes (BOM, prolog, then UTF-8).
+            XmlReader xmlReader = new XmlReader(new ByteArrayInputStream(xmlContent));
             SyndFeedInput input = new SyndFeedInput();
             return input.build(xmlReader);
         } catch (Exception e) {
@@ -45,51 +53,96 @@ public class RssService {
     }
 
     public List<NewsItem> fetchLatestNews(List<String> rssUrls, int limit) {
-        Map<String, NewsItem> uniqueByLink = new LinkedHashMap<>();
-        for (String url : rssUrls) {
+        return fetchLatestNews(rssUrls, limit, DEFAULT_FEED_CONCURRENCY);
+    }
+
+    /**
+     * Fetches every feed, at most {@code maxConcurrency} at a time, and merges them newest first.
+     * A feed that fails is logged and skipped. When two feeds carry the same link, the entry from
+     * the feed listed first wins, however the responses happen to be ordered in time.
+     */
+    public List<NewsItem> fetchLatestNews(List<String> rssUrls, int limit, int maxConcurrency) {
+        List<List<NewsItem>> perFeed = FanOut.map(rssUrls, maxConcurrency, url -> {
             try {
-                for (NewsItem item : fetchLatestNews(url, Integer.MAX_VALUE)) {
-                    uniqueByLink.putIfAbsent(item.link(), item);
-                }
+                return fetchLatestNews(url, Integer.MAX_VALUE);
             } catch (Exception e) {
-                System.err.println("Failed to fetch " + url + ": " + e.getMessage());
+                if (RunBudget.exhausted(e)) {
+                    // Out of time is the section's problem, not this feed's: don't publish a partial merge.
+                    throw e;
+                }
+                RunLog.println("Failed to fetch " + url + ": " + e.getMessage());
+                return List.<NewsItem>of();
+            }
+        });
+
+        Map<String, NewsItem> uniqueByLink = new LinkedHashMap<>();
+        int candidates = 0;
+        for (List<NewsItem> items : perFeed) {
+            candidates += items.size();
+            for (NewsItem item : items) {
+                uniqueByLink.putIfAbsent(item.link(), item);
             }
         }
         Comparator<NewsItem> byDateDesc = Comparator.comparing(
                 NewsItem::publishedDate,
                 Comparator.nullsLast(Comparator.reverseOrder()));
-        return uniqueByLink.values().stream()
+        List<NewsItem> latest = uniqueByLink.values().stream()
                 .sorted(byDateDesc)
                 .limit(limit)
                 .toList();
+        // Duplicates across feeds and everything past the limit count as filtered.
+        RunMetrics.items(RunMetrics.NEWS, latest.size(), candidates - latest.size());
+        return latest;
     }
 
     public List<NewsItem> fetchLatestNews(String rssUrl, int limit) {
         try {
-            String rssContent = RetryUtils.executeWithRetry(new Callable<String>() {
-                @Override
-                public String call() {
-                    return webClient.get()
-                            .uri(rssUrl)
-                            .retrieve()
-                            .bodyToMono(String.class)
-                            .timeout(Duration.ofSeconds(30))
-                            .block();
-                }
-            }, MAX_ATTEMPTS, INITIAL_BACKOFF);
+            Callable<HttpFetcher.Response> download = () -> RunMetrics.fetch(RunMetrics.NEWS,
+                    () -> RetryUtils.executeWithRetry(httpFetcher.hostGuards(), httpFetcher.retryTelemetry(),
+                            rssUrl, new Callable<HttpFetcher.Response>() {
+                        @Override
+                        public HttpFetcher.Response call() {
+                            return httpFetcher.get(rssUrl, MAX_FEED_BYTES)
+                                    .timeout(RunBudget.timeout(Duration.ofSeconds(30)))
+                                    .block();
+                        }
+                    }, MAX_ATTEMPTS, INITIAL_BACKOFF));
+
+            // A feed we cannot reach is read from its last good copy, if there is a recent enough one.
+            return httpFetcher.lastKnownGood().fetch(RunMetrics.NEWS, rssUrl, download,
+                    response -> RunMetrics.parse(RunMetrics.NEWS, () -> parseNewsItems(response.body(), limit)));
 
-            SyndFeed feed = parseRssContent(rssContent);
-            
-            return feed.getEntries().stream()
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch RSS feed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The first {@code limit} entries of a feed. The streaming parser stops reading once it has
+     * them; feeds it does not handle go through ROME, which parses the whole document.
+     */
+    List<NewsItem> parseNewsItems(byte[] xmlContent, int limit) {
+        try {
+            return FeedParser.parse(xmlContent, limit, entry -> true).stream()
+                    .map(this::convertToNewsItem)
+                    .toList();
+        } catch (XMLStreamException | FeedParser.UnsupportedFeedException e) {
+            return parseRssContent(xmlContent).getEntries().stream()
                     .limit(limit)
                     .map(this::convertToNewsItem)
                     .toList();
-                    
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch RSS feed: " + e.getMessage(), e);
         }
     }
 
+    private NewsItem convertToNewsItem(FeedParser.Entry entry) {
+        LocalDateTime publishedDate = null;
+        if (entry.published() != null) {
+            publishedDate = LocalDateTime.ofInstant(entry.published(), ZoneId.systemDefault());
+        }
+
+        return new NewsItem(entry.title(), entry.link(), publishedDate);
+    }
+
     private NewsItem convertToNewsItem(SyndEntry entry) {
         LocalDateTime publishedDate = null;
         if (entry.getPublishedDate() != null) {
@@ -0,0 +1,199 @@
+package dev.dashaun.cli.newsletter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * A wall-clock deadline for a whole command, divided among its sections.
+ *
+ * <p>Run sequentially, a section's share is fixed when it starts: what is left of the run, split
+ * evenly between it and the sections that have not started yet. A section that finishes early
+ * leaves its unused time to the ones after it; a slow one cannot eat the time of those still to
+ * come. Run in parallel, the sections share the clock rather than divide it, so each may use the
+ * whole run.
+ *
+ * <p>A section's {@link Share} is bound to the thread doing its work while that work runs, and
+ * {@link FanOut} carries it over to the threads it starts. {@link RetryUtils} stops retrying when
+ * the next wait would not fit, the services cap their request timeouts with {@link #timeout}, and
+ * YouTube skips sweeps that cannot complete. Work that runs out fails with
+ * {@link ExhaustedException}; callers that can leave a section as it was report it as degraded.
+ */
+final class RunBudget {
+
+    private static final ThreadLocal<Share> CURRENT = new ThreadLocal<>();
+
+    private static final long UNBOUNDED_NANOS = Long.MAX_VALUE;
+
+    // What an unlimited budget reports as remaining: never reached, and safe to add to.
+    private static final Duration FOREVER = Duration.ofDays(36500);
+
+    private static final RunBudget UNBOUNDED = new RunBudget(UNBOUNDED_NANOS, true);
+
+    private final long deadline;
+    private final boolean concurrent;
+    private final Map<String, Share> shares = new LinkedHashMap<>();
+
+    private RunBudget(long deadline, boolean concurrent) {
+        this.deadline = deadline;
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * A budget of {@code total} from now for {@code sections}, in the order a sequential run
+     * starts them. A zero or negative {@code total} means no limit.
+     */
+    static RunBudget start(Duration total, boolean concurrent, String... sections) {
+        if (total == null || total.isZero() || total.isNegative()) {
+            return UNBOUNDED;
+        }
+        RunBudget budget = new RunBudget(System.nanoTime() + total.toNanos(), concurrent);
+        for (String section : sections) {
+            budget.share(section);
+        }
+        return budget;
+    }
+
+    /** The share of whatever section the current thread is working for; unlimited outside any. */
+    static Share current() {
+        Share share = CURRENT.get();
+        return share != null ? share : UNBOUNDED.share("unbounded");
+    }
+
+    /** Caps a request timeout at the current share's remaining time. */
+    static Duration timeout(Duration timeout) {
+        return current().timeout(timeout);
+    }
+
+    /** Whether {@code failure}, or anything it wraps, is a section running out of budget. */
+    static boolean exhausted(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof ExhaustedException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    synchronized Share share(String section) {
+        // Without a deadline there is nothing to divide, so nothing to remember: the unbounded
+        // budget is shared by every command a daemon runs, and would otherwise keep them all.
+        if (!bounded()) {
+            return new Share(this, section);
+        }
+        return shares.computeIfAbsent(section, name -> new Share(this, name));
+    }
+
+    /** {@code work}, run with the section's share bound to whichever thread calls it. */
+    <T> Callable<T> bind(String section, Callable<T> work) {
+        Share share = share(section);
+        return () -> share.call(work);
+    }
+
+    boolean bounded() {
+        return deadline != UNBOUNDED_NANOS;
+    }
+
+    /** What is left of the whole run. */
+    Duration remaining() {
+        return bounded() ? Duration.ofNanos(Math.max(0, deadline - System.nanoTime())) : FOREVER;
+    }
+
+    private synchronized long startShare(Share share) {
+        if (!bounded() || concurrent) {
+            return deadline;
+        }
+        int waiting = 0;
+        for (Share other : shares.values()) {
+            if (other != share && !other.started) {
+                waiting++;
+            }
+        }
+        long now = System.nanoTime();
+        return now + Math.max(0, deadline - now) / (1 + waiting);
+    }
+
+    /** One section's part of the budget. */
+    static final class Share {
+
+        private final RunBudget budget;
+        private final String section;
+        private volatile boolean started;
+        private volatile long deadline;
+
+        private Share(RunBudget budget, String section) {
+            this.budget = budget;
+            this.section = section;
+            this.deadline = budget.deadline;
+        }
+
+        String section() {
+            return section;
+        }
+
+        /** Runs {@code work} on this thread with this share as the current one. */
+        <T> T call(Callable<T> work) throws Exception {
+            begin();
+            Share previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                return work.call();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        }
+
+        private void begin() {
+            synchronized (budget) {
+                if (!started) {
+                    deadline = budget.startShare(this);
+                    started = true;
+                }
+            }
+        }
+
+        Duration remaining() {
+            if (!budget.bounded()) {
+                return FOREVER;
+            }
+            return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+        }
+
+        /** Whether waiting {@code wait} would still leave time to do something afterwards. */
+        boolean allows(Duration wait) {
+            return remaining().compareTo(wait) > 0;
+        }
+
+        /**
+         * {@code timeout}, or less if the share has less left.
+         *
+         * @throws ExhaustedException if nothing is left
+         */
+        Duration timeout(Duration timeout) {
+            Duration remaining = remaining();
+            if (remaining.isZero()) {
+                throw new ExhaustedException(section + " ran out of its run budget");
+            }
+            return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+        }
+    }
+
+    /** A section ran out of time before its work could complete. */
+    static class ExhaustedException extends RuntimeException {
+        ExhaustedException(String message) {
+            super(message);
+        }
+
+        ExhaustedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
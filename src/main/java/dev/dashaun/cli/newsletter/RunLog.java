@@ -0,0 +1,62 @@
+package dev.dashaun.cli.newsletter;
+
+import java.io.PrintStream;
+import java.util.function.Supplier;
+
+/**
+ * Where the services report what happened along the way: retries, fallbacks, unreadable cache
+ * entries. Every line goes to stderr.
+ *
+ * <p>A {@link CommandDaemon} command also has a log of its own, which goes back to its client. It
+ * is bound to the thread running the command, and {@link FanOut}, {@link RequestHedger} and
+ * {@link HttpFetcher} carry it to the threads they hand the command's work to, so only lines
+ * written for that command reach it. Whatever else writes to stderr meanwhile stays in the
+ * daemon's.
+ */
+final class RunLog {
+
+    private static final ThreadLocal<PrintStream> COMMAND = new ThreadLocal<>();
+
+    private RunLog() {
+    }
+
+    /** Writes {@code line} to stderr, and to the log of the command this thread works for, if any. */
+    static void println(String line) {
+        System.err.println(line);
+        PrintStream command = COMMAND.get();
+        if (command != null) {
+            command.println(line);
+        }
+    }
+
+    /** The log of the command this thread works for; null outside a daemon command. */
+    static PrintStream current() {
+        return COMMAND.get();
+    }
+
+    /** Runs {@code work} on this thread with {@code log} as the command's log; none if null. */
+    static <T> T call(PrintStream log, Supplier<T> work) {
+        PrintStream previous = COMMAND.get();
+        bind(log);
+        try {
+            return work.get();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    static void run(PrintStream log, Runnable work) {
+        call(log, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private static void bind(PrintStream log) {
+        if (log != null) {
+            COMMAND.set(log);
+        } else {
+            COMMAND.remove();
+        }
+    }
+}
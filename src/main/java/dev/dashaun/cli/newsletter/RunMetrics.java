@@ -0,0 +1,103 @@
+package dev.dashaun.cli.newsletter;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The meters every fetch, parse and document write records into. They go to Micrometer's global
+ * registry, the same place Reactor Netty's client and pool meters go; in the application that has
+ * {@code newsletterMeterRegistry} attached, anywhere else (unit tests, benchmarks) they record into
+ * nothing.
+ *
+ * <p>{@code source} is the section family a fetch belongs to: {@code news}, {@code calendar},
+ * {@code youtube} or {@code github}. {@link RunReport} reads these back at exit.
+ */
+final class RunMetrics {
+
+    /** Timer per source and outcome: one download, retries included. */
+    static final String FETCH = "newsletter.fetch";
+    /** Timer per source: turning one download into items. */
+    static final String PARSE = "newsletter.parse";
+    /** Counter per source and state: items kept for the document, and candidates dropped. */
+    static final String ITEMS = "newsletter.items";
+    /** Counter per host and whether the body came from the HTTP cache after a 304. */
+    static final String BYTES = "newsletter.http.bytes";
+    /** Counter per host, exception and status: attempts that failed and were tried again. */
+    static final String RETRIES = "newsletter.retries";
+    /** Timer per host and reason ({@code retry-after} or {@code backoff}): time spent waiting to retry. */
+    static final String RETRY_WAIT = "newsletter.retry.wait";
+    /** Counter per host and outcome ({@code exhausted}, {@code not-retryable}, {@code out-of-budget}, {@code circuit-open}): loops that gave up. */
+    static final String RETRY_GIVE_UP = "newsletter.retry.give-up";
+    /** Counter per host and state ({@code open}, {@code half-open}, {@code closed}): circuit breaker transitions. */
+    static final String CIRCUIT = "newsletter.host.circuit";
+    /** Counter per outcome ({@code sent}, {@code won}, {@code capped}): hedged YouTube feed requests. */
+    static final String HEDGES = "newsletter.hedges";
+    /** Counter per source and outcome ({@code served}, {@code too-old}, {@code none}): failed fetches that fell back to the last-known-good store. */
+    static final String LAST_KNOWN_GOOD = "newsletter.last-known-good";
+    /** Timer per outcome: rendering and writing the document after an edit. */
+    static final String WRITE = "newsletter.document.write";
+    /** Timer per section and status, recorded by {@link RunReport}. */
+    static final String SECTION = "newsletter.section";
+
+    static final String NEWS = "news";
+    static final String CALENDAR = "calendar";
+    static final String YOUTUBE = "youtube";
+    static final String GITHUB = "github";
+
+    private RunMetrics() {
+    }
+
+    static <T> T fetch(String source, Callable<T> fetch) throws Exception {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            T result = fetch.call();
+            outcome = "success";
+            return result;
+        } finally {
+            Timer.builder(FETCH).tag("source", source).tag("outcome", outcome)
+                    .register(Metrics.globalRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static <T> T parse(String source, Callable<T> parse) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return parse.call();
+        } finally {
+            Timer.builder(PARSE).tag("source", source)
+                    .register(Metrics.globalRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static void items(String source, int kept, int filtered) {
+        Metrics.counter(ITEMS, "source", source, "state", "kept").increment(kept);
+        Metrics.counter(ITEMS, "source", source, "state", "filtered").increment(Math.max(0, filtered));
+    }
+
+    static void bytes(String url, long bytes, boolean cached) {
+        Metrics.counter(BYTES, "host", host(url), "cached", Boolean.toString(cached)).increment(bytes);
+    }
+
+    static void write(long startNanos, boolean changed) {
+        Timer.builder(WRITE).tag("outcome", changed ? "changed" : "unchanged")
+                .register(Metrics.globalRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Hosts, not URLs: channel ids and page numbers would give every request its own counter.
+    static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : "unknown";
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+}
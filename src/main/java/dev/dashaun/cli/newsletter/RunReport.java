@@ -0,0 +1,503 @@
+package dev.dashaun.cli.newsletter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a run did, for the workflow rather than for a person: every section's status, duration and
+ * item count, plus what the {@link RunMetrics} meters recorded per source (fetch and parse time,
+ * items kept and filtered), bytes downloaded per host, document writes, and what
+ * {@link RetryTelemetry} saw of the retry loops per host.
+ *
+ * <p>Written when the application context closes, which {@code SpringApplication.exit} does after
+ * the exit code is known. {@code newsletter.report.json} names the JSON file;
+ * {@code newsletter.report.prometheus} names a file in the Prometheus text format for
+ * node_exporter's textfile collector. Both are off unless set, and both are replaced by a rename
+ * so a reader never sees half a file.
+ */
+@Component
+public class RunReport {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final MeterRegistry registry;
+    private final ExitCodeTracker exitCodeTracker;
+    private final RetryTelemetry retryTelemetry;
+    private final HostGuards hostGuards;
+    private final Path jsonReport;
+    private final Path prometheusReport;
+    private volatile Instant startedAt = Instant.now();
+    private volatile long startNanos = System.nanoTime();
+    private final List<Section> sections = new CopyOnWriteArrayList<>();
+
+    public RunReport() {
+        this(new SimpleMeterRegistry(), new ExitCodeTracker(), new RetryTelemetry(), new HostGuards(), null, null);
+    }
+
+    @Autowired
+    public RunReport(MeterRegistry newsletterMeterRegistry, ExitCodeTracker exitCodeTracker,
+                     RetryTelemetry retryTelemetry, HostGuards hostGuards,
+                     @Value("${newsletter.report.json:}") String jsonReport,
+                     @Value("${newsletter.report.prometheus:}") String prometheusReport) {
+        this.registry = newsletterMeterRegistry;
+        this.exitCodeTracker = exitCodeTracker;
+        this.retryTelemetry = retryTelemetry;
+        this.hostGuards = hostGuards;
+        this.jsonReport = jsonReport == null || jsonReport.isBlank() ? null : Path.of(jsonReport);
+        this.prometheusReport = prometheusReport == null || prometheusReport.isBlank() ? null : Path.of(prometheusReport);
+    }
+
+    /** Adds a section to the report, in the order sections are started. */
+    public Section section(String name) {
+        Section section = new Section(name);
+        sections.add(section);
+        return section;
+    }
+
+    List<Section> sections() {
+        return List.copyOf(sections);
+    }
+
+    // Reactor Netty's meters describe the connection pool, which outlives a run, and stay.
+    void reset() {
+        sections.clear();
+        for (Meter meter : List.copyOf(Metrics.globalRegistry.getMeters())) {
+            if (meter.getId().getName().startsWith("newsletter.")) {
+                Metrics.globalRegistry.remove(meter);
+            }
+        }
+        for (Meter meter : List.copyOf(registry.getMeters())) {
+            if (meter.getId().getName().startsWith("newsletter.")) {
+                registry.remove(meter);
+            }
+        }
+        startedAt = Instant.now();
+        startNanos = System.nanoTime();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void write() {
+        try {
+            if (jsonReport != null) {
+                replace(jsonReport, json());
+            }
+            if (prometheusReport != null) {
+                replace(prometheusReport, prometheus());
+            }
+        } catch (IOException e) {
+            // The run itself is over; a report that cannot be written must not change its outcome.
+            RunLog.println("Failed to write run report: " + e.getMessage());
+        }
+    }
+
+    String json() {
+        Totals totals = totals();
+        StringWriter out = new StringWriter();
+        try (JsonGenerator json = JSON.createGenerator(out).useDefaultPrettyPrinter()) {
+            json.writeStartObject();
+            json.writeStringField("startedAt", startedAt.toString());
+            json.writeNumberField("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            json.writeNumberField("exitCode", exitCodeTracker.getExitCode());
+
+            json.writeArrayFieldStart("sections");
+            for (Section section : sections) {
+                section.write(json);
+            }
+            json.writeEndArray();
+
+            json.writeObjectFieldStart("sources");
+            for (Map.Entry<String, SourceTotals> source : totals.sources.entrySet()) {
+                SourceTotals t = source.getValue();
+                json.writeObjectFieldStart(source.getKey());
+                json.writeNumberField("fetches", t.fetches);
+                json.writeNumberField("failedFetches", t.failedFetches);
+                json.writeNumberField("fetchMs", Math.round(t.fetchMs));
+                json.writeNumberField("parseMs", Math.round(t.parseMs));
+                json.writeNumberField("kept", t.kept);
+                json.writeNumberField("filtered", t.filtered);
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+
+            json.writeObjectFieldStart("downloads");
+            for (Map.Entry<String, long[]> host : totals.bytesByHost.entrySet()) {
+                json.writeObjectFieldStart(host.getKey());
+                json.writeNumberField("bytes", host.getValue()[0]);
+                json.writeNumberField("cachedBytes", host.getValue()[1]);
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+
+            writeRetries(json, retryTelemetry);
+            writeHosts(json, hostGuards);
+
+            json.writeObjectFieldStart("documentWrites");
+            json.writeNumberField("changed", totals.writesChanged);
+            json.writeNumberField("unchanged", totals.writesUnchanged);
+            json.writeNumberField("durationMs", Math.round(totals.writeMs));
+            json.writeEndObject();
+
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.append('\n').toString();
+    }
+
+    // Per host, what the retry loops did and how long they waited; then the events themselves.
+    private static void writeRetries(JsonGenerator json, RetryTelemetry telemetry) throws IOException {
+        Map<String, RetryTelemetry.HostSummary> byHost = telemetry.byHost();
+        json.writeObjectFieldStart("retries");
+        json.writeNumberField("total", byHost.values().stream().mapToLong(RetryTelemetry.HostSummary::retried).sum());
+        json.writeObjectFieldStart("byHost");
+        for (Map.Entry<String, RetryTelemetry.HostSummary> host : byHost.entrySet()) {
+            RetryTelemetry.HostSummary summary = host.getValue();
+            json.writeObjectFieldStart(host.getKey());
+            json.writeNumberField("retried", summary.retried());
+            json.writeNumberField("recovered", summary.recovered());
+            writeCounts(json, "recoveredOnAttempt", summary.recoveredOnAttempt());
+            json.writeNumberField("exhausted", summary.exhausted());
+            json.writeNumberField("notRetryable", summary.notRetryable());
+            json.writeNumberField("outOfBudget", summary.outOfBudget());
+            json.writeNumberField("circuitOpen", summary.circuitOpen());
+            json.writeNumberField("retryAfterWaits", summary.retryAfterWaits());
+            json.writeNumberField("backoffWaits", summary.backoffWaits());
+            json.writeNumberField("waitMs", summary.totalWait().toMillis());
+            writeCounts(json, "statuses", summary.statuses());
+            writeCounts(json, "exceptions", summary.exceptions());
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+
+        json.writeArrayFieldStart("events");
+        for (RetryTelemetry.Event event : telemetry.events()) {
+            json.writeStartObject();
+            json.writeStringField("at", event.at().toString());
+            json.writeStringField("host", event.host());
+            json.writeNumberField("attempt", event.attempt());
+            json.writeStringField("outcome", event.outcome().label);
+            if (event.exception() != null) {
+                json.writeStringField("exception", event.exception());
+            }
+            if (event.status() != 0) {
+                json.writeNumberField("status", event.status());
+            }
+            if (event.reason() != RetryTelemetry.WaitReason.NONE) {
+                json.writeNumberField("waitMs", event.delay().toMillis());
+                json.writeStringField("waitReason", event.reason().label);
+            }
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeNumberField("droppedEvents", telemetry.droppedEvents());
+        json.writeEndObject();
+    }
+
+    // Where each host's concurrency limit and circuit breaker ended the run.
+    private static void writeHosts(JsonGenerator json, HostGuards guards) throws IOException {
+        json.writeObjectFieldStart("hosts");
+        for (Map.Entry<String, HostGuards.Snapshot> host : guards.snapshot().entrySet()) {
+            HostGuards.Snapshot snapshot = host.getValue();
+            json.writeObjectFieldStart(host.getKey());
+            json.writeStringField("circuit", snapshot.state().label);
+            json.writeNumberField("concurrencyLimit", Math.round(snapshot.limit() * 100) / 100.0);
+            json.writeNumberField("opened", snapshot.opened());
+            json.writeNumberField("rejected", snapshot.rejected());
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeCounts(JsonGenerator json, String field, Map<?, Long> counts) throws IOException {
+        json.writeObjectFieldStart(field);
+        for (Map.Entry<?, Long> count : counts.entrySet()) {
+            json.writeNumberField(String.valueOf(count.getKey()), count.getValue());
+        }
+        json.writeEndObject();
+    }
+
+    /**
+     * Every {@code newsletter.*} meter in the text exposition format, plus the run's duration,
+     * exit code and completion time. Timers become summaries in seconds.
+     */
+    String prometheus() {
+        Map<String, List<String>> families = new TreeMap<>();
+        Map<String, String> types = new TreeMap<>();
+        for (Meter meter : registry.getMeters()) {
+            String name = meter.getId().getName();
+            if (!name.startsWith("newsletter.")) {
+                continue;
+            }
+            String base = name.replace('.', '_');
+            String labels = labels(meter.getId().getTags());
+            if (meter instanceof Timer timer) {
+                String family = base + "_seconds";
+                types.put(family, "summary");
+                families.computeIfAbsent(family, k -> new ArrayList<>()).add(family + "_count" + labels + " " + timer.count());
+                families.get(family).add(family + "_sum" + labels + " " + number(timer.totalTime(TimeUnit.SECONDS)));
+                types.put(family + "_max", "gauge");
+                families.computeIfAbsent(family + "_max", k -> new ArrayList<>())
+                        .add(family + "_max" + labels + " " + number(timer.max(TimeUnit.SECONDS)));
+            } else if (meter instanceof Counter counter) {
+                String family = base + "_total";
+                types.put(family, "counter");
+                families.computeIfAbsent(family, k -> new ArrayList<>()).add(family + labels + " " + number(counter.count()));
+            } else if (meter instanceof Gauge gauge) {
+                types.put(base, "gauge");
+                families.computeIfAbsent(base, k -> new ArrayList<>()).add(base + labels + " " + number(gauge.value()));
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        gauge(out, "newsletter_run_duration_seconds", "Wall time of the run.",
+                number((System.nanoTime() - startNanos) / 1e9));
+        gauge(out, "newsletter_run_exit_code", "The exit code the run ended with.",
+                Integer.toString(exitCodeTracker.getExitCode()));
+        gauge(out, "newsletter_run_last_completion_timestamp_seconds", "When the run ended, in Unix seconds.",
+                number(System.currentTimeMillis() / 1000.0));
+        for (Map.Entry<String, List<String>> family : families.entrySet()) {
+            out.append("# TYPE ").append(family.getKey()).append(' ').append(types.get(family.getKey())).append('\n');
+            family.getValue().stream().sorted().forEach(line -> out.append(line).append('\n'));
+        }
+        return out.toString();
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, String value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(" gauge\n")
+                .append(name).append(' ').append(value).append('\n');
+    }
+
+    private static String labels(List<Tag> tags) {
+        if (tags.isEmpty()) {
+            return "";
+        }
+        StringBuilder labels = new StringBuilder("{");
+        for (Tag tag : tags) {
+            if (labels.length() > 1) {
+                labels.append(',');
+            }
+            labels.append(tag.getKey().replace('.', '_')).append("=\"")
+                    .append(tag.getValue().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return labels.append('}').toString();
+    }
+
+    private static String number(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    private Totals totals() {
+        Totals totals = new Totals();
+        for (Meter meter : registry.getMeters()) {
+            Meter.Id id = meter.getId();
+            switch (id.getName()) {
+                case RunMetrics.FETCH -> {
+                    Timer timer = (Timer) meter;
+                    SourceTotals source = totals.source(id.getTag("source"));
+                    source.fetches += timer.count();
+                    if ("failure".equals(id.getTag("outcome"))) {
+                        source.failedFetches += timer.count();
+                    }
+                    source.fetchMs += timer.totalTime(TimeUnit.MILLISECONDS);
+                }
+                case RunMetrics.PARSE -> totals.source(id.getTag("source")).parseMs
+                        += ((Timer) meter).totalTime(TimeUnit.MILLISECONDS);
+                case RunMetrics.ITEMS -> {
+                    SourceTotals source = totals.source(id.getTag("source"));
+                    long count = (long) ((Counter) meter).count();
+                    if ("kept".equals(id.getTag("state"))) {
+                        source.kept += count;
+                    } else {
+                        source.filtered += count;
+                    }
+                }
+                case RunMetrics.BYTES -> {
+                    long[] bytes = totals.bytesByHost.computeIfAbsent(id.getTag("host"), k -> new long[2]);
+                    // [0] downloaded, [1] served from the cache after a 304
+                    bytes["true".equals(id.getTag("cached")) ? 1 : 0] += (long) ((Counter) meter).count();
+                }
+                case RunMetrics.WRITE -> {
+                    Timer timer = (Timer) meter;
+                    if ("changed".equals(id.getTag("outcome"))) {
+                        totals.writesChanged += timer.count();
+                    } else {
+                        totals.writesUnchanged += timer.count();
+                    }
+                    totals.writeMs += timer.totalTime(TimeUnit.MILLISECONDS);
+                }
+                default -> {
+                }
+            }
+        }
+        return totals;
+    }
+
+    private static final class Totals {
+        final Map<String, SourceTotals> sources = new TreeMap<>();
+        final Map<String, long[]> bytesByHost = new TreeMap<>();
+        long writesChanged;
+        long writesUnchanged;
+        double writeMs;
+
+        SourceTotals source(String name) {
+            return sources.computeIfAbsent(name != null ? name : "unknown", k -> new SourceTotals());
+        }
+    }
+
+    private static final class SourceTotals {
+        long fetches;
+        long failedFetches;
+        double fetchMs;
+        double parseMs;
+        long kept;
+        long filtered;
+    }
+
+    private static void replace(Path target, String content) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        AtomicFiles.write(target, content.getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    /**
+     * One section of a command. Its duration is the time spent in the work passed to
+     * {@link #timed}, which is the fetch, wherever it runs; a section that was never finished
+     * (because an earlier one aborted the update) is reported as skipped.
+     */
+    public final class Section {
+
+        private final String name;
+        private long busyNanos;
+        private Status status = Status.SKIPPED;
+        private int items;
+        private String message;
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Wraps {@code work} so that its time counts towards this section and a failure marks it
+         * failed. Running out of run budget is left to the caller, which may still report the
+         * section as degraded.
+         */
+        public <T> Callable<T> timed(Callable<T> work) {
+            return () -> {
+                long start = System.nanoTime();
+                try {
+                    T result = work.call();
+                    addBusy(System.nanoTime() - start);
+                    return result;
+                } catch (Exception e) {
+                    addBusy(System.nanoTime() - start);
+                    if (!RunBudget.exhausted(e)) {
+                        failed(e.getMessage());
+                    }
+                    throw e;
+                }
+            };
+        }
+
+        /** Runs {@code work} on this thread, as {@link #timed} does. */
+        public <T> T run(Callable<T> work) throws Exception {
+            return timed(work).call();
+        }
+
+        public void ok(int items) {
+            finish(Status.OK, items, null);
+        }
+
+        /** Written, but incomplete: for example a YouTube channel that produced nothing. */
+        public void degraded(int items, String message) {
+            finish(Status.DEGRADED, items, message);
+        }
+
+        public void failed(String message) {
+            finish(Status.FAILED, 0, message);
+        }
+
+        String name() {
+            return name;
+        }
+
+        synchronized Status status() {
+            return status;
+        }
+
+        synchronized int items() {
+            return items;
+        }
+
+        synchronized String message() {
+            return message;
+        }
+
+        private synchronized void addBusy(long nanos) {
+            busyNanos += nanos;
+        }
+
+        private synchronized void finish(Status status, int items, String message) {
+            this.status = status;
+            this.items = items;
+            this.message = message;
+            Timer.builder(RunMetrics.SECTION).tag("section", name).tag("status", status.label)
+                    .register(registry)
+                    .record(busyNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void write(JsonGenerator json) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("name", name);
+            json.writeStringField("status", status.label);
+            json.writeNumberField("durationMs", TimeUnit.NANOSECONDS.toMillis(busyNanos));
+            json.writeNumberField("items", items);
+            if (message != null) {
+                json.writeStringField("message", message);
+            }
+            json.writeEndObject();
+        }
+    }
+
+    enum Status {
+        OK("ok"), DEGRADED("degraded"), FAILED("failed"), SKIPPED("skipped");
+
+        final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.dashaun.cli.newsletter;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Starts the source fetches behind a multi-section update and hands each result back when its
+ * section is applied.
+ *
+ * <p>Sequential mode defers every fetch until {@link Fetch#get()}, which is exactly the old
+ * fetch-then-apply order. Parallel mode starts every fetch immediately on its own virtual thread,
+ * so the wall time is the slowest source rather than the sum of all of them. Either way the caller
+ * applies sections in the same order and sees the same exception from the same section.
+ *
+ * <p>With a bounded {@link RunBudget}, a parallel fetch that is still running when the run is
+ * out of time is cancelled and fails with {@link RunBudget.ExhaustedException}, rather than
+ * holding up the sections that did finish.
+ */
+class SourceFetches implements AutoCloseable {
+
+    // Lets a fetch that noticed the deadline itself report that, rather than being cut off here.
+    private static final Duration GRACE = Duration.ofSeconds(1);
+
+    private final ExecutorService executor;
+    private final RunBudget budget;
+
+    private SourceFetches(ExecutorService executor, RunBudget budget) {
+        this.executor = executor;
+        this.budget = budget;
+    }
+
+    static SourceFetches sequential() {
+        return new SourceFetches(null, null);
+    }
+
+    static SourceFetches parallel() {
+        return parallel(null);
+    }
+
+    static SourceFetches parallel(RunBudget budget) {
+        return new SourceFetches(Executors.newVirtualThreadPerTaskExecutor(), budget);
+    }
+
+    static SourceFetches of(boolean parallel) {
+        return parallel ? parallel() : sequential();
+    }
+
+    static SourceFetches of(boolean parallel, RunBudget budget) {
+        return parallel ? parallel(budget) : sequential();
+    }
+
+    <T> Fetch<T> start(Callable<T> fetch) {
+        if (executor == null) {
+            return fetch::call;
+        }
+        Future<T> future = executor.submit(fetch);
+        return () -> await(future);
+    }
+
+    private <T> T await(Future<T> future) throws Exception {
+        try {
+            if (budget == null || !budget.bounded()) {
+                return future.get();
+            }
+            return future.get(budget.remaining().plus(GRACE).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RunBudget.ExhaustedException("Still running when the run budget ran out", e);
+        } catch (ExecutionException e) {
+            // Rethrow what the fetch itself threw, so callers can keep catching
+            // YouTubeUnavailableException & co. exactly as they do in sequential mode.
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /**
+     * Abandons whatever is still running. After a section aborts the update there is no point in
+     * letting, say, the YouTube sweeps keep the JVM busy for another five minutes.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    interface Fetch<T> {
+        T get() throws Exception;
+    }
+}
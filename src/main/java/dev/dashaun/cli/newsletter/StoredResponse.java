@@ -0,0 +1,98 @@
+package dev.dashaun.cli.newsletter;
+
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response kept on disk by {@link HttpCache} or {@link LastKnownGood}: the URL it answers, when
+ * it was stored, the headers worth replaying, and the body. Both stores keep one file per URL,
+ * named by the URL's hash, in the binary format here.
+ */
+record StoredResponse(String url, Instant storedAt, Map<String, String> headers, byte[] body) {
+
+    // Bumped when the format changes; files in an older format read as missing.
+    private static final int FORMAT_VERSION = 3;
+
+    // Everything needed to answer as if the server had sent the body again, including Link,
+    // which paginated API responses are read by.
+    static final List<String> STORED_HEADERS = List.of(
+            HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CONTENT_TYPE, HttpHeaders.LINK);
+
+    /** {@code body} with those of {@code headers} that are worth storing. */
+    static StoredResponse of(String url, Instant storedAt, HttpHeaders headers, byte[] body) {
+        Map<String, String> stored = new LinkedHashMap<>();
+        for (String name : STORED_HEADERS) {
+            String value = headers.getFirst(name);
+            if (value != null) {
+                stored.put(name, value);
+            }
+        }
+        return new StoredResponse(url, storedAt, stored, body);
+    }
+
+    /** The file in {@code directory} that holds {@code url}'s response. */
+    static Path fileFor(Path directory, String url, String suffix) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash) + suffix);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    HttpHeaders httpHeaders() {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        headers.forEach(httpHeaders::set);
+        return httpHeaders;
+    }
+
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(url);
+            out.writeLong(storedAt.toEpochMilli());
+            out.writeInt(headers.size());
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+            out.writeInt(body.length);
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Null for a response written in another format version.
+    static StoredResponse decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String url = in.readUTF();
+            Instant storedAt = Instant.ofEpochMilli(in.readLong());
+            int headerCount = in.readInt();
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(in.readUTF(), in.readUTF());
+            }
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new StoredResponse(url, storedAt, headers, body);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package dev.dashaun.cli.newsletter;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One pass over an iCalendar feed that keeps only the VEVENTs dated inside a window, reading
+ * nothing but each event's {@code DTSTART} and {@code SUMMARY}.
+ *
+ * <p>Events outside the window cost a few character comparisons and no objects, so a calendar
+ * with years of history scans in time proportional to its size but allocates only for the
+ * events that are kept.
+ *
+ * <p>Only all-day events ({@code DTSTART;VALUE=DATE:yyyyMMdd}) with a plain summary are read
+ * here. Anything else near the window (a date-time, a {@code TZID}, an escaped summary) is
+ * copied out verbatim, together with the feed's VTIMEZONEs, for ical4j to parse, so those
+ * events come out exactly as they did when ical4j parsed the whole feed.
+ */
+final class VEventScanner {
+
+    // A date-time in another zone can land on the neighbouring day; ical4j decides those.
+    private static final int FALLBACK_SLACK_DAYS = 1;
+
+    /**
+     * An event in the window: either read here ({@code summary} and {@code date} set), or
+     * waiting for ical4j ({@code summary} null), in which case it is the next VEVENT of
+     * {@link Scan#fallbackCalendar()}.
+     */
+    record Event(LocalDate date, String summary) {
+
+        boolean needsFallback() {
+            return summary == null;
+        }
+    }
+
+    /** The kept events in feed order, and a calendar of the ones ical4j has to parse (or null). */
+    record Scan(List<Event> events, String fallbackCalendar) {
+    }
+
+    private VEventScanner() {
+    }
+
+    static Scan scan(String ical, LocalDate from, LocalDate to) {
+        LocalDate fallbackFrom = from.minusDays(FALLBACK_SLACK_DAYS);
+        LocalDate fallbackTo = to.plusDays(FALLBACK_SLACK_DAYS);
+
+        List<Event> events = new ArrayList<>();
+        StringBuilder timezones = new StringBuilder();
+        StringBuilder fallback = null;
+
+        int length = ical.length();
+        int lineStart = 0;
+
+        // Where the current VEVENT (or VTIMEZONE) began, and how deep inside it we are.
+        int eventStart = -1;
+        int timezoneStart = -1;
+        int depth = 0;
+        // DTSTART of the current event: 0 = not seen, >0 = yyyyMMdd of a plain date,
+        // <0 = -yyyyMMdd of anything ical4j has to interpret, Integer.MIN_VALUE = unreadable.
+        int start = 0;
+        int summaryStart = -1;
+        int summaryEnd = -1;
+        boolean escaped = false;
+
+        while (lineStart < length) {
+            int lineEnd = logicalLineEnd(ical, lineStart);
+            int next = nextLineStart(ical, lineEnd);
+
+            if (eventStart >= 0) {
+                if (isProperty(ical, lineStart, "BEGIN")) {
+                    depth++;
+                } else if (isProperty(ical, lineStart, "END")) {
+                    if (depth > 0) {
+                        depth--;
+                    } else {
+                        if (start != 0 && summaryStart >= 0) {
+                            if (start > 0 && escaped) {
+                                // ical4j owns unescaping; hand it the event like any other odd one.
+                                start = -start;
+                            }
+                            if (start > 0) {
+                                LocalDate date = date(start);
+                                if (date != null && !date.isBefore(from) && !date.isAfter(to)) {
+                                    events.add(new Event(date, unfold(ical, summaryStart, summaryEnd)));
+                                }
+                            } else {
+                                LocalDate approximate = start == Integer.MIN_VALUE ? null : date(-start);
+                                if (approximate == null
+                                        || (!approximate.isBefore(fallbackFrom) && !approximate.isAfter(fallbackTo))) {
+                                    if (fallback == null) {
+                                        fallback = new StringBuilder();
+                                    }
+                                    fallback.append(ical, eventStart, next);
+                                    ensureLineBreak(fallback);
+                                    events.add(new Event(null, null));
+                                }
+                            }
+                        }
+                        eventStart = -1;
+                    }
+                } else if (depth == 0 && start == 0 && isProperty(ical, lineStart, "DTSTART")) {
+                    start = dtStart(ical, lineStart, lineEnd);
+                } else if (depth == 0 && summaryStart < 0 && isProperty(ical, lineStart, "SUMMARY")) {
+                    int value = valueStart(ical, lineStart, lineEnd);
+                    if (value >= 0) {
+                        summaryStart = value;
+                        summaryEnd = lineEnd;
+                        escaped = contains(ical, value, lineEnd, '\\');
+                    }
+                }
+            } else if (timezoneStart >= 0) {
+                if (isProperty(ical, lineStart, "BEGIN")) {
+                    depth++;
+                } else if (isProperty(ical, lineStart, "END")) {
+                    if (depth > 0) {
+                        depth--;
+                    } else {
+                        timezones.append(ical, timezoneStart, next);
+                        ensureLineBreak(timezones);
+                        timezoneStart = -1;
+                    }
+                }
+            } else if (isBegin(ical, lineStart, lineEnd, "VEVENT")) {
+                eventStart = lineStart;
+                depth = 0;
+                start = 0;
+                summaryStart = -1;
+                summaryEnd = -1;
+                escaped = false;
+            } else if (isBegin(ical, lineStart, lineEnd, "VTIMEZONE")) {
+                timezoneStart = lineStart;
+                depth = 0;
+            }
+            lineStart = next;
+        }
+
+        String fallbackCalendar = null;
+        if (fallback != null) {
+            fallbackCalendar = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//newsletter-cli//fallback//EN\r\n"
+                    + timezones + fallback + "END:VCALENDAR\r\n";
+        }
+        return new Scan(events, fallbackCalendar);
+    }
+
+    // A DTSTART, encoded as described where it is stored.
+    private static int dtStart(String ical, int lineStart, int lineEnd) {
+        int value = valueStart(ical, lineStart, lineEnd);
+        if (value < 0 || contains(ical, value, lineEnd, '\n')) {
+            return Integer.MIN_VALUE;
+        }
+        int end = lineEnd > value && ical.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+        int yyyyMMdd = 0;
+        if (end - value < 8) {
+            return Integer.MIN_VALUE;
+        }
+        for (int i = value; i < value + 8; i++) {
+            char c = ical.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.MIN_VALUE;
+            }
+            yyyyMMdd = yyyyMMdd * 10 + (c - '0');
+        }
+        if (yyyyMMdd == 0) {
+            return Integer.MIN_VALUE;
+        }
+        boolean plainDate = end - value == 8 && hasOnlyValueDate(ical, lineStart + "DTSTART".length(), value - 1);
+        return plainDate ? yyyyMMdd : -yyyyMMdd;
+    }
+
+    // The parameters between the property name and the value are exactly ";VALUE=DATE".
+    private static boolean hasOnlyValueDate(String ical, int paramsStart, int paramsEnd) {
+        return ical.regionMatches(true, paramsStart, ";VALUE=DATE", 0, paramsEnd - paramsStart)
+                && paramsEnd - paramsStart == ";VALUE=DATE".length();
+    }
+
+    private static LocalDate date(int yyyyMMdd) {
+        try {
+            return LocalDate.of(yyyyMMdd / 10000, yyyyMMdd / 100 % 100, yyyyMMdd % 100);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    // Just after the first ':' that is not inside a quoted parameter value, or -1.
+    private static int valueStart(String ical, int lineStart, int lineEnd) {
+        boolean quoted = false;
+        for (int i = lineStart; i < lineEnd; i++) {
+            char c = ical.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    // The line's name is exactly {@code name}, followed by its parameters or its value.
+    private static boolean isProperty(String ical, int lineStart, String name) {
+        int end = lineStart + name.length();
+        return end < ical.length() && ical.regionMatches(true, lineStart, name, 0, name.length())
+                && (ical.charAt(end) == ':' || ical.charAt(end) == ';');
+    }
+
+    private static boolean isBegin(String ical, int lineStart, int lineEnd, String component) {
+        if (!isProperty(ical, lineStart, "BEGIN") || ical.charAt(lineStart + 5) != ':') {
+            return false;
+        }
+        int value = lineStart + 6;
+        int end = lineEnd > value && ical.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+        return end - value == component.length() && ical.regionMatches(true, value, component, 0, component.length());
+    }
+
+    // The end of a content line, past any folded continuation lines; excludes the final '\n'.
+    private static int logicalLineEnd(String ical, int lineStart) {
+        int i = lineStart;
+        while (true) {
+            int newline = ical.indexOf('\n', i);
+            if (newline < 0) {
+                return ical.length();
+            }
+            if (newline + 1 < ical.length() && (ical.charAt(newline + 1) == ' ' || ical.charAt(newline + 1) == '\t')) {
+                i = newline + 1;
+            } else {
+                return newline;
+            }
+        }
+    }
+
+    private static int nextLineStart(String ical, int lineEnd) {
+        return lineEnd < ical.length() ? lineEnd + 1 : lineEnd;
+    }
+
+    // The value with folding undone: each line break plus the one space or tab after it is removed.
+    private static String unfold(String ical, int start, int end) {
+        if (end > start && ical.charAt(end - 1) == '\r') {
+            end--;
+        }
+        int newline = ical.indexOf('\n', start);
+        if (newline < 0 || newline >= end) {
+            return ical.substring(start, end);
+        }
+        StringBuilder value = new StringBuilder(end - start);
+        int i = start;
+        while (newline >= 0 && newline < end) {
+            int cut = newline > i && ical.charAt(newline - 1) == '\r' ? newline - 1 : newline;
+            value.append(ical, i, cut);
+            i = newline + 2;
+            newline = ical.indexOf('\n', i);
+        }
+        return value.append(ical, i, end).toString();
+    }
+
+    private static boolean contains(String ical, int from, int to, char c) {
+        for (int i = from; i < to; i++) {
+            if (ical.charAt(i) == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void ensureLineBreak(StringBuilder text) {
+        if (text.isEmpty() || text.charAt(text.length() - 1) != '\n') {
+            text.append("\r\n");
+        }
+    }
+}
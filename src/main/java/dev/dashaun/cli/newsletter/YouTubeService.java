@@ -4,12 +4,13 @@ import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.SyndFeedInput;
 import com.rometools.rome.io.XmlReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import javax.xml.stream.XMLStreamException;
 import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -25,8 +26,10 @@ import java.util.stream.Collectors;
 @Service
 public class YouTubeService {
 
-    private final WebClient webClient;
-    
+    private final HttpFetcher httpFetcher;
+
+    private static final int MAX_FEED_BYTES = 1024 * 1024;
+
     // YouTube's feed endpoint can stay 404 for tens of seconds; defaults of 3 attempts /
     // 2s backoff (6s window) routinely miss the recovery. 5 attempts at 5s → 10s → 20s → 40s
     // gives a ~75s window per channel without making the job absurdly long.
@@ -35,13 +38,14 @@ public class YouTubeService {
 
     // Every channel must contribute a video. Per-request retries all happen inside one ~75s
     // window; when a channel is in a longer outage that window is simply too early. A sweep
-    // re-runs the whole fetch for the channels that came back with nothing, after a pause,
-    // which puts the next attempt minutes away from the first instead of seconds.
+    // re-runs the fetch for a channel that came back with nothing, after a pause, which puts
+    // the next attempt minutes away from the first instead of seconds.
     private static final int DEFAULT_CHANNEL_SWEEPS = 3;
     private static final Duration DEFAULT_SWEEP_PAUSE = Duration.ofSeconds(20);
 
-    // Sweeps multiply the worst case (channels x attempts x sweeps), so cap the wall clock:
-    // a new sweep only starts if the budget still has room. A hung job helps nobody.
+    // Sweeps multiply the worst case (attempts x sweeps per channel; channels run side by side),
+    // so cap the wall clock: a new sweep only starts if the budget still has room. A hung job
+    // helps nobody.
     static final Duration MAX_TOTAL_DURATION = Duration.ofMinutes(5);
 
     private final int maxAttempts;
@@ -49,6 +53,11 @@ public class YouTubeService {
     private final int channelSweeps;
     private final Duration sweepPause;
 
+    // The same endpoint is throttled on shared egress addresses, which shows up as a long tail
+    // rather than errors. Hedging a slow request costs one more request in a few; waiting for it
+    // can cost most of the 30s timeout before the retry schedule even starts.
+    private final RequestHedger hedger;
+
     // YouTube feeds always carry a published date, but a null must not blow up the sort.
     static final Comparator<YouTubeVideo> BY_DATE_DESC = Comparator.comparing(
             YouTubeVideo::getPublishedDate, Comparator.nullsLast(Comparator.reverseOrder()));
@@ -78,29 +87,35 @@ public class YouTubeService {
 
     static final String DEFAULT_FEED_BASE_URL = "https://www.youtube.com/feeds/videos.xml";
 
-    // Reactor Netty's default agent gets throttled harder than a named client on the
-    // shared CI egress addresses, which is where the transient 404s cluster.
-    private static final String USER_AGENT =
-            "newsletter-cli (+https://github.com/dashaun-tanzu/newsletter-cli)";
-
     private final String feedBaseUrl;
 
     public YouTubeService() {
-        this(DEFAULT_FEED_BASE_URL, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF,
-                DEFAULT_CHANNEL_SWEEPS, DEFAULT_SWEEP_PAUSE);
+        this(DEFAULT_FEED_BASE_URL, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF, DEFAULT_CHANNEL_SWEEPS,
+                DEFAULT_SWEEP_PAUSE, HttpFetcher.standalone(), RequestHedger.disabled());
+    }
+
+    // The base URL only changes for local fixtures (see the aot-cache training run).
+    @Autowired
+    public YouTubeService(HttpFetcher httpFetcher,
+                          @Value("${newsletter.youtube.feed-base-url:" + DEFAULT_FEED_BASE_URL + "}") String feedBaseUrl,
+                          @Value("${newsletter.youtube.hedge.enabled:false}") boolean hedge,
+                          @Value("${newsletter.youtube.hedge.percentile:0.9}") double hedgePercentile,
+                          @Value("${newsletter.youtube.hedge.max-rate:0.1}") double hedgeMaxRate,
+                          @Value("${newsletter.youtube.hedge.initial-delay:2s}") Duration hedgeInitialDelay) {
+        this(feedBaseUrl, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF, DEFAULT_CHANNEL_SWEEPS,
+                DEFAULT_SWEEP_PAUSE, httpFetcher,
+                new RequestHedger(hedge, hedgePercentile, hedgeMaxRate, hedgeInitialDelay));
     }
 
     YouTubeService(String feedBaseUrl, int maxAttempts, Duration initialBackoff,
-                   int channelSweeps, Duration sweepPause) {
+                   int channelSweeps, Duration sweepPause, HttpFetcher httpFetcher, RequestHedger hedger) {
         this.feedBaseUrl = feedBaseUrl;
         this.maxAttempts = maxAttempts;
         this.initialBackoff = initialBackoff;
         this.channelSweeps = channelSweeps;
         this.sweepPause = sweepPause;
-        this.webClient = WebClient.builder()
-                .defaultHeader(org.springframework.http.HttpHeaders.USER_AGENT, USER_AGENT)
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-                .build();
+        this.httpFetcher = httpFetcher;
+        this.hedger = hedger;
     }
 
     /**
@@ -116,9 +131,10 @@ public class YouTubeService {
      * represented by at least one video, and reporting the channels that never produced one.
      *
      * <p>Two layers of retry sit under this: {@link RetryUtils} retries each HTTP request, and
-     * on top of that a channel that still produced nothing is swept again — the whole fetch
-     * re-run after a pause — until it yields a video, the sweeps run out, or the overall time
-     * budget does.
+     * on top of that a channel that still produced nothing is swept again — its fetch re-run
+     * after a pause — until it yields a video, the sweeps run out, or the overall time budget
+     * does. Every channel runs that schedule concurrently on its own clock, so a healthy channel
+     * is done in one round trip and only the flaky ones spend the budget.
      *
      * <p>If <em>every</em> channel fails that is an outage, not an empty result: it throws
      * rather than reporting "0 videos" to a caller that would happily publish an empty section.
@@ -128,54 +144,74 @@ public class YouTubeService {
             return new FetchResult(new ArrayList<>(), new ArrayList<>());
         }
 
-        // Insertion-ordered so the reserved-slot selection below is deterministic.
-        Map<String, List<YouTubeVideo>> byChannel = new LinkedHashMap<>();
-        List<ChannelInfo> pending = new ArrayList<>(CHANNELS);
         long deadline = System.nanoTime() + MAX_TOTAL_DURATION.toNanos();
+        List<List<YouTubeVideo>> perChannel = FanOut.map(CHANNELS, CHANNELS.size(),
+                channel -> fetchWithSweeps(channel, limit, deadline));
+
+        // Insertion-ordered (CHANNELS order, not completion order) so the reserved-slot
+        // selection below is deterministic.
+        Map<String, List<YouTubeVideo>> byChannel = new LinkedHashMap<>();
+        List<String> missingChannels = new ArrayList<>();
+        for (int i = 0; i < CHANNELS.size(); i++) {
+            String name = CHANNELS.get(i).getName();
+            if (perChannel.get(i).isEmpty()) {
+                missingChannels.add(name);
+            } else {
+                byChannel.put(name, perChannel.get(i));
+            }
+        }
 
-        for (int sweep = 1; sweep <= channelSweeps && !pending.isEmpty(); sweep++) {
+        if (byChannel.isEmpty()) {
+            throw new YouTubeUnavailableException(
+                    "all " + CHANNELS.size() + " channel feeds failed after retries ("
+                            + String.join(", ", missingChannels) + ")");
+        }
+
+        List<YouTubeVideo> selected = selectVideos(byChannel, limit);
+        int candidates = byChannel.values().stream().mapToInt(List::size).sum();
+        RunMetrics.items(RunMetrics.YOUTUBE, selected.size(), candidates - selected.size());
+        return new FetchResult(selected, missingChannels);
+    }
+
+    /**
+     * One channel's retry-and-sweep schedule. Returns an empty list when the channel never
+     * produced a usable video; a new sweep only starts while the shared deadline has room.
+     */
+    private List<YouTubeVideo> fetchWithSweeps(ChannelInfo channel, int limit, long deadline) {
+        for (int sweep = 1; sweep <= channelSweeps; sweep++) {
             if (sweep > 1) {
                 if (System.nanoTime() >= deadline) {
-                    System.err.println("Giving up on " + pending.size()
-                            + " YouTube channel(s): " + MAX_TOTAL_DURATION.toSeconds()
-                            + "s budget exhausted before sweep " + sweep);
+                    RunLog.println("Giving up on YouTube channel " + channel.getName() + ": "
+                            + MAX_TOTAL_DURATION.toSeconds() + "s budget exhausted before sweep " + sweep);
                     break;
                 }
-                System.err.println("Retrying " + pending.size() + " YouTube channel(s) in "
+                if (!RunBudget.current().allows(sweepPause)) {
+                    RunLog.println("Giving up on YouTube channel " + channel.getName()
+                            + ": run budget exhausted before sweep " + sweep);
+                    break;
+                }
+                RunLog.println("Retrying YouTube channel " + channel.getName() + " in "
                         + sweepPause.toSeconds() + "s (sweep " + sweep + " of " + channelSweeps + ")");
                 pause(sweepPause);
             }
 
-            List<ChannelInfo> stillPending = new ArrayList<>();
-            for (ChannelInfo channel : pending) {
-                try {
-                    List<YouTubeVideo> channelVideos = fetchVideosFromChannel(channel, limit);
-                    if (channelVideos.isEmpty()) {
-                        // A 200 with nothing usable is as bad as a failure for our purposes:
-                        // the channel would be missing from the newsletter either way.
-                        stillPending.add(channel);
-                        System.err.println("No usable videos from " + channel.getName()
-                                + " (sweep " + sweep + ")");
-                    } else {
-                        byChannel.put(channel.getName(), channelVideos);
-                    }
-                } catch (Exception e) {
-                    stillPending.add(channel);
-                    logChannelFailure(channel, sweep, e);
+            try {
+                List<YouTubeVideo> channelVideos = fetchVideosFromChannel(channel, limit);
+                if (!channelVideos.isEmpty()) {
+                    return channelVideos;
+                }
+                // A 200 with nothing usable is as bad as a failure for our purposes:
+                // the channel would be missing from the newsletter either way.
+                RunLog.println("No usable videos from " + channel.getName()
+                        + " (sweep " + sweep + ")");
+            } catch (Exception e) {
+                logChannelFailure(channel, sweep, e);
+                if (RunBudget.exhausted(e)) {
+                    break;
                 }
             }
-            pending = stillPending;
-        }
-
-        List<String> missingChannels = pending.stream().map(ChannelInfo::getName).toList();
-
-        if (byChannel.isEmpty()) {
-            throw new YouTubeUnavailableException(
-                    "all " + CHANNELS.size() + " channel feeds failed after retries ("
-                            + String.join(", ", missingChannels) + ")");
         }
-
-        return new FetchResult(selectVideos(byChannel, limit), new ArrayList<>(missingChannels));
+        return List.of();
     }
 
     /**
@@ -212,14 +248,14 @@ public class YouTubeService {
     }
 
     private void logChannelFailure(ChannelInfo channel, int sweep, Exception e) {
-        System.err.println("Failed to fetch videos from " + channel.getName() + " (sweep " + sweep
+        RunLog.println("Failed to fetch videos from " + channel.getName() + " (sweep " + sweep
                 + "): " + e.getClass().getSimpleName() + ": " + e.getMessage());
         Throwable root = e;
         while (root.getCause() != null && root.getCause() != root) {
             root = root.getCause();
         }
         if (root != e) {
-            System.err.println("  root cause: " + root.getClass().getName() + ": " + root.getMessage());
+            RunLog.println("  root cause: " + root.getClass().getName() + ": " + root.getMessage());
         }
     }
 
@@ -253,19 +289,41 @@ public class YouTubeService {
         String rssUrl = feedBaseUrl + "?channel_id=" + channel.getChannelId();
 
         try {
-            String rssContent = RetryUtils.executeWithRetry(new Callable<String>() {
-                @Override
-                public String call() {
-                    return webClient.get()
-                            .uri(rssUrl)
-                            .retrieve()
-                            .bodyToMono(String.class)
-                            .timeout(Duration.ofSeconds(30))
-                            .block();
-                }
-            }, maxAttempts, initialBackoff, RETRY_PREDICATE);
+            Callable<HttpFetcher.Response> download = () -> RunMetrics.fetch(RunMetrics.YOUTUBE,
+                    () -> RetryUtils.executeWithRetry(httpFetcher.hostGuards(), httpFetcher.retryTelemetry(),
+                            rssUrl, new Callable<HttpFetcher.Response>() {
+                        @Override
+                        public HttpFetcher.Response call() {
+                            return hedger.hedge(() -> httpFetcher.get(rssUrl, MAX_FEED_BYTES))
+                                    .timeout(RunBudget.timeout(Duration.ofSeconds(30)))
+                                    .block();
+                        }
+                    }, maxAttempts, initialBackoff, RETRY_PREDICATE));
+
+            // A channel in an outage is read from its last good copy, if there is a recent enough
+            // one; that ends its sweeps, which only exist to wait the outage out.
+            return httpFetcher.lastKnownGood().fetch(RunMetrics.YOUTUBE, rssUrl, download, RETRY_PREDICATE,
+                    response -> RunMetrics.parse(RunMetrics.YOUTUBE,
+                            () -> parseVideos(response.body(), limit, channel.getName())));
+
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch videos from " + channel.getName() + ": " + e.getMessage(), e);
+        }
+    }
 
-            SyndFeed feed = parseRssContent(rssContent);
+    /**
+     * The first {@code limit} non-Shorts entries of a channel feed. The streaming parser stops
+     * reading once it has them; a feed it does not handle goes through ROME instead.
+     */
+    List<YouTubeVideo> parseVideos(byte[] xmlContent, int limit, String channelName) {
+        try {
+            return FeedParser.parse(xmlContent, limit, entry -> !isShort(entry.link())).stream()
+                    .map(entry -> new YouTubeVideo(entry.title(), entry.link(), channelName,
+                            entry.published() == null ? null
+                                    : LocalDateTime.ofInstant(entry.published(), ZoneId.systemDefault())))
+                    .collect(Collectors.toList());
+        } catch (XMLStreamException | FeedParser.UnsupportedFeedException e) {
+            SyndFeed feed = parseRssContent(xmlContent);
             if (feed == null) {
                 return new ArrayList<>();
             }
@@ -273,24 +331,22 @@ public class YouTubeService {
             return feed.getEntries().stream()
                     .filter(entry -> !isShort(entry))
                     .limit(limit)
-                    .map(entry -> convertToYouTubeVideo(entry, channel.getName()))
+                    .map(entry -> convertToYouTubeVideo(entry, channelName))
                     .collect(Collectors.toList());
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch videos from " + channel.getName() + ": " + e.getMessage(), e);
         }
     }
 
     static boolean isShort(SyndEntry entry) {
-        String link = entry.getLink();
+        return isShort(entry.getLink());
+    }
+
+    static boolean isShort(String link) {
         return link != null && link.contains("/shorts/");
     }
 
-    private SyndFeed parseRssContent(String xmlContent) {
+    private SyndFeed parseRssContent(byte[] xmlContent) {
         try {
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(
-                    xmlContent.getBytes(StandardCharsets.UTF_8));
-            XmlReader xmlReader = new XmlReader(inputStream);
+            XmlReader xmlReader = new XmlReader(new ByteArrayInputStream(xmlContent));
             SyndFeedInput input = new SyndFeedInput();
             return input.build(xmlReader);
         } catch (Exception e) {
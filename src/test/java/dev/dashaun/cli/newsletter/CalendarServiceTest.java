@@ -1,10 +1,14 @@
 package dev.dashaun.cli.newsletter;
 
+import com.github.tomakehurst.wiremock.WireMockServer;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.junit.jupiter.api.Assertions.*;
 
 class CalendarServiceTest {
@@ -138,4 +142,139 @@ class CalendarServiceTest {
         
         assertEquals(summary, event.getOriginalSummary());
     }
+
+    @Test
+    void shouldServeRecentAndUpcomingFromOneDownload() {
+        LocalDate today = LocalDate.now();
+        String ical = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//test//EN\r\n"
+                + event("1", today.minusDays(3), "Spring Boot 3.5.1 (Enterprise)")
+                + event("2", today.minusDays(30), "Spring Boot 3.4.9 (Enterprise)")
+                + event("3", today.plusDays(5), "Spring Framework 7.0.1")
+                + event("4", today.plusDays(2), "Spring Security 7.0.1")
+                + event("5", today.plusDays(1), "Team planning meeting")
+                + "END:VCALENDAR\r\n";
+        WireMockServer wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+        try {
+            wireMock.stubFor(get(urlEqualTo("/ical")).willReturn(aResponse().withStatus(200).withBody(ical)));
+            CalendarService service = new CalendarService();
+            String url = wireMock.baseUrl() + "/ical";
+
+            List<CalendarService.ReleaseEvent> recent = service.fetchRecentReleases(url, 7);
+            List<CalendarService.ReleaseEvent> upcoming = service.fetchUpcomingReleases(url, 10);
+
+            assertEquals(List.of("Spring Boot 3.5.1 (Enterprise)"),
+                    recent.stream().map(CalendarService.ReleaseEvent::getOriginalSummary).toList());
+            assertEquals(List.of("Spring Security 7.0.1", "Spring Framework 7.0.1"),
+                    upcoming.stream().map(CalendarService.ReleaseEvent::getOriginalSummary).toList());
+            assertEquals(4, service.snapshot(url).size());
+            wireMock.verify(1, getRequestedFor(urlEqualTo("/ical")));
+        } finally {
+            wireMock.stop();
+        }
+    }
+
+    @Test
+    void shouldScanWiderWindowFromHeldDownload() {
+        LocalDate today = LocalDate.now();
+        String ical = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//test//EN\r\n"
+                + event("1", today.minusDays(200), "Spring Boot 3.2.9 (Enterprise)")
+                + event("2", today.minusDays(3), "Spring Boot 3.5.1 (Enterprise)")
+                + "END:VCALENDAR\r\n";
+        WireMockServer wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+        try {
+            wireMock.stubFor(get(urlEqualTo("/ical")).willReturn(aResponse().withStatus(200).withBody(ical)));
+            CalendarService service = new CalendarService();
+            String url = wireMock.baseUrl() + "/ical";
+
+            assertEquals(1, service.snapshot(url).size(), "the default window reaches a month back");
+            assertEquals(List.of("Spring Boot 3.2.9 (Enterprise)", "Spring Boot 3.5.1 (Enterprise)"),
+                    summaries(service.fetchRecentReleases(url, 365)));
+            wireMock.verify(1, getRequestedFor(urlEqualTo("/ical")));
+        } finally {
+            wireMock.stop();
+        }
+    }
+
+    @Test
+    void shouldDownloadAgainAfterAFailedDownload() {
+        LocalDate today = LocalDate.now();
+        String ical = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//test//EN\r\n"
+                + event("1", today.minusDays(3), "Spring Boot 3.5.1 (Enterprise)")
+                + "END:VCALENDAR\r\n";
+        WireMockServer wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+        try {
+            wireMock.stubFor(get(urlEqualTo("/ical")).willReturn(aResponse().withStatus(404)));
+            CalendarService service = new CalendarService();
+            String url = wireMock.baseUrl() + "/ical";
+
+            assertThrows(RuntimeException.class, () -> service.snapshot(url));
+            wireMock.stubFor(get(urlEqualTo("/ical")).willReturn(aResponse().withStatus(200).withBody(ical)));
+
+            assertEquals(1, service.snapshot(url).size());
+            wireMock.verify(2, getRequestedFor(urlEqualTo("/ical")));
+        } finally {
+            wireMock.stop();
+        }
+    }
+
+    @Test
+    void scanShouldMatchFullParseInsideWindow() throws Exception {
+        LocalDate from = LocalDate.of(2025, 6, 1);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+        String ical = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//test//EN\r\n"
+                + event("1", LocalDate.of(2025, 5, 31), "Spring Boot 3.5.0")
+                + event("2", from, "Spring Boot 3.5.1 (Enterprise)")
+                + "BEGIN:VEVENT\r\nUID:3\r\nDTSTAMP:20250101T000000Z\r\nDTSTART:20250610T090000\r\n"
+                + "SUMMARY:Spring Data 2025.0.1\r\nEND:VEVENT\r\n"
+                + "BEGIN:VEVENT\r\nUID:4\r\nDTSTAMP:20250101T000000Z\r\nDTSTART:20250612T090000Z\r\n"
+                + "SUMMARY:Spring Kafka 4.0.0\r\nEND:VEVENT\r\n"
+                + "BEGIN:VEVENT\r\nUID:5\r\nDTSTAMP:20250101T000000Z\r\nDTSTART;VALUE=DATE:20250615\r\n"
+                + "SUMMARY:Spring Framework 6.2.9 \r\n (Enterprise)\r\n"
+                + "BEGIN:VALARM\r\nACTION:DISPLAY\r\nSUMMARY:Spring Reminder 1.0\r\nTRIGGER:-PT15M\r\nEND:VALARM\r\n"
+                + "END:VEVENT\r\n"
+                + event("6", LocalDate.of(2025, 6, 20), "Spring Batch 5.2.3\\, 5.1.4")
+                + event("7", to, "Spring Cloud 2025.0.0")
+                + event("8", to, "Spring AI 1.0.1")
+                + event("9", LocalDate.of(2025, 7, 1), "Spring Shell 3.4.1")
+                + "END:VCALENDAR\r\n";
+        CalendarService service = new CalendarService();
+
+        CalendarSnapshot full = service.parseSnapshot(ical);
+        CalendarSnapshot scanned = service.scanSnapshot(ical, from, to);
+
+        assertEquals(summaries(full.community(from, to)), summaries(scanned.community(from, to)));
+        assertEquals(summaries(full.enterprise(from, to)), summaries(scanned.enterprise(from, to)));
+        assertEquals(List.of("Spring Boot 3.5.1 (Enterprise)", "Spring Framework 6.2.9 (Enterprise)"),
+                summaries(scanned.enterprise(from, to)));
+        assertTrue(scanned.covers(from, to));
+        assertFalse(scanned.covers(from.minusDays(1), to));
+    }
+
+    @Test
+    void snapshotWindowsShouldIncludeBothEndsAndKeepSameDayOrder() {
+        LocalDate day = LocalDate.of(2025, 6, 10);
+        CalendarSnapshot snapshot = new CalendarSnapshot(List.of(), List.of(
+                new CalendarService.ReleaseEvent("B", "1.0", day.plusDays(1), "b"),
+                new CalendarService.ReleaseEvent("A", "1.0", day, "a1"),
+                new CalendarService.ReleaseEvent("A", "1.1", day, "a2"),
+                new CalendarService.ReleaseEvent("C", "1.0", day.plusDays(3), "c")));
+
+        assertEquals(List.of("a1", "a2", "b"), summaries(snapshot.community(day, day.plusDays(1))));
+        assertEquals(List.of("b", "c"), summaries(snapshot.community(day.plusDays(1), day.plusDays(30))));
+        assertEquals(List.of(), summaries(snapshot.community(day.plusDays(2), day.plusDays(2))));
+        assertEquals(List.of(), summaries(snapshot.enterprise(day, day.plusDays(30))));
+    }
+
+    private static List<String> summaries(List<CalendarService.ReleaseEvent> events) {
+        return events.stream().map(CalendarService.ReleaseEvent::getOriginalSummary).toList();
+    }
+
+    private static String event(String uid, LocalDate date, String summary) {
+        return "BEGIN:VEVENT\r\nUID:" + uid + "\r\nDTSTAMP:20250101T000000Z\r\n"
+                + "DTSTART;VALUE=DATE:" + date.format(DateTimeFormatter.BASIC_ISO_DATE) + "\r\n"
+                + "SUMMARY:" + summary + "\r\nEND:VEVENT\r\n";
+    }
 }
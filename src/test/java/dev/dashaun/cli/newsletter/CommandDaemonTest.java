@@ -0,0 +1,220 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandDaemonTest {
+
+    private static final String DOC = """
+            # August 13
+
+            ## News:
+            - [Some news](https://example.com/news)
+
+            ## YouTube:
+
+            - [Yesterday's video](https://youtube.com/watch?v=OLD) - Coffee + Software
+            """;
+
+    private Path directory;
+    private CommandDaemon daemon;
+    private Thread serving;
+    private boolean youTubeUp;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("newsletter-daemon");
+        Files.writeString(directory.resolve("update.md"), DOC);
+
+        YouTubeService youTube = new YouTubeService() {
+            @Override
+            public FetchResult fetchLatest(int limit) {
+                if (!youTubeUp) {
+                    FanOut.map(List.of("channel"), 1, feeds -> {
+                        RunLog.println("Giving up on the " + feeds + " feeds");
+                        return feeds;
+                    });
+                    try {
+                        Thread.ofPlatform().start(() -> RunLog.println("Meanwhile, on another thread")).join();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    throw new YouTubeUnavailableException("all 3 channel feeds failed after retries");
+                }
+                return new FetchResult(List.of(new YouTubeVideo("A Brand New Video",
+                        "https://youtube.com/watch?v=NEW", "Coffee + Software", null)), List.of());
+            }
+        };
+        ExitCodeTracker exitCodeTracker = new ExitCodeTracker();
+        RunReport report = new RunReport();
+        DocumentCommands commands = new DocumentCommands(null, new DocumentService(), null, youTube, null,
+                exitCodeTracker, report, LastKnownGood.disabled());
+        daemon = new CommandDaemon(commands, exitCodeTracker, report, new RetryTelemetry(), LastKnownGood.disabled(),
+                new CalendarService(), directory.resolve("daemon.sock").toString());
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        daemon.stop();
+        if (serving != null) {
+            serving.join(5000);
+        }
+    }
+
+    private void start() throws Exception {
+        serving = Thread.ofVirtual().start(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        for (int i = 0; i < 100 && !CommandClient.listening(daemon.socket()); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(CommandClient.listening(daemon.socket()), "daemon did not start listening");
+    }
+
+    @Test
+    void shouldRunEachCommandAsItsOwnRun() {
+        CommandDaemon.Reply outage = daemon.run(directory, List.of("update-youtube", "--filename", "update.md"));
+        assertEquals(1, outage.exitCode());
+        assertTrue(outage.output().contains("YouTube section left unchanged"), outage.output());
+
+        youTubeUp = true;
+        CommandDaemon.Reply recovered = daemon.run(directory, List.of("update-youtube", "--filename=update.md"));
+        assertEquals(0, recovered.exitCode(), "the earlier failure belongs to the earlier command");
+    }
+
+    @Test
+    void shouldResolveARelativeFilenameAgainstTheClientsDirectory() throws IOException {
+        youTubeUp = true;
+
+        daemon.run(directory, List.of("update-youtube", "--filename", "update.md", "--limit", "5"));
+
+        assertTrue(Files.readString(directory.resolve("update.md")).contains("A Brand New Video"));
+    }
+
+    @Test
+    void shouldTakeValuesWithoutNamesInTheOrderTheOptionsAreDeclared() throws IOException {
+        youTubeUp = true;
+
+        CommandDaemon.Reply reply = daemon.run(directory, List.of("update-youtube", "update.md", "5"));
+
+        assertEquals(0, reply.exitCode(), reply.output());
+        assertTrue(Files.readString(directory.resolve("update.md")).contains("A Brand New Video"));
+        assertEquals(0, daemon.run(directory, List.of("update-youtube", "--limit", "5", "update.md")).exitCode(),
+                "a named option leaves the next value to the next option");
+    }
+
+    @Test
+    void shouldRejectCommandLinesItCannotRun() {
+        assertEquals(CommandDaemon.USAGE, daemon.run(directory, List.of("no-such-command")).exitCode());
+        assertEquals(CommandDaemon.USAGE, daemon.run(directory, List.of("update-youtube", "--limt", "5")).exitCode());
+        assertEquals(CommandDaemon.USAGE,
+                daemon.run(directory, List.of("update-youtube", "update.md", "5", "extra")).exitCode());
+
+        CommandDaemon.Reply notANumber = daemon.run(directory, List.of("update-youtube", "--limit", "many"));
+        assertEquals(CommandDaemon.USAGE, notANumber.exitCode());
+        assertEquals("--limit takes a number, got 'many'", notANumber.output());
+    }
+
+    @Test
+    void shouldLeaveTheShellsOwnCommandsToTheShell() {
+        assertTrue(CommandDaemon.runs(List.of("update-youtube", "--limit=5", "update.md")));
+        assertFalse(CommandDaemon.runs(List.of()));
+        assertFalse(CommandDaemon.runs(List.of("help")));
+        assertFalse(CommandDaemon.runs(List.of("version")));
+        assertFalse(CommandDaemon.runs(List.of("--spring.main.banner-mode=off")));
+    }
+
+    @Test
+    void shouldLeaveCommandLinesThatSetPropertiesToAFreshContext() {
+        assertFalse(CommandDaemon.runs(List.of("update-youtube", "--newsletter.unchanged-exit-code=0")));
+        assertFalse(CommandDaemon.runs(List.of("preview-news", "--newsletter.http-cache.enabled", "false")));
+    }
+
+    @Test
+    void shouldAnswerAClientOverTheSocket() throws Exception {
+        start();
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+
+        Integer exitCode = CommandClient.forward(daemon.socket(),
+                List.of("show", "--filename", directory.resolve("update.md").toString()),
+                new PrintStream(printed, true, StandardCharsets.UTF_8), System.err);
+
+        assertEquals(0, exitCode);
+        assertTrue(printed.toString(StandardCharsets.UTF_8).contains("Yesterday's video"));
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(daemon.socket())));
+    }
+
+    @Test
+    void shouldNotLetAClientThatSendsNothingHoldUpTheNextOne() throws Exception {
+        start();
+
+        try (SocketChannel idle = SocketChannel.open(UnixDomainSocketAddress.of(daemon.socket()))) {
+            Integer exitCode = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> CommandClient.forward(
+                    daemon.socket(), List.of("show", "--filename", directory.resolve("update.md").toString()),
+                    new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8), System.err));
+
+            assertEquals(0, exitCode);
+        }
+    }
+
+    @Test
+    void shouldRefuseASocketInADirectoryOtherUsersCanWriteTo() throws IOException {
+        Path shared = Files.createDirectory(directory.resolve("shared"));
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxrwx"));
+        CommandDaemon exposed = new CommandDaemon(null, new ExitCodeTracker(), new RunReport(), new RetryTelemetry(),
+                LastKnownGood.disabled(), new CalendarService(), shared.resolve("daemon.sock").toString());
+
+        assertThrows(IllegalStateException.class, exposed::serve);
+        assertFalse(Files.exists(shared.resolve("daemon.sock")));
+    }
+
+    @Test
+    void shouldSendWhatTheCommandLoggedToTheClient() throws Exception {
+        start();
+        ByteArrayOutputStream logged = new ByteArrayOutputStream();
+
+        Integer exitCode = CommandClient.forward(daemon.socket(),
+                List.of("update-youtube", "--filename", directory.resolve("update.md").toString()),
+                new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8),
+                new PrintStream(logged, true, StandardCharsets.UTF_8));
+
+        assertEquals(1, exitCode);
+        assertTrue(logged.toString(StandardCharsets.UTF_8).contains("Giving up on the channel feeds"),
+                logged.toString(StandardCharsets.UTF_8));
+        assertFalse(logged.toString(StandardCharsets.UTF_8).contains("exited 1"),
+                "the daemon's own log line stays in the daemon");
+        assertFalse(logged.toString(StandardCharsets.UTF_8).contains("Meanwhile, on another thread"),
+                "only what is written for the command is the command's");
+    }
+
+    @Test
+    void shouldLeaveTheCommandToTheCallerWhenNoDaemonIsListening() throws Exception {
+        start();
+        daemon.stop();
+        serving.join(5000);
+        assertFalse(Files.exists(daemon.socket()), "the socket is removed on shutdown");
+
+        // A socket file that outlived its daemon is no daemon either.
+        Files.createFile(daemon.socket());
+        assertNull(CommandClient.forward(daemon.socket(), List.of("show"), System.out, System.err));
+    }
+}
@@ -2,10 +2,14 @@ package dev.dashaun.cli.newsletter;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -102,6 +106,23 @@ class DocumentCommandsTest {
         assertFalse(content.contains("Yesterday's video"), "a successful fetch replaces the old list");
     }
 
+    @Test
+    void shouldReportUnchangedExitCodeWhenNothingNewWasWritten() throws IOException {
+        YouTubeService working = serviceReturning(new YouTubeService.FetchResult(
+                List.of(new YouTubeService.YouTubeVideo("A Brand New Video",
+                        "https://youtube.com/watch?v=NEW", "Dan Vega", null)),
+                List.of()));
+        commandsWith(working).updateYouTube(testFile.toString(), 10);
+        assertEquals(0, exitCodeTracker.getExitCode(), "the first run changed the document");
+
+        // The next scheduled run finds the same videos.
+        exitCodeTracker = new ExitCodeTracker();
+        commandsWith(working).updateYouTube(testFile.toString(), 10);
+
+        assertEquals(3, exitCodeTracker.getExitCode(),
+                "an identical document must be distinguishable from an updated one");
+    }
+
     @Test
     void shouldFailTheRunWhenAChannelIsMissingButStillPublishWhatItGot() throws IOException {
         YouTubeService partial = serviceReturning(new YouTubeService.FetchResult(
@@ -117,4 +138,189 @@ class DocumentCommandsTest {
         assertTrue(Files.readString(testFile).contains("A Brand New Video"),
                 "the videos we did get are still worth publishing");
     }
+
+    @Test
+    void shouldPublishButFlagASectionServedFromTheLastKnownGoodCopy() throws IOException {
+        String listing = "https://api.github.com/orgs/dashaun-tanzu/repos?type=public&per_page=100";
+        LastKnownGood store = new LastKnownGood(Files.createTempDirectory("newsletter-last-known-good"),
+                Duration.ofDays(3), Clock.systemUTC());
+        store.remember(listing, new HttpFetcher.Response("[]".getBytes(StandardCharsets.UTF_8),
+                new HttpHeaders(), false, true));
+        GitHubService unreachable = new GitHubService() {
+            @Override
+            public List<DemoRepository> fetchDemoRepositories() {
+                try {
+                    store.recall(RunMetrics.GITHUB, listing, new IOException("Connection refused"));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                return List.of(new DemoRepository("kept-demo", "Kept", "https://github.com/example", null));
+            }
+        };
+        RunReport report = new RunReport();
+
+        String message = new DocumentCommands(null, documentService, null, null, unreachable, exitCodeTracker,
+                report, store).updateGitHubDemos(testFile.toString());
+
+        assertTrue(message.contains("(stale: served from last known good copy of " + listing), message);
+        assertEquals(0, exitCodeTracker.getExitCode(), "stale content within the limit is not a failed run");
+        assertEquals(RunReport.Status.DEGRADED, report.sections().get(0).status());
+        assertTrue(Files.readString(testFile).contains("kept-demo"));
+    }
+
+    /** Every source answers after {@code delay}; only YouTube's answer is configurable. */
+    private DocumentCommands slowSources(Duration delay, YouTubeService youTubeService) {
+        return slowSources(delay, youTubeService, new RunReport());
+    }
+
+    private DocumentCommands slowSources(Duration delay, YouTubeService youTubeService, RunReport report) {
+        RssService rss = new RssService() {
+            @Override
+            public List<RssService.NewsItem> fetchLatestNews(List<String> rssUrls, int limit, int maxConcurrency) {
+                sleep(delay);
+                return List.of(new RssService.NewsItem("Fresh news", "https://example.com/fresh", null));
+            }
+        };
+        CalendarService calendar = new CalendarService() {
+            @Override
+            public List<ReleaseEvent> fetchRecentReleases(String calendarUrl, int daysPast) {
+                sleep(delay);
+                return List.of();
+            }
+
+            @Override
+            public List<ReleaseEvent> fetchUpcomingReleases(String calendarUrl, int daysAhead) {
+                sleep(delay);
+                return List.of();
+            }
+        };
+        GitHubService gitHub = new GitHubService() {
+            @Override
+            public List<DemoRepository> fetchDemoRepositories() {
+                sleep(delay);
+                return List.of(new DemoRepository("fresh-demo", "Fresh", "https://github.com/example", null));
+            }
+        };
+        return new DocumentCommands(rss, documentService, calendar, youTubeService, gitHub, exitCodeTracker, report,
+                LastKnownGood.disabled());
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String fullUpdate(DocumentCommands commands, boolean parallel) {
+        return fullUpdate(commands, parallel, 600);
+    }
+
+    private String fullUpdate(DocumentCommands commands, boolean parallel, int budgetSeconds) {
+        return commands.fullUpdate(testFile.toString(), "https://example.com/feed.atom",
+                "https://example.com/ical", 8, 7, 10, 10, parallel, 4, budgetSeconds);
+    }
+
+    @Test
+    void parallelFullUpdateShouldTakeAboutAsLongAsTheSlowestSource() throws IOException {
+        Duration delay = Duration.ofMillis(400);
+        YouTubeService youTube = new YouTubeService() {
+            @Override
+            public FetchResult fetchLatest(int limit) {
+                sleep(delay);
+                return new FetchResult(List.of(new YouTubeVideo("A Brand New Video",
+                        "https://youtube.com/watch?v=NEW", "Dan Vega", null)), List.of());
+            }
+        };
+
+        long start = System.nanoTime();
+        String message = fullUpdate(slowSources(delay, youTube), true);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(message.contains("Document fully updated"), "unexpected message: " + message);
+        // Five fetches of 400ms each: serially that is 2s, concurrently a little over 400ms.
+        assertTrue(elapsed.compareTo(Duration.ofMillis(1500)) < 0, "took " + elapsed.toMillis() + "ms");
+        assertEquals(0, exitCodeTracker.getExitCode());
+
+        String content = Files.readString(testFile);
+        assertTrue(content.contains("Fresh news"));
+        assertTrue(content.contains("A Brand New Video"));
+        assertTrue(content.contains("fresh-demo"));
+        assertTrue(content.indexOf("Fresh news") < content.indexOf("A Brand New Video"),
+                "sections must stay in document order");
+    }
+
+    @Test
+    void parallelFullUpdateShouldReportAYouTubeOutageLikeTheSequentialOne() throws IOException {
+        String sequential = fullUpdate(slowSources(Duration.ZERO, unavailableService()), false);
+        int sequentialExit = exitCodeTracker.getExitCode();
+
+        Files.writeString(testFile, EXISTING_DOC);
+        exitCodeTracker = new ExitCodeTracker();
+        String parallel = fullUpdate(slowSources(Duration.ZERO, unavailableService()), true);
+
+        assertEquals(sequential, parallel);
+        assertEquals(1, sequentialExit);
+        assertEquals(1, exitCodeTracker.getExitCode());
+        String content = Files.readString(testFile);
+        assertTrue(content.contains("Yesterday's video"), "the previous video list must survive an outage");
+        assertTrue(content.contains("fresh-demo"), "sections after YouTube are still written");
+    }
+
+    @Test
+    void fullUpdateShouldReportEverySectionsStatus() {
+        RunReport report = new RunReport();
+
+        fullUpdate(slowSources(Duration.ZERO, unavailableService(), report), true);
+
+        List<RunReport.Section> sections = report.sections();
+        assertEquals(List.of("news", "recent-releases", "upcoming-releases", "youtube", "demos"),
+                sections.stream().map(RunReport.Section::name).toList());
+        assertEquals(RunReport.Status.OK, sections.get(0).status());
+        assertEquals(1, sections.get(0).items());
+        assertEquals(RunReport.Status.FAILED, sections.get(3).status());
+        assertTrue(sections.get(3).message().contains("all 3 channel feeds failed"));
+        assertEquals(RunReport.Status.OK, sections.get(4).status());
+    }
+
+    @Test
+    void fullUpdateShouldLeaveASectionThatRunsOutOfBudgetUnchanged() throws IOException {
+        YouTubeService stuck = new YouTubeService() {
+            @Override
+            public FetchResult fetchLatest(int limit) {
+                sleep(Duration.ofSeconds(30));
+                return new FetchResult(List.of(), List.of());
+            }
+        };
+        RunReport report = new RunReport();
+
+        long start = System.nanoTime();
+        String message = fullUpdate(slowSources(Duration.ZERO, stuck, report), true, 1);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(message.contains("✗ youtube section left unchanged: run budget exhausted"), message);
+        assertTrue(message.contains("Document fully updated"), message);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(5)) < 0, "took " + elapsed.toMillis() + "ms");
+        assertEquals(1, exitCodeTracker.getExitCode());
+        assertEquals(RunReport.Status.DEGRADED, report.sections().get(3).status());
+        String content = Files.readString(testFile);
+        assertTrue(content.contains("Yesterday's video"), "the previous video list must survive");
+        assertTrue(content.contains("fresh-demo"), "sections after YouTube are still written");
+    }
+
+    @Test
+    void parallelFullUpdateShouldAbortOnTheSameSectionAsTheSequentialOne() {
+        DocumentCommands commands = new DocumentCommands(new RssService() {
+            @Override
+            public List<RssService.NewsItem> fetchLatestNews(List<String> rssUrls, int limit, int maxConcurrency) {
+                throw new RuntimeException("Failed to fetch RSS feed: boom");
+            }
+        }, documentService, null, unavailableService(), null, exitCodeTracker);
+
+        // The remaining services are null: in parallel mode their fetches fail too, but the
+        // news failure is the one reported because news is applied first.
+        assertEquals("Error during full update: Failed to fetch RSS feed: boom", fullUpdate(commands, true));
+    }
 }
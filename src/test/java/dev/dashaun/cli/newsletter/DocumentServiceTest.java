@@ -8,9 +8,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -207,6 +209,100 @@ class DocumentServiceTest {
         assertFalse(content.contains("\n\n\n"), "Should not have 3 or more consecutive blank lines");
     }
 
+    @Test
+    void shouldKeepNextHeadingWhenUpdatingEmptySection() throws IOException {
+        documentService.createNewDocument(testFile.toString());
+
+        documentService.updateNewsSection(testFile.toString(), List.of(
+            new RssService.NewsItem("Test News", "http://example.com", LocalDate.now().atStartOfDay())
+        ));
+        documentService.updateReleasesComingSoon(testFile.toString(), List.of(
+            new CalendarService.ReleaseEvent("Spring Boot", "3.3.0", LocalDate.of(2024, 5, 23), "Spring Boot 3.3.0")
+        ));
+
+        String content = Files.readString(testFile);
+        assertTrue(content.contains("## News:\n\n- [Test News](http://example.com)\n\n## Recent Enterprise Releases:\n"));
+        assertTrue(content.contains("## Releases coming soon:\n\n- Spring Boot 3.3.0 (May 23)\n\n## YouTube:\n"));
+    }
+
+    @Test
+    void shouldApplyBatchEditInOneWrite() throws IOException {
+        Files.writeString(testFile, """
+                # May 23
+
+                ## News:
+
+                - [Old](http://example.com/old)
+
+                ## YouTube:
+
+                - [Old video](http://youtube.com/old) - Channel
+
+                ## Demos:
+
+                """);
+
+        documentService.edit(testFile.toString(), document -> {
+            document.updateNews(List.of(
+                new RssService.NewsItem("New", "http://example.com/new", LocalDate.now().atStartOfDay())));
+            document.updateYouTube(List.of(
+                new YouTubeService.YouTubeVideo("New video", "http://youtube.com/new", "Channel", LocalDateTime.now())));
+            document.addEnterpriseReleases(List.of(
+                new CalendarService.ReleaseEvent("Spring Boot", "3.3.0", LocalDate.of(2024, 5, 23), "Spring Boot 3.3.0")));
+        });
+
+        assertEquals("""
+                # May 23
+
+                ## News:
+
+                - [New](http://example.com/new)
+
+                ## Recent Enterprise Releases:
+
+                - May 23
+                  - Spring Boot 3.3.0
+
+                ## YouTube:
+
+                - [New video](http://youtube.com/new) - Channel
+
+                ## Demos:
+
+                """, Files.readString(testFile));
+    }
+
+    @Test
+    void shouldLeaveDocumentUntouchedWhenEditFails() throws IOException {
+        documentService.createNewDocument(testFile.toString());
+        String before = Files.readString(testFile);
+
+        assertThrows(IOException.class, () -> documentService.edit(testFile.toString(), document -> {
+            document.updateNews(List.of(
+                new RssService.NewsItem("Test News", "http://example.com", LocalDate.now().atStartOfDay())));
+            throw new IOException("feed unavailable");
+        }));
+
+        assertEquals(before, Files.readString(testFile));
+    }
+
+    @Test
+    void shouldNotRewriteUnchangedDocument() throws IOException {
+        List<RssService.NewsItem> newsItems = List.of(
+            new RssService.NewsItem("Test News", "http://example.com", LocalDate.now().atStartOfDay())
+        );
+        assertTrue(documentService.updateNewsSection(testFile.toString(), newsItems));
+        FileTime written = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(testFile, written);
+
+        assertFalse(documentService.updateNewsSection(testFile.toString(), newsItems));
+
+        assertEquals(written, Files.getLastModifiedTime(testFile), "an unchanged document must not be touched");
+        try (Stream<Path> files = Files.list(testDir)) {
+            assertEquals(List.of(testFile), files.toList(), "no temporary files may be left behind");
+        }
+    }
+
     @Test
     void shouldHandleNullFilename() throws IOException {
         Path testDefaultFile = testDir.resolve("spring-update.md");
@@ -0,0 +1,63 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutTest {
+
+    @Test
+    void shouldReturnResultsInInputOrderWhateverOrderTheyFinishIn() {
+        List<Integer> delays = List.of(300, 0, 150, 50);
+
+        List<String> results = FanOut.map(delays, 4, delay -> {
+            sleep(delay);
+            return "done after " + delay;
+        });
+
+        assertEquals(List.of("done after 300", "done after 0", "done after 150", "done after 50"), results);
+    }
+
+    @Test
+    void shouldNeverRunMoreThanTheCapAtOnce() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        FanOut.map(List.of(1, 2, 3, 4, 5, 6, 7, 8), 3, i -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(50);
+            running.decrementAndGet();
+            return i;
+        });
+
+        assertTrue(peak.get() <= 3, "peak concurrency was " + peak.get());
+    }
+
+    @Test
+    void shouldRethrowTheFirstFailureInInputOrder() {
+        RuntimeException thrown = assertThrows(RuntimeException.class, () ->
+                FanOut.map(List.of("slow failure", "fast failure"), 2, input -> {
+                    sleep(input.startsWith("slow") ? 200 : 0);
+                    throw new IllegalStateException(input);
+                }));
+
+        assertEquals("slow failure", thrown.getMessage());
+    }
+
+    @Test
+    void shouldRejectANonPositiveCap() {
+        assertThrows(IllegalArgumentException.class, () -> FanOut.map(List.of(1), 0, i -> i));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
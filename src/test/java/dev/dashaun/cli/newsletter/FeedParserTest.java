@@ -0,0 +1,124 @@
+package dev.dashaun.cli.newsletter;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedParserTest {
+
+    private static final String ATOM = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <feed xmlns="http://www.w3.org/2005/Atom" xmlns:media="http://search.yahoo.com/mrss/">
+              <title>Channel</title>
+              <link rel="alternate" href="https://www.youtube.com/channel/X"/>
+              <entry>
+                <title>Short one</title>
+                <link rel="alternate" href="https://www.youtube.com/shorts/S1"/>
+                <published>2026-08-03T12:00:00+00:00</published>
+              </entry>
+              <entry>
+                <title>Café &amp; Spring</title>
+                <link rel="self" href="https://example.com/self"/>
+                <link rel="alternate" href="https://www.youtube.com/watch?v=V1"/>
+                <published>2026-08-02T12:00:00+02:00</published>
+                <media:group><media:title>not this one</media:title></media:group>
+              </entry>
+              <entry>
+                <title>No rel</title>
+                <link href="https://www.youtube.com/watch?v=V2"/>
+                <published>2026-08-01T08:30:00Z</published>
+                <updated>2026-08-01T09:30:00Z</updated>
+              </entry>
+            </feed>
+            """;
+
+    private static final String RSS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <rss version="2.0">
+              <channel>
+                <title>Blog</title>
+                <link>https://spring.io/blog</link>
+                <item>
+                  <title><![CDATA[Spring Boot 4.0.6 available now]]></title>
+                  <link>https://spring.io/blog/boot-4-0-6</link>
+                  <pubDate>Thu, 23 Apr 2026 10:00:00 GMT</pubDate>
+                </item>
+                <item>
+                  <title>With guid</title>
+                  <link>https://spring.io/blog/with-guid</link>
+                  <guid isPermaLink="false">post-1234</guid>
+                  <pubDate>Wed, 22 Apr 2026 09:15:00 +0200</pubDate>
+                </item>
+              </channel>
+            </rss>
+            """;
+
+    @Test
+    void shouldMatchRomeForAtom() throws Exception {
+        assertEquals(rome(ATOM), FeedParser.parse(bytes(ATOM), Integer.MAX_VALUE, entry -> true));
+    }
+
+    @Test
+    void shouldMatchRomeForRss() throws Exception {
+        assertEquals(rome(RSS), FeedParser.parse(bytes(RSS), Integer.MAX_VALUE, entry -> true));
+    }
+
+    @Test
+    void shouldCountOnlyAcceptedEntriesTowardsTheLimit() throws Exception {
+        List<FeedParser.Entry> videos = FeedParser.parse(bytes(ATOM), 1, entry -> !YouTubeService.isShort(entry.link()));
+
+        assertEquals(List.of("https://www.youtube.com/watch?v=V1"), videos.stream().map(FeedParser.Entry::link).toList());
+    }
+
+    @Test
+    void shouldStopReadingOnceTheLimitIsMet() throws Exception {
+        // Everything after the second entry is garbage; a parser that read on would fail.
+        String truncated = ATOM.substring(0, ATOM.indexOf("<entry>", ATOM.indexOf("V1"))) + "<entry><broken";
+
+        assertEquals(2, FeedParser.parse(bytes(truncated), 2, entry -> true).size());
+    }
+
+    @Test
+    void shouldLeaveFeedsItDoesNotHandleToRome() {
+        String rss1 = """
+                <rdf:RDF xmlns:rdf="http://www.w3.org/1999/02/22-rdf-syntax-ns#" xmlns="http://purl.org/rss/1.0/">
+                  <item><title>t</title><link>https://example.com</link></item>
+                </rdf:RDF>
+                """;
+        String lenientDate = RSS.replace("Thu, 23 Apr 2026 10:00:00 GMT", "23 April 2026");
+        String relativeLink = ATOM.replace("https://www.youtube.com/shorts/S1", "/shorts/S1");
+        String updatedOnly = ATOM.replace("<published>2026-08-01T08:30:00Z</published>", "");
+        String guidOnly = RSS.replace("<link>https://spring.io/blog/with-guid</link>", "");
+        String fractionalSeconds = ATOM.replace("2026-08-03T12:00:00+00:00", "2026-08-03T12:00:00.123456+00:00");
+        String paddedLink = RSS.replace("<link>https://spring.io/blog/boot-4-0-6</link>",
+                "<link>\n  https://spring.io/blog/boot-4-0-6\n</link>");
+
+        for (String feed : List.of(rss1, lenientDate, relativeLink, updatedOnly, guidOnly, fractionalSeconds, paddedLink)) {
+            assertThrows(FeedParser.UnsupportedFeedException.class,
+                    () -> FeedParser.parse(bytes(feed), Integer.MAX_VALUE, entry -> true));
+        }
+    }
+
+    private static byte[] bytes(String xml) {
+        return xml.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<FeedParser.Entry> rome(String xml) throws Exception {
+        SyndFeed feed = new SyndFeedInput().build(new XmlReader(new ByteArrayInputStream(bytes(xml))));
+        return feed.getEntries().stream().map(FeedParserTest::toEntry).toList();
+    }
+
+    private static FeedParser.Entry toEntry(SyndEntry entry) {
+        Instant published = entry.getPublishedDate() == null ? null : entry.getPublishedDate().toInstant();
+        return new FeedParser.Entry(entry.getTitle(), entry.getLink(), published);
+    }
+}
@@ -1,10 +1,17 @@
 package dev.dashaun.cli.newsletter;
 
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.junit.jupiter.api.Assertions.*;
 
 class GitHubServiceTest {
@@ -212,6 +219,23 @@ class GitHubServiceTest {
         assertFalse(service.isArchived(jsonResponse, "active-demo"));
     }
 
+    @Test
+    void shouldKeepOnlyActiveDemosInOnePass() throws Exception {
+        String jsonResponse = "[{\"name\":\"spring-app\",\"owner\":{\"html_url\":\"https://github.com/dashaun-tanzu\"},\"archived\":false},"
+                + "{\"archived\":true,\"name\":\"old-demo\",\"description\":\"Old\"},"
+                + "{\"name\":\"quoted-demo\",\"owner\":{\"login\":\"dashaun-tanzu\",\"html_url\":\"https://github.com/dashaun-tanzu\"},"
+                + "\"license\":{\"name\":\"Apache License 2.0\"},\"topics\":[\"spring\",{\"nested\":[1,2]}],"
+                + "\"description\":\"Says \\\"hi\\\" \\u2014 twice\",\"archived\":false}]";
+
+        GitHubService service = new GitHubService();
+        List<GitHubService.DemoRepository> repos = service.readRepositories(jsonResponse.getBytes(), true);
+
+        assertEquals(1, repos.size());
+        assertEquals("quoted-demo", repos.get(0).getName());
+        assertEquals("Says \"hi\" \u2014 twice", repos.get(0).getDescription());
+        assertEquals("https://github.com/dashaun-tanzu/quoted-demo", repos.get(0).getUrl());
+    }
+
     @Test
     void shouldHandleNullJsonResponse() {
         GitHubService service = new GitHubService();
@@ -229,4 +253,60 @@ class GitHubServiceTest {
         
         assertTrue(repos.isEmpty());
     }
+
+    @Test
+    void shouldReadLastPageFromLinkHeader() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.LINK, "<https://api.github.com/organizations/1/repos?type=public&per_page=100&page=2>; rel=\"next\", "
+                + "<https://api.github.com/organizations/1/repos?type=public&per_page=100&page=7>; rel=\"last\"");
+
+        assertEquals(7, GitHubService.lastPage(headers));
+        assertEquals(1, GitHubService.lastPage(new HttpHeaders()));
+    }
+
+    @Nested
+    class Pagination {
+
+        private static final String REPOS = "/orgs/dashaun-tanzu/repos?type=public&per_page=100";
+
+        private WireMockServer wireMock;
+
+        @BeforeEach
+        void startServer() {
+            wireMock = new WireMockServer(options().dynamicPort());
+            wireMock.start();
+        }
+
+        @AfterEach
+        void stopServer() {
+            wireMock.stop();
+        }
+
+        private static String repo(String name, String updatedAt) {
+            return "{\"name\":\"" + name + "\",\"owner\":{\"html_url\":\"https://github.com/dashaun-tanzu\"},"
+                    + "\"description\":\"" + name + "\",\"updated_at\":\"" + updatedAt + "\",\"archived\":false}";
+        }
+
+        @Test
+        void shouldFetchEveryPageNamedByTheLinkHeader() {
+            wireMock.stubFor(get(urlEqualTo(REPOS)).willReturn(aResponse()
+                    .withStatus(200)
+                    .withHeader("Link", "<" + wireMock.baseUrl() + REPOS + "&page=2>; rel=\"next\", <"
+                            + wireMock.baseUrl() + REPOS + "&page=3>; rel=\"last\"")
+                    .withBody("[" + repo("first-demo", "2026-01-01T00:00:00Z") + "," + repo("library", "2026-09-01T00:00:00Z") + "]")));
+            wireMock.stubFor(get(urlEqualTo(REPOS + "&page=2")).willReturn(aResponse()
+                    .withStatus(200)
+                    .withBody("[" + repo("second-demo", "2026-03-01T00:00:00Z") + "]")));
+            wireMock.stubFor(get(urlEqualTo(REPOS + "&page=3")).willReturn(aResponse()
+                    .withStatus(200)
+                    .withBody("[" + repo("third-demo", "2026-02-01T00:00:00Z") + "]")));
+
+            GitHubService service = new GitHubService(HttpFetcher.standalone(), wireMock.baseUrl());
+            List<GitHubService.DemoRepository> repos = service.fetchDemoRepositories();
+
+            assertEquals(List.of("second-demo", "third-demo", "first-demo"),
+                    repos.stream().map(GitHubService.DemoRepository::getName).toList());
+            wireMock.verify(3, getRequestedFor(urlPathEqualTo("/orgs/dashaun-tanzu/repos")));
+        }
+    }
 }
@@ -0,0 +1,175 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostGuardsTest {
+
+    private static final String FEED = "https://www.youtube.com/feeds/videos.xml?channel_id=UC123";
+
+    private final AtomicLong now = new AtomicLong();
+    private HostGuards guards;
+    private HostGuards.Guard youtube;
+
+    @BeforeEach
+    void setUp() {
+        guards = new HostGuards(2, 4, 3, Duration.ofSeconds(15), now::get);
+        youtube = guards.forUrl(FEED);
+    }
+
+    private void succeed() throws Exception {
+        youtube.call(() -> "ok", RetryUtils::isRetryableException, RunBudget.current());
+    }
+
+    private void fail() {
+        assertThrows(IOException.class, () -> youtube.call(() -> {
+            throw new IOException("Connection reset");
+        }, RetryUtils::isRetryableException, RunBudget.current()));
+    }
+
+    @Test
+    void shouldRaiseTheLimitSlowlyAndHalveItOnFailure() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            succeed();
+        }
+        assertEquals(4.0, guards.snapshot().get("www.youtube.com").limit(), "capped at the maximum");
+
+        fail();
+        assertEquals(2.0, guards.snapshot().get("www.youtube.com").limit());
+        fail();
+        fail();
+        assertEquals(1.0, guards.snapshot().get("www.youtube.com").limit(), "never below one");
+    }
+
+    @Test
+    void shouldHalveTheLimitOnceForRequestsThatFailTogether() throws Exception {
+        HostGuards patient = new HostGuards(4, 4, 10, Duration.ofSeconds(15), now::get);
+        HostGuards.Guard guard = patient.forUrl(FEED);
+        CountDownLatch admitted = new CountDownLatch(4);
+        CountDownLatch outage = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> guard.call(() -> {
+                    admitted.countDown();
+                    outage.await();
+                    throw new IOException("Connection reset");
+                }, RetryUtils::isRetryableException, RunBudget.current()));
+            }
+            admitted.await();
+            outage.countDown();
+        }
+
+        assertEquals(2.0, patient.snapshot().get("www.youtube.com").limit(),
+                "four requests in flight when the host went down are one signal, not four");
+        assertThrows(IOException.class, () -> guard.call(() -> {
+            throw new IOException("Connection reset");
+        }, RetryUtils::isRetryableException, RunBudget.current()));
+        assertEquals(1.0, patient.snapshot().get("www.youtube.com").limit(), "a request admitted since does count");
+    }
+
+    @Test
+    void shouldOpenAfterConsecutiveFailuresAndFailFast() throws Exception {
+        fail();
+        fail();
+        succeed();
+        fail();
+        fail();
+        assertEquals(HostGuards.State.CLOSED, guards.snapshot().get("www.youtube.com").state(),
+                "a success in between starts the count again");
+        fail();
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(HostGuards.OpenException.class, () -> youtube.call(calls::incrementAndGet,
+                RetryUtils::isRetryableException, RunBudget.current()));
+        assertEquals(0, calls.get(), "an open breaker does not make the request");
+        assertEquals(1, guards.snapshot().get("www.youtube.com").rejected());
+    }
+
+    @Test
+    void shouldCloseWhenTheHalfOpenProbeSucceedsAndReopenWhenItFails() throws Exception {
+        fail();
+        fail();
+        fail();
+
+        now.addAndGet(Duration.ofSeconds(15).toNanos());
+        fail();
+        assertEquals(HostGuards.State.OPEN, guards.snapshot().get("www.youtube.com").state());
+        assertEquals(2, guards.snapshot().get("www.youtube.com").opened());
+
+        now.addAndGet(Duration.ofSeconds(15).toNanos());
+        succeed();
+        assertEquals(HostGuards.State.CLOSED, guards.snapshot().get("www.youtube.com").state());
+    }
+
+    @Test
+    void shouldLetOnlyOneProbeThroughAtATime() throws Exception {
+        fail();
+        fail();
+        fail();
+        now.addAndGet(Duration.ofSeconds(15).toNanos());
+
+        CountDownLatch probing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> probe = executor.submit(() -> youtube.call(() -> {
+                probing.countDown();
+                release.await();
+                return "ok";
+            }, RetryUtils::isRetryableException, RunBudget.current()));
+            probing.await();
+
+            assertThrows(HostGuards.OpenException.class, this::succeed);
+            release.countDown();
+            assertEquals("ok", probe.get());
+        }
+        assertEquals(HostGuards.State.CLOSED, guards.snapshot().get("www.youtube.com").state());
+    }
+
+    @Test
+    void shouldIgnoreFailuresThatSayNothingAboutTheHost() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalArgumentException.class, () -> youtube.call(() -> {
+                throw new IllegalArgumentException("bad feed");
+            }, RetryUtils::isRetryableException, RunBudget.current()));
+        }
+
+        assertEquals(HostGuards.State.CLOSED, guards.snapshot().get("www.youtube.com").state());
+        assertEquals(2.0, guards.snapshot().get("www.youtube.com").limit());
+    }
+
+    @Test
+    void shouldKeepHostsOnDifferentPortsApart() {
+        assertNotSame(guards.forUrl("http://localhost:8080/a"), guards.forUrl("http://localhost:8081/a"));
+        assertSame(youtube, guards.forUrl("https://www.youtube.com/feeds/videos.xml?channel_id=UC456"));
+    }
+
+    @Test
+    void shouldStopTheRetryLoopOnceTheBreakerIsOpen() {
+        HostGuards shared = new HostGuards();
+        RetryTelemetry telemetry = new RetryTelemetry();
+        String feed = "https://broken.example.com/feed.atom";
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int run = 0; run < 2; run++) {
+            assertThrows(RuntimeException.class, () -> RetryUtils.executeWithRetry(shared, telemetry, feed, () -> {
+                attempts.incrementAndGet();
+                throw new IOException("Connection refused");
+            }, HostGuards.FAILURE_THRESHOLD - 1, Duration.ofMillis(1)));
+        }
+
+        // The second loop made one attempt, the eighth failure in a row, and then failed fast.
+        assertEquals(HostGuards.FAILURE_THRESHOLD, attempts.get());
+        assertEquals(1, telemetry.byHost().get("broken.example.com").circuitOpen());
+    }
+}
@@ -0,0 +1,114 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCacheTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("newsletter-http-cache");
+    }
+
+    private static HttpHeaders validators(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.set(HttpHeaders.LAST_MODIFIED, "Wed, 21 Oct 2026 07:28:00 GMT");
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/atom+xml; charset=UTF-8");
+        headers.set("X-Not-Stored", "noise");
+        return headers;
+    }
+
+    @Test
+    void shouldRoundTripBodyAndValidatorsAcrossInstances() {
+        new HttpCache(directory, 1024 * 1024).put("https://example.com/feed", validators("\"v1\""),
+                "<feed/>".getBytes(StandardCharsets.UTF_8));
+
+        // A new instance over the same directory is what the next CLI run sees.
+        StoredResponse entry = new HttpCache(directory, 1024 * 1024).get("https://example.com/feed");
+
+        assertNotNull(entry);
+        assertEquals("<feed/>", new String(entry.body(), StandardCharsets.UTF_8));
+        assertEquals("\"v1\"", entry.headers().get(HttpHeaders.ETAG));
+        assertFalse(entry.headers().containsKey("X-Not-Stored"));
+    }
+
+    @Test
+    void shouldSendStoredValidatorsOnRevalidation() {
+        HttpCache cache = new HttpCache(directory, 1024 * 1024);
+        cache.put("https://example.com/feed", validators("\"v1\""), new byte[] {1});
+
+        HttpHeaders request = new HttpHeaders();
+        HttpCache.addValidators(cache.get("https://example.com/feed"), request);
+
+        assertEquals("\"v1\"", request.getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("Wed, 21 Oct 2026 07:28:00 GMT", request.getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    @Test
+    void shouldNotStoreResponsesWithoutAValidator() {
+        HttpCache cache = new HttpCache(directory, 1024 * 1024);
+        cache.put("https://example.com/feed", new HttpHeaders(), new byte[] {1});
+
+        assertNull(cache.get("https://example.com/feed"));
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedEntryWhenOverTheCap() throws IOException {
+        // Room for two 400-byte bodies plus their stored URL and headers, not three.
+        HttpCache cache = new HttpCache(directory, 1300);
+        cache.put("https://example.com/a", validators("\"a\""), new byte[400]);
+        cache.put("https://example.com/b", validators("\"b\""), new byte[400]);
+        ageEveryEntry();
+        cache.get("https://example.com/a");
+
+        cache.put("https://example.com/c", validators("\"c\""), new byte[400]);
+
+        assertNotNull(cache.get("https://example.com/a"), "recently read, so kept");
+        assertNull(cache.get("https://example.com/b"), "least recently used, so evicted");
+        assertNotNull(cache.get("https://example.com/c"));
+    }
+
+    @Test
+    void shouldTreatACorruptEntryAsAMiss() throws IOException {
+        HttpCache cache = new HttpCache(directory, 1024 * 1024);
+        cache.put("https://example.com/feed", validators("\"v1\""), new byte[] {1});
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.write(file, new byte[] {0, 0});
+            }
+        }
+
+        assertNull(cache.get("https://example.com/feed"));
+    }
+
+    @Test
+    void disabledCacheShouldNeverHit() {
+        HttpCache cache = HttpCache.disabled();
+        cache.put("https://example.com/feed", validators("\"v1\""), new byte[] {1});
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get("https://example.com/feed"));
+    }
+
+    /** File times have coarse resolution on some filesystems; push existing entries clearly into the past. */
+    private void ageEveryEntry() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dev.dashaun.cli.newsletter;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpFetcherTest {
+
+    private WireMockServer wireMock;
+    private HttpFetcher fetcher;
+
+    @BeforeEach
+    void setup() throws IOException {
+        wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+        HttpCache cache = new HttpCache(Files.createTempDirectory("newsletter-http-cache"), 1024 * 1024);
+        fetcher = new HttpFetcher(WebClient.builder().build(), cache);
+    }
+
+    @AfterEach
+    void stopServer() {
+        wireMock.stop();
+    }
+
+    @Test
+    void shouldServeA304FromTheCache() {
+        wireMock.stubFor(get(urlEqualTo("/ical"))
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("ETag", "\"v1\"")
+                        .withHeader("Content-Type", "text/calendar; charset=UTF-8")
+                        .withBody("BEGIN:VCALENDAR")));
+        wireMock.stubFor(get(urlEqualTo("/ical"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        HttpFetcher.Response first = fetcher.get(wireMock.baseUrl() + "/ical", 1024).block();
+        HttpFetcher.Response second = fetcher.get(wireMock.baseUrl() + "/ical", 1024).block();
+
+        assertFalse(first.notModified());
+        assertTrue(second.notModified());
+        assertEquals("BEGIN:VCALENDAR", second.text());
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/ical")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    void shouldReplaceTheCachedBodyWhenTheResourceChanged() {
+        wireMock.stubFor(get(urlEqualTo("/feed"))
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v1\"").withBody("old")));
+        wireMock.stubFor(get(urlEqualTo("/feed"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v2\"").withBody("new")));
+
+        fetcher.get(wireMock.baseUrl() + "/feed", 1024).block();
+        HttpFetcher.Response changed = fetcher.get(wireMock.baseUrl() + "/feed", 1024).block();
+
+        assertFalse(changed.notModified());
+        assertEquals("new", changed.text());
+    }
+
+    @Test
+    void shouldSurfaceErrorStatusesAsWebClientResponseExceptions() {
+        wireMock.stubFor(get(urlEqualTo("/feed")).willReturn(aResponse().withStatus(503)));
+
+        WebClientResponseException thrown = assertThrows(WebClientResponseException.class,
+                () -> fetcher.get(wireMock.baseUrl() + "/feed", 1024).block());
+
+        assertEquals(503, thrown.getStatusCode().value());
+        assertTrue(RetryUtils.isRetryableException(thrown));
+    }
+
+    @Test
+    void shouldRejectABodyLargerThanTheLimit() {
+        wireMock.stubFor(get(urlEqualTo("/feed")).willReturn(aResponse().withStatus(200).withBody("x".repeat(2048))));
+
+        assertThrows(DataBufferLimitException.class, () -> fetcher.get(wireMock.baseUrl() + "/feed", 1024).block());
+    }
+
+    @Test
+    void standaloneFetcherShouldNegotiateGzipAndIdentifyItself() {
+        wireMock.stubFor(get(urlEqualTo("/feed")).willReturn(aResponse().withStatus(200).withBody("x".repeat(4096))));
+
+        HttpFetcher.Response response = HttpFetcher.standalone().get(wireMock.baseUrl() + "/feed", 8192).block();
+
+        assertEquals("x".repeat(4096), response.text());
+        wireMock.verify(getRequestedFor(urlEqualTo("/feed"))
+                .withHeader("Accept-Encoding", containing("gzip"))
+                .withHeader("User-Agent", containing("newsletter-cli")));
+    }
+}
@@ -0,0 +1,160 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IssueArchiveTest {
+
+    private static final String OLD_ISSUES = """
+            # August 6
+
+            ## News:
+
+            - [Older news](https://example.com/older)
+
+            # August 13
+
+            ## News:
+
+            - [Café news](https://example.com/cafe)
+
+            """;
+
+    private Path archiveFile;
+
+    @BeforeEach
+    void setup() throws IOException {
+        archiveFile = Files.createTempDirectory("newsletter-archive-test").resolve("archive.md");
+    }
+
+    @Test
+    void shouldIndexEveryIssueByByteOffset() throws IOException {
+        Files.writeString(archiveFile, OLD_ISSUES);
+
+        List<IssueArchive.Issue> issues = IssueArchive.open(archiveFile, false).issues();
+
+        assertEquals(List.of("August 6", "August 13"), issues.stream().map(IssueArchive.Issue::heading).toList());
+        assertEquals(0, issues.get(0).offset());
+        assertEquals(issues.get(0).length(), issues.get(1).offset());
+        assertEquals(Files.size(archiveFile), issues.get(1).offset() + issues.get(1).length(),
+                "offsets are bytes, not chars, so the last issue must end exactly at the end of the file");
+        assertTrue(Files.exists(IssueArchive.indexFor(archiveFile)));
+    }
+
+    @Test
+    void shouldNotSplitAnIssueAtACommentInsideACodeFence() throws IOException {
+        Files.writeString(archiveFile, OLD_ISSUES + """
+                # August 20
+
+                ## Tips:
+
+                ```shell
+                # start the daemon once, then run commands as usual
+                newsletter daemon
+                ```
+
+                """);
+
+        List<IssueArchive.Issue> issues = IssueArchive.open(archiveFile, false).issues();
+
+        assertEquals(List.of("August 6", "August 13", "August 20"),
+                issues.stream().map(IssueArchive.Issue::heading).toList());
+        assertEquals(Files.size(archiveFile), issues.getLast().offset() + issues.getLast().length());
+    }
+
+    @Test
+    void shouldRewriteOnlyTheCurrentIssue() throws IOException {
+        Files.writeString(archiveFile, OLD_ISSUES);
+        IssueArchive archive = IssueArchive.open(archiveFile, false);
+        long currentOffset = archive.issues().getLast().offset();
+        byte[] before = Files.readAllBytes(archiveFile);
+
+        archive.replaceCurrentIssue("# August 13\n\n## News:\n\n- [Fresh](https://example.com/fresh)\n\n");
+
+        byte[] after = Files.readAllBytes(archiveFile);
+        assertArrayEquals(Arrays.copyOf(before, (int) currentOffset), Arrays.copyOf(after, (int) currentOffset),
+                "earlier issues must be left byte-for-byte alone");
+        assertEquals("# August 13\n\n## News:\n\n- [Fresh](https://example.com/fresh)\n\n",
+                IssueArchive.open(archiveFile, false).readCurrentIssue());
+    }
+
+    @Test
+    void shouldPutTheOldIssueBackWhenAnUpdateDidNotFinish() throws IOException {
+        Files.writeString(archiveFile, OLD_ISSUES);
+        IssueArchive archive = IssueArchive.open(archiveFile, false);
+        byte[] before = Files.readAllBytes(archiveFile);
+
+        // An index that cannot be replaced stops the update where a crash could: the archive is
+        // already overwritten, the index is not yet.
+        Path index = IssueArchive.indexFor(archiveFile);
+        Files.delete(index);
+        Path inTheWay = Files.createDirectories(index.resolve("in-the-way"));
+        assertThrows(IOException.class, () -> archive.replaceCurrentIssue(
+                "# August 13\n\n## News:\n\n- [Half done](https://example.com/half)\n\n"));
+        assertTrue(Files.readString(archiveFile).contains("Half done"));
+        assertTrue(Files.exists(IssueArchive.journalFor(archiveFile)));
+        Files.delete(inTheWay);
+        Files.delete(index);
+
+        List<IssueArchive.Issue> issues = IssueArchive.open(archiveFile, false).issues();
+
+        assertArrayEquals(before, Files.readAllBytes(archiveFile), "the next open puts the old issue back");
+        assertEquals(List.of("August 6", "August 13"), issues.stream().map(IssueArchive.Issue::heading).toList());
+        assertFalse(Files.exists(IssueArchive.journalFor(archiveFile)));
+    }
+
+    @Test
+    void shouldRebuildIndexWhenArchiveWasEditedByHand() throws IOException {
+        Files.writeString(archiveFile, OLD_ISSUES);
+        IssueArchive.open(archiveFile, false);
+
+        Files.writeString(archiveFile, "# August 20\n\n## News:\n\n", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        List<IssueArchive.Issue> issues = IssueArchive.open(archiveFile, false).issues();
+        assertEquals(3, issues.size());
+        assertEquals("August 20", issues.getLast().heading());
+    }
+
+    @Test
+    void shouldEditOnlyTheNewestIssueThroughDocumentService() throws IOException {
+        DocumentService documentService = new DocumentService();
+        Files.writeString(archiveFile, OLD_ISSUES);
+
+        assertTrue(documentService.createNewDocument(archiveFile.toString(), true));
+        assertFalse(documentService.createNewDocument(archiveFile.toString(), true),
+                "today's issue is only started once");
+        documentService.updateNewsSection(archiveFile.toString(), List.of(
+                new RssService.NewsItem("Today's news", "https://example.com/today", LocalDate.now().atStartOfDay())));
+
+        String content = Files.readString(archiveFile);
+        assertTrue(content.startsWith(OLD_ISSUES), "older issues must be untouched");
+        assertTrue(content.substring(OLD_ISSUES.length()).contains("- [Today's news](https://example.com/today)"));
+        assertEquals(3, IssueArchive.open(archiveFile, false).issues().size());
+    }
+
+    @Test
+    void shouldShowArchiveOnePageAtATime() throws IOException {
+        DocumentService documentService = new DocumentService();
+        Files.writeString(archiveFile, OLD_ISSUES);
+        IssueArchive.open(archiveFile, false);
+
+        String newest = documentService.readDocument(archiveFile.toString(), 1, 1);
+        String older = documentService.readDocument(archiveFile.toString(), 2, 1);
+
+        assertTrue(newest.contains("Café news") && !newest.contains("Older news"));
+        assertTrue(older.contains("Older news") && !older.contains("Café news"));
+        assertTrue(older.contains("page 2 of 2"));
+    }
+}
@@ -0,0 +1,183 @@
+package dev.dashaun.cli.newsletter;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LastKnownGoodTest {
+
+    private static final String FEED = "https://spring.io/blog.atom";
+
+    private Path directory;
+    private Instant now;
+
+    @BeforeEach
+    void setup() throws IOException {
+        directory = Files.createTempDirectory("newsletter-last-known-good");
+        now = Instant.parse("2026-10-17T08:00:00Z");
+    }
+
+    // A new instance over the same directory is what the next CLI run sees.
+    private LastKnownGood store() {
+        return new LastKnownGood(directory, Duration.ofDays(3), new Clock() {
+            @Override
+            public Instant instant() {
+                return now;
+            }
+
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        });
+    }
+
+    private static HttpFetcher.Response response(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/atom+xml; charset=UTF-8");
+        return new HttpFetcher.Response(body.getBytes(StandardCharsets.UTF_8), headers, false, true);
+    }
+
+    private static HttpFetcher.Response outage() throws IOException {
+        throw new IOException("Connection refused");
+    }
+
+    @Test
+    void shouldServeTheLastGoodCopyWhenTheFetchFails() throws Exception {
+        store().fetch(RunMetrics.NEWS, FEED, () -> response("<feed>v1</feed>"), HttpFetcher.Response::text);
+        now = now.plus(Duration.ofHours(5));
+
+        LastKnownGood store = store();
+        String served = store.fetch(RunMetrics.NEWS, FEED, LastKnownGoodTest::outage, HttpFetcher.Response::text);
+
+        assertEquals("<feed>v1</feed>", served);
+        List<LastKnownGood.Served> fallbacks = store.served(RunMetrics.NEWS);
+        assertEquals(1, fallbacks.size());
+        assertEquals(Duration.ofHours(5), fallbacks.get(0).age());
+        assertEquals("https://spring.io/blog.atom (5h 0m old)", LastKnownGood.describe(fallbacks));
+        assertTrue(store.served(RunMetrics.YOUTUBE).isEmpty());
+    }
+
+    @Test
+    void shouldRefuseACopyOlderThanTheMaximumStaleness() throws Exception {
+        store().fetch(RunMetrics.NEWS, FEED, () -> response("<feed>v1</feed>"), HttpFetcher.Response::text);
+        now = now.plus(Duration.ofDays(3).plusMinutes(1));
+
+        LastKnownGood store = store();
+        IOException thrown = assertThrows(IOException.class,
+                () -> store.fetch(RunMetrics.NEWS, FEED, LastKnownGoodTest::outage, HttpFetcher.Response::text));
+
+        assertEquals("Connection refused", thrown.getMessage());
+        assertTrue(store.served(RunMetrics.NEWS).isEmpty());
+    }
+
+    @Test
+    void shouldOnlyKeepResponsesThatParsed() throws Exception {
+        LastKnownGood store = store();
+        store.fetch(RunMetrics.NEWS, FEED, () -> response("<feed>v1</feed>"), HttpFetcher.Response::text);
+        assertThrows(IllegalStateException.class, () -> store.fetch(RunMetrics.NEWS, FEED,
+                () -> response("<html>maintenance</html>"), r -> {
+                    throw new IllegalStateException("not a feed");
+                }));
+
+        assertEquals("<feed>v1</feed>",
+                store.fetch(RunMetrics.NEWS, FEED, LastKnownGoodTest::outage, HttpFetcher.Response::text));
+    }
+
+    @Test
+    void shouldKeepTheHeadersParsingReliesOn() throws Exception {
+        HttpFetcher.Response page = response("[]");
+        page.headers().set(HttpHeaders.LINK, "<https://api.github.com/orgs/x/repos?page=3>; rel=\"last\"");
+        page.headers().set("X-Not-Stored", "noise");
+        store().remember(FEED, page);
+
+        HttpFetcher.Response recalled = store().recall(RunMetrics.GITHUB, FEED, new IOException("down"));
+
+        assertEquals(3, GitHubService.lastPage(recalled.headers()));
+        assertNull(recalled.headers().getFirst("X-Not-Stored"));
+    }
+
+    @Test
+    void shouldFailAsBeforeWhenDisabledOrEmpty() {
+        IOException failure = new IOException("down");
+
+        assertSame(failure, assertThrows(IOException.class,
+                () -> LastKnownGood.disabled().recall(RunMetrics.NEWS, FEED, failure)));
+        assertSame(failure, assertThrows(IOException.class,
+                () -> store().recall(RunMetrics.NEWS, FEED, failure)));
+    }
+
+    @Test
+    void shouldOnlyStandInForAServerThatCannotBeReached() throws Exception {
+        store().fetch(RunMetrics.NEWS, FEED, () -> response("<feed>v1</feed>"), HttpFetcher.Response::text);
+        LastKnownGood store = store();
+
+        WebClientResponseException gone = WebClientResponseException.create(404, "Not Found", null, null, null);
+        assertSame(gone, assertThrows(WebClientResponseException.class, () -> store.fetch(RunMetrics.NEWS, FEED,
+                () -> { throw gone; }, HttpFetcher.Response::text)));
+        assertEquals("<feed>v1</feed>", store.fetch(RunMetrics.NEWS, FEED,
+                () -> { throw new RuntimeException(new HostGuards.OpenException("spring.io")); },
+                HttpFetcher.Response::text));
+        assertEquals(1, store.served(RunMetrics.NEWS).size());
+    }
+
+    @Test
+    void shouldFinishAFeedFetchFromTheStoreDuringAnOutage() {
+        WireMockServer wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+        try {
+            LastKnownGood store = store();
+            RssService service = new RssService(new HttpFetcher(WebClient.builder().build(),
+                    HttpCache.disabled(), store, new HostGuards(), new RetryTelemetry()));
+            String url = wireMock.baseUrl() + "/blog.atom";
+            wireMock.stubFor(get(urlEqualTo("/blog.atom")).willReturn(aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/atom+xml")
+                    .withBody("""
+                            <?xml version="1.0" encoding="UTF-8"?>
+                            <feed xmlns="http://www.w3.org/2005/Atom">
+                              <title>Spring</title>
+                              <entry>
+                                <title>Spring Boot 4.0.1 available now</title>
+                                <link href="https://spring.io/blog/2026/10/16/spring-boot-4-0-1"/>
+                                <published>2026-10-16T10:00:00Z</published>
+                              </entry>
+                            </feed>
+                            """)));
+            assertEquals(1, service.fetchLatestNews(url, 5).size());
+
+            wireMock.stubFor(get(urlEqualTo("/blog.atom")).willReturn(aResponse()
+                    .withStatus(503)
+                    .withHeader("Retry-After", "0")));
+            List<RssService.NewsItem> items = service.fetchLatestNews(url, 5);
+
+            assertEquals("Spring Boot 4.0.1 available now", items.get(0).title());
+            assertEquals(1, store.served(RunMetrics.NEWS).size());
+        } finally {
+            wireMock.stop();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package dev.dashaun.cli.newsletter;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the native executable the way CI does, one command per process, against local copies of
+ * the sources, so that the native image's own reflection and resource hints are what is tested.
+ * Build and run with {@code ./mvnw -Pnative,native-it verify}; without an executable the tests
+ * are skipped.
+ */
+class NativeImageIT {
+
+    private static final Path BINARY = Path.of(System.getProperty("newsletter.native-binary", "target/newsletter"));
+
+    // Generous enough for a loaded CI runner; a JVM start with Spring Shell and Netty takes seconds.
+    private static final Duration MAX_STARTUP = Duration.ofSeconds(1);
+
+    private static WireMockServer wireMock;
+
+    @BeforeAll
+    static void start() {
+        assumeTrue(Files.isExecutable(BINARY), "No native executable at " + BINARY);
+        wireMock = new WireMockServer(options().dynamicPort());
+        wireMock.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        if (wireMock != null) {
+            wireMock.stop();
+        }
+    }
+
+    @Test
+    void shouldStartInWellUnderASecond() throws Exception {
+        Result result = run("help");
+
+        assertEquals(0, result.exitCode(), result.output());
+        assertTrue(result.output().contains("full-update"), result.output());
+        assertTrue(result.elapsed().compareTo(MAX_STARTUP) < 0, "took " + result.elapsed());
+    }
+
+    @Test
+    void shouldCreateAndShowDocument() throws Exception {
+        Path document = Files.createTempDirectory("newsletter-native").resolve("update.md");
+
+        assertEquals(0, run("create", "--filename", document.toString()).exitCode());
+        Result shown = run("show", "--filename", document.toString());
+
+        assertEquals(0, shown.exitCode(), shown.output());
+        assertTrue(shown.output().contains("## News:"), shown.output());
+    }
+
+    @Test
+    void shouldParseAtomWithStaxAndRdfWithRome() throws Exception {
+        wireMock.stubFor(get(urlEqualTo("/blog.atom")).willReturn(aResponse().withStatus(200).withBody("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <feed xmlns="http://www.w3.org/2005/Atom">
+                  <title>Blog</title>
+                  <entry>
+                    <title>Atom entry</title>
+                    <link rel="alternate" href="https://example.com/atom"/>
+                    <published>2026-08-01T12:00:00Z</published>
+                  </entry>
+                </feed>
+                """)));
+        // RSS 1.0 is not read by the streaming parser, so this one goes through ROME.
+        wireMock.stubFor(get(urlEqualTo("/news.rdf")).willReturn(aResponse().withStatus(200).withBody("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <rdf:RDF xmlns:rdf="http://www.w3.org/1999/02/22-rdf-syntax-ns#" xmlns="http://purl.org/rss/1.0/"
+                         xmlns:dc="http://purl.org/dc/elements/1.1/">
+                  <channel rdf:about="https://example.com/">
+                    <title>News</title>
+                    <link>https://example.com/</link>
+                    <description>News</description>
+                  </channel>
+                  <item rdf:about="https://example.com/rdf">
+                    <title>RDF entry</title>
+                    <link>https://example.com/rdf</link>
+                    <dc:date>2026-07-31T12:00:00Z</dc:date>
+                  </item>
+                </rdf:RDF>
+                """)));
+
+        Result result = run("preview-news", "--rssUrl",
+                wireMock.baseUrl() + "/blog.atom," + wireMock.baseUrl() + "/news.rdf", "--limit", "5");
+
+        assertEquals(0, result.exitCode(), result.output());
+        assertTrue(result.output().contains("[Atom entry](https://example.com/atom)"), result.output());
+        assertTrue(result.output().contains("[RDF entry](https://example.com/rdf)"), result.output());
+    }
+
+    @Test
+    void shouldParseCalendarIncludingEventsLeftToIcal4j() throws Exception {
+        DateTimeFormatter basic = DateTimeFormatter.BASIC_ISO_DATE;
+        LocalDate today = LocalDate.now();
+        wireMock.stubFor(get(urlEqualTo("/ical")).willReturn(aResponse().withStatus(200).withBody(
+                "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//test//EN\r\n"
+                        + "BEGIN:VEVENT\r\nUID:1\r\nDTSTAMP:20250101T000000Z\r\n"
+                        + "DTSTART;VALUE=DATE:" + today.plusDays(2).format(basic) + "\r\n"
+                        + "SUMMARY:Spring Boot 4.0.1\r\nEND:VEVENT\r\n"
+                        + "BEGIN:VEVENT\r\nUID:2\r\nDTSTAMP:20250101T000000Z\r\n"
+                        + "DTSTART;TZID=Europe/London:" + today.plusDays(3).format(basic) + "T090000\r\n"
+                        + "SUMMARY:Spring Security 7.0.1\r\nEND:VEVENT\r\n"
+                        + "END:VCALENDAR\r\n")));
+
+        Result result = run("preview-calendar", "--calendarUrl", wireMock.baseUrl() + "/ical",
+                "--daysPast", "7", "--daysAhead", "30");
+
+        assertEquals(0, result.exitCode(), result.output());
+        assertTrue(result.output().contains("Boot 4.0.1"), result.output());
+        assertTrue(result.output().contains("Security 7.0.1"), result.output());
+    }
+
+    private record Result(int exitCode, String output, Duration elapsed) {
+    }
+
+    private static Result run(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(BINARY.toAbsolutePath().toString());
+        command.addAll(List.of(args));
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+        // Keep the conditional-GET cache out of the user's home directory.
+        builder.environment().put("NEWSLETTER_HTTPCACHE_ENABLED", "false");
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        byte[] output = process.getInputStream().readAllBytes();
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            fail("Timed out: " + command);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new Result(process.exitValue(), new String(output, StandardCharsets.UTF_8), elapsed);
+    }
+}
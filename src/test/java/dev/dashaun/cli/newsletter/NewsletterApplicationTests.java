@@ -1,13 +1,26 @@
 package dev.dashaun.cli.newsletter;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest(properties = { "spring.shell.interactive.enabled=false" })
 class NewsletterApplicationTests {
 
+	@Autowired
+	private ApplicationContext context;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void everyServiceSharesOneHttpClient() {
+		assertEquals(1, context.getBeansOfType(HttpFetcher.class).size());
+		assertEquals(1, context.getBeansOfType(reactor.netty.resources.ConnectionProvider.class).size());
+	}
+
 }
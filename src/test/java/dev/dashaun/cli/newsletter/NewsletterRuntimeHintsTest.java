@@ -0,0 +1,36 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewsletterRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NewsletterRuntimeHintsTest() {
+        new NewsletterRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void shouldRegisterEveryRomePluginFromItsProperties() {
+        assertTrue(NewsletterRuntimeHints.romeClasses(getClass().getClassLoader())
+                .contains("com.rometools.rome.io.impl.RSS20Parser"));
+        assertTrue(RuntimeHintsPredicates.resource().forResource(NewsletterRuntimeHints.ROME_PROPERTIES).test(hints));
+        for (String parser : new String[] {"com.rometools.rome.io.impl.RSS10Parser", "com.rometools.rome.io.impl.Atom10Parser"}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(parser))
+                    .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints), parser);
+        }
+    }
+
+    @Test
+    void shouldRegisterCalendarAndStaxResources() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("zoneinfo/Europe/London.ics").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/javax.xml.stream.XMLInputFactory").test(hints));
+    }
+}
@@ -0,0 +1,55 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReleaseSummaryClassifierTest {
+
+    private final ReleaseSummaryClassifier classifier = new ReleaseSummaryClassifier(16);
+
+    @Test
+    void shouldExtractProjectAndVersionLikeTheOriginalPatterns() {
+        assertRelease("Spring Boot 3.5.1 (Enterprise)", "Boot", "3.5.1");
+        assertRelease("Spring Cloud 2024.0.1", "Cloud", "2024.0.1");
+        assertRelease("Spring Security 6.3.1-RC1", "Security", "6.3.1-RC1");
+        assertRelease("Reactor 2024.0.0", "Reactor", "2024.0.0");
+    }
+
+    @Test
+    void shouldStripOnlyOneLeadingAndOneTrailingKeyword() {
+        assertRelease("Release Spring Data 2024.0.2", "Spring Data", "2024.0.2");
+        assertRelease("Spring Integration 6.4.0 RC", "Integration", "6.4.0");
+        assertRelease("Spring Shell 3.4.0 GA", "Shell", "3.4.0");
+    }
+
+    @Test
+    void shouldAcceptVersionWithLeadingV() {
+        assertRelease("Spring Framework v6.2.9", "Framework", "6.2.9");
+    }
+
+    @Test
+    void shouldRejectMeetingsPlanningAndSummariesWithoutVersion() {
+        assertNull(classifier.classify("Team meeting 1.2"));
+        assertNull(classifier.classify("Release planning"));
+        assertNull(classifier.classify("Spring Boot (Enterprise)"));
+    }
+
+    @Test
+    void shouldRememberSummariesUpToCapacity() {
+        ReleaseSummaryClassifier.Release first = classifier.classify("Spring Boot 3.5.1");
+
+        assertSame(first, classifier.classify("Spring Boot 3.5.1"), "a repeated summary is answered from memory");
+        for (int i = 0; i < 16; i++) {
+            classifier.classify("Spring Boot 3.5." + (i + 2));
+        }
+        assertNotSame(first, classifier.classify("Spring Boot 3.5.1"), "the least recently used entry is evicted");
+    }
+
+    private void assertRelease(String summary, String projectName, String version) {
+        ReleaseSummaryClassifier.Release release = classifier.classify(summary);
+        assertNotNull(release, summary);
+        assertEquals(projectName, release.projectName(), summary);
+        assertEquals(version, release.version(), summary);
+    }
+}
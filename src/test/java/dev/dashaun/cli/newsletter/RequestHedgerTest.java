@@ -0,0 +1,117 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    @Test
+    void shouldUseTheHedgeWhenTheFirstRequestIsSlowAndCancelTheFirst() {
+        RequestHedger hedger = new RequestHedger(true, 0.9, 0.5, Duration.ofMillis(50));
+        AtomicInteger sent = new AtomicInteger();
+        AtomicBoolean firstCancelled = new AtomicBoolean();
+
+        String result = hedger.hedge(() -> sent.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn("first").doOnCancel(() -> firstCancelled.set(true))
+                : Mono.just("hedge")).block(Duration.ofSeconds(2));
+
+        assertEquals("hedge", result);
+        assertEquals(2, sent.get());
+        assertTrue(firstCancelled.get());
+    }
+
+    @Test
+    void shouldNotHedgeARequestThatAnswersInTime() {
+        RequestHedger hedger = new RequestHedger(true, 0.9, 0.5, Duration.ofMillis(200));
+        AtomicInteger sent = new AtomicInteger();
+
+        assertEquals("first", hedger.hedge(() -> {
+            sent.incrementAndGet();
+            return Mono.just("first");
+        }).block());
+        assertEquals(1, sent.get());
+        assertEquals(0, hedger.hedges());
+    }
+
+    @Test
+    void shouldLeaveAFastFailureToTheRetryLoop() {
+        RequestHedger hedger = new RequestHedger(true, 0.9, 0.5, Duration.ofMillis(200));
+        AtomicInteger sent = new AtomicInteger();
+
+        Exception failure = assertThrows(Exception.class, () -> hedger.hedge(() -> {
+            sent.incrementAndGet();
+            return Mono.<String>error(new IOException("Connection reset"));
+        }).block());
+
+        assertInstanceOf(IOException.class, failure.getCause() != null ? failure.getCause() : failure);
+        assertEquals(1, sent.get(), "a failure is not a reason to hedge");
+    }
+
+    @Test
+    void shouldFailOnlyWhenBothRequestsFail() {
+        RequestHedger hedger = new RequestHedger(true, 0.9, 0.5, Duration.ofMillis(20));
+        AtomicInteger sent = new AtomicInteger();
+
+        String result = hedger.hedge(() -> sent.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(100)).then(Mono.<String>error(new IOException("reset")))
+                : Mono.delay(Duration.ofMillis(300)).thenReturn("hedge")).block(Duration.ofSeconds(2));
+
+        assertEquals("hedge", result);
+    }
+
+    @Test
+    void shouldCapHedgesAtTheConfiguredShareOfRequests() {
+        RequestHedger hedger = new RequestHedger(true, 0.9, 0.25, Duration.ZERO);
+
+        // Every request is "slow", so every call wants a hedge; hedges may only make up a
+        // quarter of the requests sent, plus one.
+        AtomicInteger sent = new AtomicInteger();
+        for (int i = 0; i < 12; i++) {
+            hedger.hedge(() -> {
+                sent.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(20)).thenReturn("ok");
+            }).block(Duration.ofSeconds(2));
+        }
+
+        assertEquals(12 + hedger.hedges(), sent.get());
+        assertTrue(hedger.hedges() <= 0.25 * sent.get() + 1, "hedged " + hedger.hedges() + " of " + sent.get());
+        assertTrue(hedger.hedges() >= 2, "hedged " + hedger.hedges());
+    }
+
+    @Test
+    void shouldAdaptTheDelayToRecentLatencies() {
+        RequestHedger hedger = new RequestHedger(true, 0.9, 0, Duration.ofSeconds(2));
+        assertEquals(Duration.ofSeconds(2), hedger.delay(), "too few samples yet");
+
+        for (int millis = 10; millis <= 100; millis += 10) {
+            Duration latency = Duration.ofMillis(millis);
+            hedger.hedge(() -> Mono.delay(latency).thenReturn("ok")).block(Duration.ofSeconds(2));
+        }
+
+        Duration delay = hedger.delay();
+        assertTrue(delay.compareTo(Duration.ofMillis(80)) >= 0 && delay.compareTo(Duration.ofMillis(150)) < 0,
+                "p90 of 10..100ms, was " + delay.toMillis() + "ms");
+    }
+
+    @Test
+    void shouldLearnHowLongTheWholeCallTookNotJustTheHedge() {
+        RequestHedger hedger = new RequestHedger(true, 0.9, 1, Duration.ofMillis(50));
+
+        for (int i = 0; i < RequestHedger.MIN_SAMPLES; i++) {
+            AtomicInteger sent = new AtomicInteger();
+            hedger.hedge(() -> sent.incrementAndGet() == 1
+                    ? Mono.<String>never()
+                    : Mono.delay(Duration.ofMillis(100)).thenReturn("hedge")).block(Duration.ofSeconds(2));
+        }
+
+        // 50ms before the hedge went out plus its 100ms; the hedge's own 100ms would hedge too early.
+        assertTrue(hedger.delay().compareTo(Duration.ofMillis(150)) >= 0, "was " + hedger.delay().toMillis() + "ms");
+    }
+}
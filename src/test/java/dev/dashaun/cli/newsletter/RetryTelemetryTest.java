@@ -0,0 +1,98 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryTelemetryTest {
+
+    private static final String FEED = "https://www.youtube.com/feeds/videos.xml?channel_id=UC123";
+    private static final Duration FAST_BACKOFF = Duration.ofMillis(1);
+
+    private final RetryTelemetry telemetry = new RetryTelemetry();
+    private final HostGuards guards = new HostGuards();
+
+    @Test
+    void shouldRecordEveryAttemptAndWhyItWaited() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Retry-After", "0");
+        AtomicInteger attempts = new AtomicInteger();
+
+        RetryUtils.executeWithRetry(guards, telemetry, FEED, () -> switch (attempts.incrementAndGet()) {
+            case 1 -> throw WebClientResponseException.create(429, "Too Many Requests", headers, null, null);
+            case 2 -> throw WebClientResponseException.create(503, "Service Unavailable", null, null, null);
+            default -> "ok";
+        }, 5, FAST_BACKOFF);
+
+        List<RetryTelemetry.Event> events = telemetry.events();
+        assertEquals(3, events.size());
+        assertEquals(RetryTelemetry.Outcome.RETRIED, events.get(0).outcome());
+        assertEquals(429, events.get(0).status());
+        assertEquals(RetryTelemetry.WaitReason.RETRY_AFTER, events.get(0).reason());
+        assertEquals(Duration.ZERO, events.get(0).delay());
+        assertEquals(503, events.get(1).status());
+        assertEquals(RetryTelemetry.WaitReason.BACKOFF, events.get(1).reason());
+        assertEquals(RetryTelemetry.Outcome.RECOVERED, events.get(2).outcome());
+        assertEquals(3, events.get(2).attempt());
+
+        RetryTelemetry.HostSummary youtube = telemetry.byHost().get("www.youtube.com");
+        assertEquals(2, youtube.retried());
+        assertEquals(1, youtube.retryAfterWaits());
+        assertEquals(1, youtube.backoffWaits());
+        assertEquals(Map.of(3, 1L), youtube.recoveredOnAttempt());
+        assertEquals(Map.of(429, 1L, 503, 1L), youtube.statuses());
+    }
+
+    @Test
+    void shouldTellExhaustedAttemptsFromErrorsNotWorthRetrying() {
+        assertThrows(RuntimeException.class, () -> RetryUtils.executeWithRetry(guards, telemetry, FEED, () -> {
+            throw new TimeoutException("request timed out");
+        }, 3, FAST_BACKOFF));
+        assertThrows(RuntimeException.class, () -> RetryUtils.executeWithRetry(guards, telemetry,
+                "https://spring.io/blog.atom", () -> {
+            throw new IllegalArgumentException("bad feed");
+        }, 3, FAST_BACKOFF));
+
+        RetryTelemetry.HostSummary youtube = telemetry.byHost().get("www.youtube.com");
+        assertEquals(2, youtube.retried());
+        assertEquals(1, youtube.exhausted());
+        assertEquals(Map.of("TimeoutException", 3L), youtube.exceptions());
+        RetryTelemetry.HostSummary spring = telemetry.byHost().get("spring.io");
+        assertEquals(0, spring.retried());
+        assertEquals(1, spring.notRetryable());
+    }
+
+    @Test
+    void shouldTakeTheHostFromTheFailureWhenNoUrlWasGiven() {
+        WebClientRequestException refused = new WebClientRequestException(new IOException("Connection refused"),
+                HttpMethod.GET, URI.create("https://api.github.com/orgs/dashaun-tanzu/repos"), HttpHeaders.EMPTY);
+
+        assertEquals("api.github.com", RetryTelemetry.host(new RuntimeException(refused)));
+        assertEquals("unknown", RetryTelemetry.host(new TimeoutException()));
+        assertEquals("WebClientRequestException", RetryTelemetry.exceptionName(new RuntimeException(refused)));
+    }
+
+    @Test
+    void shouldKeepTheNewestEventsButCountThemAll() {
+        RetryTelemetry own = new RetryTelemetry();
+        for (int i = 0; i < RetryTelemetry.MAX_EVENTS + 5; i++) {
+            own.recovered(FEED, 2);
+        }
+
+        assertEquals(RetryTelemetry.MAX_EVENTS, own.events().size());
+        assertEquals(5, own.droppedEvents());
+        assertEquals(RetryTelemetry.MAX_EVENTS + 5, own.byHost().get("www.youtube.com").recovered());
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.io.IOException;
 import java.net.SocketException;
@@ -240,4 +242,106 @@ class RetryUtilsTest {
 
         assertEquals(Duration.ofSeconds(3), RetryUtils.retryAfter(wrapped));
     }
+
+    @Test
+    void backoffAfterShouldDoubleLikeTheBlockingLoopAndStopAtTheCap() {
+        assertEquals(Duration.ofSeconds(5), RetryUtils.backoffAfter(Duration.ofSeconds(5), 0));
+        assertEquals(Duration.ofSeconds(40), RetryUtils.backoffAfter(Duration.ofSeconds(5), 3));
+        assertEquals(RetryUtils.MAX_BACKOFF, RetryUtils.backoffAfter(Duration.ofSeconds(5), 4));
+        assertEquals(RetryUtils.MAX_BACKOFF, RetryUtils.backoffAfter(Duration.ofSeconds(5), 1_000));
+    }
+
+    @Test
+    void retrySpecShouldSucceedAfterRetries() {
+        AtomicInteger attemptCount = new AtomicInteger(0);
+        Mono<String> operation = Mono.defer(() -> {
+            int attempts = attemptCount.incrementAndGet();
+            if (attempts < 3) {
+                return Mono.error(new SocketException("connection reset by peer"));
+            }
+            return Mono.just("success after " + attempts + " attempts");
+        });
+
+        String result = operation.retryWhen(RetryUtils.retrySpec(3, FAST_BACKOFF)).block();
+
+        assertEquals("success after 3 attempts", result);
+        assertEquals(3, attemptCount.get());
+    }
+
+    @Test
+    void retrySpecShouldFailWithTheSameExceptionAsTheBlockingLoop() {
+        TimeoutException timeout = new TimeoutException("request timed out");
+
+        RuntimeException blocking = assertThrows(RuntimeException.class, () ->
+                RetryUtils.executeWithRetry(() -> { throw timeout; }, 3, FAST_BACKOFF));
+        RuntimeException reactive = assertThrows(RuntimeException.class, () ->
+                Mono.error(timeout).retryWhen(RetryUtils.retrySpec(3, FAST_BACKOFF)).block());
+
+        assertEquals(blocking.getMessage(), reactive.getMessage());
+        assertSame(timeout, reactive.getCause());
+    }
+
+    @Test
+    void retrySpecShouldNotRetryOnNonRetryableException() {
+        AtomicInteger attemptCount = new AtomicInteger(0);
+        Mono<String> operation = Mono.defer(() -> {
+            attemptCount.incrementAndGet();
+            return Mono.error(new IllegalArgumentException("Invalid argument"));
+        });
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                operation.retryWhen(RetryUtils.retrySpec(3, FAST_BACKOFF)).block());
+
+        assertEquals(1, attemptCount.get());
+        assertEquals("Invalid argument", exception.getCause().getMessage());
+    }
+
+    @Test
+    void retrySpecShouldUseCustomRetryPredicate() {
+        AtomicInteger attemptCount = new AtomicInteger(0);
+        Mono<String> operation = Mono.defer(() -> attemptCount.incrementAndGet() < 2
+                ? Mono.error(new IllegalStateException("Not a timeout"))
+                : Mono.just("success"));
+
+        String result = operation.retryWhen(RetryUtils.retrySpec(3, FAST_BACKOFF,
+                e -> e.getMessage() != null && e.getMessage().contains("Not a timeout"))).block();
+
+        assertEquals("success", result);
+        assertEquals(2, attemptCount.get());
+    }
+
+    @Test
+    void retrySpecShouldWaitForRetryAfterWithoutBlockingAThread() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Retry-After", "12");
+        WebClientResponseException throttled = WebClientResponseException.create(
+                429, "Too Many Requests", headers, null, null);
+        AtomicInteger attemptCount = new AtomicInteger(0);
+
+        StepVerifier.withVirtualTime(() -> Mono.defer(() -> attemptCount.incrementAndGet() == 1
+                                ? Mono.<String>error(throttled)
+                                : Mono.just("ok"))
+                        .retryWhen(RetryUtils.retrySpec(3, Duration.ofSeconds(1))))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofSeconds(11))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    @Test
+    void retrySpecShouldBackOffWithinTheJitterWindow() {
+        AtomicInteger attemptCount = new AtomicInteger(0);
+
+        // 8s initial backoff with +/-25% jitter: nothing before 6s, a retry by 10s.
+        StepVerifier.withVirtualTime(() -> Mono.defer(() -> attemptCount.incrementAndGet() == 1
+                                ? Mono.<String>error(new IOException("boom"))
+                                : Mono.just("ok"))
+                        .retryWhen(RetryUtils.retrySpec(2, Duration.ofSeconds(8))))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(5_999))
+                .thenAwait(Duration.ofMillis(4_001))
+                .expectNext("ok")
+                .verifyComplete();
+    }
 }
@@ -1,11 +1,17 @@
 package dev.dashaun.cli.newsletter;
 
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.junit.jupiter.api.Assertions.*;
 
 class RssServiceTest {
@@ -82,4 +88,94 @@ class RssServiceTest {
         assertNotNull(item);
         assertNull(item.publishedDate());
     }
+
+    @Nested
+    class MultipleFeeds {
+
+        private WireMockServer wireMock;
+
+        @BeforeEach
+        void startServer() {
+            wireMock = new WireMockServer(options().dynamicPort());
+            wireMock.start();
+        }
+
+        @AfterEach
+        void stopServer() {
+            wireMock.stop();
+        }
+
+        private static String feed(String title, String link, String published) {
+            return """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <feed xmlns="http://www.w3.org/2005/Atom">
+                      <title>Blog</title>
+                      <entry>
+                        <id>%2$s</id>
+                        <title>%1$s</title>
+                        <link rel="alternate" href="%2$s"/>
+                        <published>%3$s</published>
+                        <updated>%3$s</updated>
+                      </entry>
+                    </feed>
+                    """.formatted(title, link, published);
+        }
+
+        private void stubFeed(String path, String body, int delayMillis) {
+            wireMock.stubFor(get(urlPathEqualTo(path))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/atom+xml")
+                            .withFixedDelay(delayMillis)
+                            .withBody(body)));
+        }
+
+        @Test
+        void shouldKeepTheEntryFromTheFirstListedFeedEvenWhenItAnswersLast() {
+            // The same post appears in the main blog and a category feed under different titles.
+            // The main blog is listed first but answers last; its entry must still win.
+            stubFeed("/blog.atom", feed("From the main blog", "https://spring.io/blog/post",
+                    "2026-08-01T12:00:00Z"), 500);
+            stubFeed("/releases.atom", feed("From the category feed", "https://spring.io/blog/post",
+                    "2026-08-01T12:00:00Z"), 0);
+
+            List<RssService.NewsItem> items = new RssService().fetchLatestNews(
+                    List.of(wireMock.baseUrl() + "/blog.atom", wireMock.baseUrl() + "/releases.atom"), 10, 2);
+
+            assertEquals(1, items.size());
+            assertEquals("From the main blog", items.get(0).title());
+        }
+
+        @Test
+        void shouldFetchFeedsConcurrently() {
+            for (int i = 0; i < 4; i++) {
+                stubFeed("/feed" + i + ".atom", feed("Post " + i, "https://spring.io/blog/post-" + i,
+                        "2026-08-0" + (i + 1) + "T12:00:00Z"), 400);
+            }
+            List<String> urls = List.of(0, 1, 2, 3).stream()
+                    .map(i -> wireMock.baseUrl() + "/feed" + i + ".atom")
+                    .toList();
+
+            long start = System.nanoTime();
+            List<RssService.NewsItem> items = new RssService().fetchLatestNews(urls, 10, 4);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertEquals(4, items.size());
+            assertEquals("Post 3", items.get(0).title(), "newest first");
+            // Four 400ms feeds: 1.6s one after another, a little over 400ms side by side.
+            assertTrue(elapsed.compareTo(Duration.ofMillis(1400)) < 0, "took " + elapsed.toMillis() + "ms");
+        }
+
+        @Test
+        void shouldSkipAFailingFeedAndKeepTheOthers() {
+            wireMock.stubFor(get(urlPathEqualTo("/broken.atom")).willReturn(aResponse().withStatus(400)));
+            stubFeed("/blog.atom", feed("Still here", "https://spring.io/blog/still-here",
+                    "2026-08-01T12:00:00Z"), 0);
+
+            List<RssService.NewsItem> items = new RssService().fetchLatestNews(
+                    List.of(wireMock.baseUrl() + "/broken.atom", wireMock.baseUrl() + "/blog.atom"), 10, 2);
+
+            assertEquals(List.of("Still here"), items.stream().map(RssService.NewsItem::title).toList());
+        }
+    }
 }
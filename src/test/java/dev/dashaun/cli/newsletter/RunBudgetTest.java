@@ -0,0 +1,94 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunBudgetTest {
+
+    private static final String FEED = "https://spring.io/blog.atom";
+
+    @Test
+    void shouldHandTheTimeAnEarlySectionLeftToTheOnesAfterIt() throws Exception {
+        RunBudget budget = RunBudget.start(Duration.ofSeconds(90), false, "news", "youtube", "demos");
+
+        Duration news = budget.bind("news", () -> RunBudget.current().remaining()).call();
+        Duration youtube = budget.bind("youtube", () -> RunBudget.current().remaining()).call();
+        Duration demos = budget.bind("demos", () -> RunBudget.current().remaining()).call();
+
+        // A third each at first; news used almost nothing, so youtube gets half of what is left.
+        assertBetween(Duration.ofSeconds(29), Duration.ofSeconds(30), news);
+        assertBetween(Duration.ofSeconds(44), Duration.ofSeconds(45), youtube);
+        assertBetween(Duration.ofSeconds(89), Duration.ofSeconds(90), demos);
+    }
+
+    @Test
+    void shouldLetConcurrentSectionsShareTheWholeRun() throws Exception {
+        RunBudget budget = RunBudget.start(Duration.ofSeconds(90), true, "news", "youtube", "demos");
+
+        assertBetween(Duration.ofSeconds(89), Duration.ofSeconds(90),
+                budget.bind("news", () -> RunBudget.current().remaining()).call());
+    }
+
+    @Test
+    void shouldCapRequestTimeoutsAndFailOnceNothingIsLeft() throws Exception {
+        RunBudget budget = RunBudget.start(Duration.ofSeconds(2), false, "news");
+
+        assertTrue(budget.bind("news", () -> RunBudget.timeout(Duration.ofSeconds(30))).call()
+                .compareTo(Duration.ofSeconds(2)) <= 0);
+        assertEquals(Duration.ofSeconds(30), RunBudget.timeout(Duration.ofSeconds(30)),
+                "outside a section there is no limit");
+
+        RunBudget spent = RunBudget.start(Duration.ofNanos(1), false, "news");
+        Thread.sleep(1);
+        assertThrows(RunBudget.ExhaustedException.class,
+                () -> spent.bind("news", () -> RunBudget.timeout(Duration.ofSeconds(30))).call());
+    }
+
+    @Test
+    void shouldStopRetryingWhenTheNextWaitWouldNotFit() throws Exception {
+        RunBudget budget = RunBudget.start(Duration.ofMillis(500), false, "news");
+        AtomicInteger attempts = new AtomicInteger();
+        RetryTelemetry telemetry = new RetryTelemetry();
+
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> budget.bind("news",
+                () -> RetryUtils.executeWithRetry(new HostGuards(), telemetry, FEED, () -> {
+                    attempts.incrementAndGet();
+                    throw new IOException("Connection reset");
+                }, 5, Duration.ofSeconds(5))).call());
+
+        assertTrue(RunBudget.exhausted(failure));
+        assertEquals(1, attempts.get(), "a 5s backoff cannot fit in 500ms");
+        assertEquals(1, telemetry.byHost().get("spring.io").outOfBudget());
+    }
+
+    @Test
+    void shouldCarryTheShareOverToFanOutThreads() throws Exception {
+        RunBudget budget = RunBudget.start(Duration.ofSeconds(60), false, "news");
+
+        List<Duration> remaining = budget.bind("news",
+                () -> FanOut.map(List.of(1, 2), 2, i -> RunBudget.current().remaining())).call();
+
+        remaining.forEach(r -> assertTrue(r.compareTo(Duration.ofSeconds(60)) <= 0, r.toString()));
+    }
+
+    @Test
+    void shouldNotHoldOnToSharesOfAnUnlimitedRun() throws Exception {
+        RunBudget unlimited = RunBudget.start(Duration.ZERO, false, "news");
+
+        assertFalse(unlimited.bounded());
+        assertNotSame(unlimited.share("news"), unlimited.share("news"),
+                "every command of a daemon shares the unlimited budget; it must not keep their sections");
+        assertEquals(RunBudget.current().remaining(), unlimited.bind("news", () -> RunBudget.current().remaining()).call());
+    }
+
+    private static void assertBetween(Duration low, Duration high, Duration actual) {
+        assertTrue(actual.compareTo(low) >= 0 && actual.compareTo(high) <= 0,
+                "expected " + low + ".." + high + " but was " + actual);
+    }
+}
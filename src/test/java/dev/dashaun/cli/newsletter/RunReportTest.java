@@ -0,0 +1,120 @@
+package dev.dashaun.cli.newsletter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunReportTest {
+
+    private SimpleMeterRegistry registry;
+    private ExitCodeTracker exitCodeTracker;
+    private RetryTelemetry telemetry;
+
+    @BeforeEach
+    void attach() {
+        // The services record into the global registry, as they do in the application.
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        exitCodeTracker = new ExitCodeTracker();
+        telemetry = new RetryTelemetry();
+    }
+
+    @AfterEach
+    void detach() {
+        Metrics.removeRegistry(registry);
+    }
+
+    private RunReport report(Path json, Path prometheus) {
+        return new RunReport(registry, exitCodeTracker, telemetry, new HostGuards(),
+                json != null ? json.toString() : "", prometheus != null ? prometheus.toString() : "");
+    }
+
+    @Test
+    void shouldReportSectionsAndWhatEachSourceRecorded() throws Exception {
+        RunReport report = report(null, null);
+        RunReport.Section news = report.section("news");
+        List<String> items = news.run(() -> RunMetrics.fetch(RunMetrics.NEWS, () -> List.of("a", "b")));
+        RunMetrics.items(RunMetrics.NEWS, items.size(), 5);
+        RunMetrics.bytes("https://spring.io/blog.atom", 2048, false);
+        RunMetrics.bytes("https://spring.io/blog/category/news.atom", 512, true);
+        telemetry.retrying("https://spring.io/blog.atom", 1, new IOException("reset"),
+                Duration.ofMillis(1500), false);
+        news.ok(items.size());
+        report.section("demos");
+        exitCodeTracker.recordWrite(false);
+
+        JsonNode json = new ObjectMapper().readTree(report.json());
+
+        assertEquals(3, json.get("exitCode").asInt());
+        assertEquals("news", json.get("sections").get(0).get("name").asText());
+        assertEquals("ok", json.get("sections").get(0).get("status").asText());
+        assertEquals(2, json.get("sections").get(0).get("items").asInt());
+        assertEquals("skipped", json.get("sections").get(1).get("status").asText());
+        assertEquals(1, json.get("sources").get("news").get("fetches").asInt());
+        assertEquals(2, json.get("sources").get("news").get("kept").asInt());
+        assertEquals(5, json.get("sources").get("news").get("filtered").asInt());
+        assertEquals(2048, json.get("downloads").get("spring.io").get("bytes").asLong());
+        assertEquals(512, json.get("downloads").get("spring.io").get("cachedBytes").asLong());
+        assertEquals(1, json.get("retries").get("total").asInt());
+        assertEquals(1500, json.get("retries").get("byHost").get("spring.io").get("waitMs").asLong());
+        assertEquals("backoff", json.get("retries").get("events").get(0).get("waitReason").asText());
+    }
+
+    @Test
+    void shouldMarkASectionFailedWhenItsWorkThrows() {
+        RunReport report = report(null, null);
+        RunReport.Section calendar = report.section("upcoming-releases");
+
+        assertThrows(IllegalStateException.class, () -> calendar.run(() -> {
+            throw new IllegalStateException("Failed to fetch calendar: 503");
+        }));
+
+        assertEquals(RunReport.Status.FAILED, calendar.status());
+        assertEquals("Failed to fetch calendar: 503", calendar.message());
+    }
+
+    @Test
+    void shouldWriteMetersInThePrometheusTextFormat() {
+        RunReport report = report(null, null);
+        RunMetrics.items(RunMetrics.YOUTUBE, 10, 4);
+        report.section("youtube").degraded(10, "no video from: Dan Vega");
+
+        String text = report.prometheus();
+
+        assertTrue(text.contains("newsletter_items_total{source=\"youtube\",state=\"kept\"} 10\n"), text);
+        assertTrue(text.contains("# TYPE newsletter_section_seconds summary\n"), text);
+        assertTrue(text.contains("newsletter_section_seconds_count{section=\"youtube\",status=\"degraded\"} 1\n"), text);
+        assertTrue(text.contains("newsletter_run_exit_code 0\n"), text);
+        assertFalse(text.contains("reactor"), "only the newsletter's own meters are exported");
+    }
+
+    @Test
+    void shouldWriteBothFilesWhenTheContextCloses() throws IOException {
+        Path directory = Files.createTempDirectory("newsletter-report");
+        Path json = directory.resolve("run.json");
+        Path prometheus = directory.resolve("textfile/newsletter.prom");
+        RunReport report = report(json, prometheus);
+        report.section("news").ok(8);
+
+        report.write();
+
+        assertTrue(Files.readString(json).contains("\"news\""));
+        assertTrue(Files.readString(prometheus).contains("newsletter_run_duration_seconds"));
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of("run.json", "textfile"), files.map(p -> p.getFileName().toString()).sorted().toList(),
+                    "no temporary files are left behind");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package dev.dashaun.cli.newsletter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VEventScannerTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 6, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 6, 30);
+
+    @Test
+    void shouldKeepOnlyEventsInsideWindowInCalendarOrder() {
+        VEventScanner.Scan scan = VEventScanner.scan(calendar(
+                event("DTSTART;VALUE=DATE:20250531", "Spring Boot 3.5.0"),
+                event("DTSTART;VALUE=DATE:20250610", "Spring Boot 3.5.1"),
+                event("DTSTART;VALUE=DATE:20250601", "Spring Data 2025.0.1"),
+                event("DTSTART;VALUE=DATE:20250630", "Spring Cloud 2025.0.0"),
+                event("DTSTART;VALUE=DATE:20250701", "Spring Shell 3.4.1")), FROM, TO);
+
+        assertEquals(List.of(
+                new VEventScanner.Event(LocalDate.of(2025, 6, 10), "Spring Boot 3.5.1"),
+                new VEventScanner.Event(LocalDate.of(2025, 6, 1), "Spring Data 2025.0.1"),
+                new VEventScanner.Event(LocalDate.of(2025, 6, 30), "Spring Cloud 2025.0.0")), scan.events());
+        assertNull(scan.fallbackCalendar(), "plain all-day events never need ical4j");
+    }
+
+    @Test
+    void shouldUnfoldSummaryAndIgnoreAlarmProperties() {
+        String ical = "BEGIN:VCALENDAR\nVERSION:2.0\n"
+                + "BEGIN:VEVENT\nUID:1\n"
+                + "BEGIN:VALARM\nACTION:DISPLAY\nSUMMARY:Reminder\nDTSTART:20240101T000000Z\nEND:VALARM\n"
+                + "dtstart;value=date:20250615\n"
+                + "SUMMARY;LANGUAGE=en:Spring Framework \n 6.2.9 (Enterp\r\n\trise)\n"
+                + "END:VEVENT\n"
+                + "END:VCALENDAR\n";
+
+        VEventScanner.Scan scan = VEventScanner.scan(ical, FROM, TO);
+
+        assertEquals(List.of(new VEventScanner.Event(LocalDate.of(2025, 6, 15), "Spring Framework 6.2.9 (Enterprise)")),
+                scan.events());
+    }
+
+    @Test
+    void shouldHandTimedZonedAndEscapedEventsNearWindowToIcal4j() {
+        String timezone = "BEGIN:VTIMEZONE\r\nTZID:Europe/London\r\nBEGIN:STANDARD\r\nDTSTART:19701025T020000\r\n"
+                + "TZOFFSETFROM:+0100\r\nTZOFFSETTO:+0000\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n";
+        String zoned = event("DTSTART;TZID=Europe/London:20250612T090000", "Spring AI 1.0.1");
+        String utc = event("DTSTART:20250531T230000Z", "Spring Kafka 4.0.0");
+        String escaped = event("DTSTART;VALUE=DATE:20250620", "Spring Batch 5.2.3\\, 5.1.4");
+        String farAway = event("DTSTART;TZID=Europe/London:20240101T090000", "Spring AI 0.8.0");
+        String ical = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\n" + timezone + zoned
+                + event("DTSTART;VALUE=DATE:20250613", "Spring Boot 3.5.1") + utc + escaped + farAway
+                + "END:VCALENDAR\r\n";
+
+        VEventScanner.Scan scan = VEventScanner.scan(ical, FROM, TO);
+
+        assertEquals(List.of(true, false, true, true),
+                scan.events().stream().map(VEventScanner.Event::needsFallback).toList());
+        String fallback = scan.fallbackCalendar();
+        assertTrue(fallback.startsWith("BEGIN:VCALENDAR\r\n") && fallback.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(fallback.contains(timezone), "zoned events need the feed's timezone definitions");
+        assertTrue(fallback.indexOf(zoned) < fallback.indexOf(utc) && fallback.indexOf(utc) < fallback.indexOf(escaped),
+                "fallback events must stay in the order of their placeholders");
+        assertFalse(fallback.contains("Spring AI 0.8.0"), "events far outside the window are dropped unparsed");
+        assertFalse(fallback.contains("Spring Boot 3.5.1"));
+    }
+
+    @Test
+    void shouldSkipEventsWithoutStartOrSummary() {
+        String ical = calendar(
+                "BEGIN:VEVENT\r\nUID:no-start\r\nSUMMARY:Spring Boot 3.5.1\r\nEND:VEVENT\r\n",
+                "BEGIN:VEVENT\r\nUID:no-summary\r\nDTSTART;VALUE=DATE:20250610\r\nEND:VEVENT\r\n",
+                event("DTSTART;VALUE=DATE:20250631", "Not a day"));
+
+        assertEquals(List.of(), VEventScanner.scan(ical, FROM, TO).events());
+    }
+
+    private static String calendar(String... events) {
+        return "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//test//EN\r\n" + String.join("", events)
+                + "END:VCALENDAR\r\n";
+    }
+
+    private static String event(String dtStart, String summary) {
+        return "BEGIN:VEVENT\r\nUID:" + summary.hashCode() + "\r\nDTSTAMP:20250101T000000Z\r\n"
+                + dtStart + "\r\nSUMMARY:" + summary + "\r\nEND:VEVENT\r\n";
+    }
+}
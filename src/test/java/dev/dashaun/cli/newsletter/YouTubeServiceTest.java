@@ -121,7 +121,7 @@ class YouTubeServiceTest {
 
         private YouTubeService serviceUnderTest(int channelSweeps) {
             return new YouTubeService(wireMock.baseUrl() + "/feeds/videos.xml", 2, Duration.ofMillis(1),
-                    channelSweeps, Duration.ofMillis(1));
+                    channelSweeps, Duration.ofMillis(1), HttpFetcher.standalone(), RequestHedger.disabled());
         }
 
         @Test
@@ -259,6 +259,80 @@ class YouTubeServiceTest {
                     videos.stream().map(YouTubeService.YouTubeVideo::getTitle).toList());
         }
 
+        @Test
+        void shouldFetchChannelsConcurrently() {
+            wireMock.stubFor(get(urlPathEqualTo("/feeds/videos.xml"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/atom+xml")
+                            .withFixedDelay(400)
+                            .withBody(ATOM_FEED)));
+
+            long start = System.nanoTime();
+            YouTubeService.FetchResult result = serviceUnderTest().fetchLatest(10);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertTrue(result.isComplete());
+            // Three 400ms channels: 1.2s one after another, a little over 400ms side by side.
+            assertTrue(elapsed.compareTo(Duration.ofMillis(1000)) < 0, "took " + elapsed.toMillis() + "ms");
+        }
+
+        @Test
+        void shouldHedgeARequestThatIsStuckInTheSlowTail() {
+            // Whichever channel asks first is stuck for 3s; every later request answers at once.
+            String scenario = "throttled";
+            wireMock.stubFor(get(urlPathEqualTo("/feeds/videos.xml")).inScenario(scenario)
+                    .whenScenarioStateIs(STARTED)
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/atom+xml")
+                            .withFixedDelay(3000)
+                            .withBody(ATOM_FEED))
+                    .willSetStateTo("fast"));
+            wireMock.stubFor(get(urlPathEqualTo("/feeds/videos.xml")).inScenario(scenario)
+                    .whenScenarioStateIs("fast")
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/atom+xml")
+                            .withBody(ATOM_FEED)));
+            RequestHedger hedger = new RequestHedger(true, 0.9, 1.0, Duration.ofMillis(200));
+            YouTubeService service = new YouTubeService(wireMock.baseUrl() + "/feeds/videos.xml", 2,
+                    Duration.ofMillis(1), 3, Duration.ofMillis(1), HttpFetcher.standalone(), hedger);
+
+            long start = System.nanoTime();
+            YouTubeService.FetchResult result = service.fetchLatest(10);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertTrue(result.isComplete());
+            assertTrue(hedger.hedges() >= 1);
+            assertTrue(elapsed.compareTo(Duration.ofMillis(2000)) < 0, "took " + elapsed.toMillis() + "ms");
+        }
+
+        @Test
+        void shouldNotMakeHealthyChannelsWaitForAFlakyOneToFinishItsSweeps() {
+            stubChannel("UCjcceQmjS4DKBW_J_1UANow", feedFor("coffee",
+                    "2026-08-10T12:00:00+00:00", "2026-08-09T12:00:00+00:00"));
+            stubChannel("UC7yfnfvEUlXUIfm8rGLwZdA", feedFor("spring",
+                    "2026-07-20T12:00:00+00:00", "2026-07-10T12:00:00+00:00"));
+            wireMock.stubFor(get(urlPathEqualTo("/feeds/videos.xml"))
+                    .withQueryParam("channel_id", equalTo("UCc98QQw1D-y38wg6mO3w4MQ"))
+                    .willReturn(aResponse().withStatus(404)));
+
+            YouTubeService service = new YouTubeService(wireMock.baseUrl() + "/feeds/videos.xml", 2,
+                    Duration.ofMillis(1), 3, Duration.ofMillis(200), HttpFetcher.standalone(), RequestHedger.disabled());
+            YouTubeService.FetchResult result = service.fetchLatest(3);
+
+            // The dead channel still gets all of its sweeps, and is still reported; the healthy
+            // channels were each asked exactly once rather than once per sweep.
+            assertEquals(List.of("Dan Vega"), result.missingChannels());
+            assertEquals(List.of("Coffee + Software", "Coffee + Software", "SpringSourceDev"),
+                    channelNamesInOrder(result));
+            wireMock.verify(2 * 3, getRequestedFor(urlPathEqualTo("/feeds/videos.xml"))
+                    .withQueryParam("channel_id", equalTo("UCc98QQw1D-y38wg6mO3w4MQ")));
+            wireMock.verify(1, getRequestedFor(urlPathEqualTo("/feeds/videos.xml"))
+                    .withQueryParam("channel_id", equalTo("UCjcceQmjS4DKBW_J_1UANow")));
+        }
+
         private void stubChannel(String channelId, String body) {
             wireMock.stubFor(get(urlPathEqualTo("/feeds/videos.xml"))
                     .withQueryParam("channel_id", equalTo(channelId))